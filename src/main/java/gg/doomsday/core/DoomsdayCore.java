@@ -50,11 +50,14 @@ import gg.doomsday.core.listeners.AIChatListener;
 import gg.doomsday.core.listeners.CustomChatListener;
 import gg.doomsday.core.ai.AIService;
 import gg.doomsday.core.data.PlayerDataManager;
+import gg.doomsday.core.data.TerrainJournal;
 import gg.doomsday.core.scoreboard.GameScoreboard;
 import gg.doomsday.core.messaging.MessagingManager;
 import gg.doomsday.core.gui.utils.ItemBuilder;
 import gg.doomsday.core.fuel.MissileFuelManager;
 import gg.doomsday.core.fuel.AntiAirFuelManager;
+import gg.doomsday.core.metrics.PerformanceMetrics;
+import gg.doomsday.core.flight.FlightSimulator;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -65,6 +68,8 @@ import java.util.UUID;
 public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
 
     private ConfigManager configManager;
+    private PerformanceMetrics metrics;
+    private FlightSimulator flightSimulator;
     private ExplosionHandler explosionHandler;
     private RocketLauncher rocketLauncher;
     private ReinforcedBlockManager reinforcedBlockManager;
@@ -91,6 +96,7 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
     private AIService aiService;
     private PlayerDataManager playerDataManager;
     private CustomChatListener customChatListener;
+    private TerrainJournal terrainJournal;
 
     @Override
     public void onEnable() {
@@ -100,6 +106,7 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
             // Initialize configuration manager first
             getLogger().info("Loading configuration manager...");
             configManager = new ConfigManager(this);
+            metrics = new PerformanceMetrics(this);
             
             // Initialize message manager
             getLogger().info("Loading message manager...");
@@ -114,6 +121,9 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
             getLogger().info("Loading detector manager...");
             detectorManager = new ReinforcementDetectorManager(this, reinforcedBlockManager, reinforcementHandler.getCustomItemManager());
             
+            // Initialize flight simulation for rockets and interceptors
+            flightSimulator = new FlightSimulator(this);
+            
             // Initialize anti-air defense system
             getLogger().info("Loading anti-air defense system...");
             antiAirManager = new AntiAirDefenseManager(this);
@@ -131,6 +141,10 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
             getLogger().info("Loading missile service...");
             missileService = new MissileService(this, rocketLauncher, messageManager);
             
+            // Initialize terrain journal (rolls back changes left by unfinished disasters)
+            getLogger().info("Loading terrain journal...");
+            terrainJournal = new TerrainJournal(this);
+            
             // Initialize nation manager with disaster system
             getLogger().info("Loading nation manager...");
             nationManager = new NationManager(this);
@@ -293,6 +307,14 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
         return configManager;
     }
 
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    public FlightSimulator getFlightSimulator() {
+        return flightSimulator;
+    }
+
     public MessageManager getMessageManager() {
         return messageManager;
     }
@@ -345,16 +367,36 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
         return playerDataManager;
     }
     
+    public TerrainJournal getTerrainJournal() {
+        return terrainJournal;
+    }
+    
     @Override
     public void onDisable() {
-        // Save reinforced blocks data
+        // Remove rockets and interceptors still in flight
+        if (flightSimulator != null) {
+            flightSimulator.shutdown();
+        }
+        if (antiAirManager != null) {
+            antiAirManager.shutdown();
+        }
+        
+        // Finish breaking blocks queued by explosions
+        if (explosionHandler != null) {
+            explosionHandler.shutdown();
+        }
+        
+        // Save reinforced blocks data and stop the background writer
         if (reinforcedBlockManager != null) {
-            reinforcedBlockManager.saveReinforcedBlocks();
+            reinforcedBlockManager.shutdown();
         }
         
-        // Save missile fuel data
+        // Write pending fuel changes and stop the background writers
         if (fuelManager != null) {
-            fuelManager.saveFuelData();
+            fuelManager.shutdown();
+        }
+        if (antiAirFuelManager != null) {
+            antiAirFuelManager.shutdown();
         }
         
         // Shutdown AI service
@@ -369,7 +411,7 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
         
         // Shutdown nation player manager
         if (nationPlayerManager != null) {
-            nationPlayerManager.saveConfiguration();
+            nationPlayerManager.shutdown();
         }
         
         // Shutdown role management system
@@ -382,6 +424,11 @@ public final class DoomsdayCore extends JavaPlugin implements TabCompleter {
             nationManager.shutdown();
         }
         
+        // Write the terrain journal; unrestored blocks are rolled back on next startup
+        if (terrainJournal != null) {
+            terrainJournal.shutdown();
+        }
+        
         // Shutdown scoreboard system
         if (gameScoreboard != null) {
             gameScoreboard.shutdown();
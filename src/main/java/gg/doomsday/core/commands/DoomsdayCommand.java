@@ -13,6 +13,8 @@ import gg.doomsday.core.nations.Nation;
 import gg.doomsday.core.nations.NationRoleManager;
 import gg.doomsday.core.nations.NationRole;
 import gg.doomsday.core.nations.NationRoleAssignment;
+import gg.doomsday.core.metrics.LatencyHistogram;
+import gg.doomsday.core.metrics.PerformanceMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.World;
@@ -95,6 +97,8 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
             case "role":
             case "roles":
                 return handleRoleAdmin(player, args);
+            case "metrics":
+                return handleMetrics(player, args);
             default:
                 showUsage(player);
                 return true;
@@ -206,6 +210,7 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GRAY + "/dd nation set <player> <nation|none> - Set player's nation");
             player.sendMessage(ChatColor.GRAY + "/dd nation remove <player> - Remove player from nation");
             player.sendMessage(ChatColor.GRAY + "/dd nation info <player> - View player's nation info");
+            player.sendMessage(ChatColor.GRAY + "/dd nation verify [repair] - Check online nation tracking");
             return true;
         }
         
@@ -218,9 +223,11 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
                 return handleNationRemove(player, args);
             case "info":
                 return handleNationInfo(player, args);
+            case "verify":
+                return handleNationVerify(player, args);
             default:
                 player.sendMessage(ChatColor.RED + "Unknown action: " + action);
-                player.sendMessage(ChatColor.GRAY + "Available actions: set, remove, info");
+                player.sendMessage(ChatColor.GRAY + "Available actions: set, remove, info, verify");
                 return true;
         }
     }
@@ -328,6 +335,39 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    private boolean handleNationVerify(Player player, String[] args) {
+        List<String> problems = nationPlayerManager.verifyConsistency();
+        player.sendMessage(ChatColor.GOLD + "=== Nation Tracking Check ===");
+        player.sendMessage(ChatColor.GRAY + nationPlayerManager.getCacheStats());
+        
+        if (problems.isEmpty()) {
+            player.sendMessage(ChatColor.GREEN + "✓ Membership and online tracking are consistent");
+            return true;
+        }
+        
+        player.sendMessage(ChatColor.RED + "Found " + problems.size() + " problem(s):");
+        for (int i = 0; i < Math.min(10, problems.size()); i++) {
+            player.sendMessage(ChatColor.GRAY + "- " + problems.get(i));
+        }
+        if (problems.size() > 10) {
+            player.sendMessage(ChatColor.GRAY + "... and " + (problems.size() - 10) + " more (see console)");
+        }
+        for (String problem : problems) {
+            plugin.getLogger().warning("Nation tracking: " + problem);
+        }
+        
+        if (args.length >= 3 && args[2].equalsIgnoreCase("repair")) {
+            nationPlayerManager.resyncOnlinePlayers();
+            int remaining = nationPlayerManager.verifyConsistency().size();
+            player.sendMessage(remaining == 0
+                ? ChatColor.GREEN + "✓ Rebuilt online tracking from the players on the server"
+                : ChatColor.RED + "Rebuilt online tracking, " + remaining + " problem(s) remain");
+        } else {
+            player.sendMessage(ChatColor.YELLOW + "Run /dd nation verify repair to rebuild online tracking");
+        }
+        return true;
+    }
+    
     private boolean handleToggle(Player player, String[] args) {
         if (!player.hasPermission("rocket.reload")) {
             player.sendMessage(ChatColor.RED + "You don't have permission to toggle settings!");
@@ -591,6 +631,54 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    private boolean handleMetrics(Player player, String[] args) {
+        if (!player.hasPermission("rocket.reload")) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to view metrics!");
+            return true;
+        }
+        
+        PerformanceMetrics metrics = plugin.getMetrics();
+        
+        if (args.length >= 2) {
+            String action = args[1].toLowerCase();
+            switch (action) {
+                case "reset":
+                    metrics.reset();
+                    player.sendMessage(ChatColor.GREEN + "✓ Metrics reset");
+                    return true;
+                case "debug":
+                    metrics.setDebugLogging(!metrics.isDebugLogging());
+                    player.sendMessage(ChatColor.GREEN + "✓ Debug logging " + (metrics.isDebugLogging() ? "enabled" : "disabled"));
+                    return true;
+                default:
+                    player.sendMessage(ChatColor.RED + "Unknown action: " + action);
+                    player.sendMessage(ChatColor.GRAY + "Available actions: reset, debug");
+                    return true;
+            }
+        }
+        
+        double seconds = Math.max(1L, metrics.getElapsedMillis()) / 1000.0;
+        player.sendMessage(ChatColor.GOLD + "=== Doomsday Metrics (" + String.format("%.0f", seconds) + "s) ===");
+        for (PerformanceMetrics.Counter counter : PerformanceMetrics.Counter.values()) {
+            long value = metrics.get(counter);
+            player.sendMessage(ChatColor.YELLOW + counter.getLabel() + ": " + ChatColor.WHITE + value
+                + ChatColor.GRAY + " (" + String.format("%.1f", value / seconds) + "/s)");
+        }
+        
+        player.sendMessage(ChatColor.GOLD + "Timings " + ChatColor.GRAY + "(count / mean / p50 / p99 / max)");
+        for (PerformanceMetrics.Timer timer : PerformanceMetrics.Timer.values()) {
+            LatencyHistogram histogram = metrics.getHistogram(timer);
+            player.sendMessage(ChatColor.YELLOW + timer.getLabel() + ": " + ChatColor.WHITE + histogram.getCount()
+                + ChatColor.GRAY + " / " + PerformanceMetrics.formatNanos(histogram.getMean())
+                + " / " + PerformanceMetrics.formatNanos(histogram.getPercentile(50))
+                + " / " + PerformanceMetrics.formatNanos(histogram.getPercentile(99))
+                + " / " + PerformanceMetrics.formatNanos(histogram.getMax()));
+        }
+        
+        player.sendMessage(ChatColor.YELLOW + "Debug Logging: " + (metrics.isDebugLogging() ? ChatColor.GREEN + "Enabled" : ChatColor.RED + "Disabled"));
+        return true;
+    }
+    
     private boolean handleHelp(Player player) {
         player.sendMessage(ChatColor.WHITE + "" + ChatColor.ITALIC + "--------------------");
         player.sendMessage(ChatColor.GOLD + "Doomsday Plugin Commands");
@@ -639,11 +727,13 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd blocks place " + ChatColor.GRAY + "- Place world markers");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd blocks remove " + ChatColor.GRAY + "- Remove world markers");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd kill-entities " + ChatColor.GRAY + "- Kill all non-player entities");
+            player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd metrics [reset|debug] " + ChatColor.GRAY + "- View performance metrics");
             
             player.sendMessage(ChatColor.YELLOW + "Nation Administration:");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd nation set <player> <nation|none> " + ChatColor.GRAY + "- Set player's nation");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd nation remove <player> " + ChatColor.GRAY + "- Remove player from nation");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd nation info <player> " + ChatColor.GRAY + "- View player's nation info");
+            player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd nation verify [repair] " + ChatColor.GRAY + "- Check online nation tracking");
             
             player.sendMessage(ChatColor.YELLOW + "Role Management:");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd role add <player> <role> " + ChatColor.GRAY + "- Assign role to player");
@@ -673,6 +763,7 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
         
         // Reload all configurations
         configManager.reloadAllConfigs();
+        plugin.getMetrics().loadConfig(configManager.getMainConfig());
         reinforcementHandler.reloadCustomItems();
         messageManager.reloadMessages();
         reinforcedBlockManager.reloadConfiguration();
@@ -699,6 +790,7 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
     
     private boolean reloadConfigs(Player player) {
         configManager.reloadAllConfigs();
+        plugin.getMetrics().loadConfig(configManager.getMainConfig());
         player.sendMessage(ChatColor.GREEN + "✅ Reloaded all configuration files!");
         return true;
     }
@@ -765,6 +857,7 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd blocks remove " + ChatColor.GRAY + "- Remove world markers");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd blocks reload " + ChatColor.GRAY + "- Remove and replace markers");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd kill-entities " + ChatColor.GRAY + "- Kill all non-player entities");
+            player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd metrics " + ChatColor.GRAY + "- View performance metrics");
             
             player.sendMessage(ChatColor.YELLOW + "Nation Administration:");
             player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + "/dd nation set <player> <nation|none> " + ChatColor.GRAY + "- Set player's nation");
@@ -781,7 +874,7 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
         if (args.length == 1) {
             List<String> completions = new ArrayList<>(Arrays.asList("help", "reload", "blocks", "kill-entities"));
             if (sender.hasPermission("rocket.reload")) {
-                completions.addAll(Arrays.asList("nation", "nations", "toggle", "role", "roles"));
+                completions.addAll(Arrays.asList("nation", "nations", "toggle", "role", "roles", "metrics"));
             }
             return completions;
         }
@@ -793,17 +886,22 @@ public class DoomsdayCommand implements CommandExecutor, TabCompleter {
             } else if (subCommand.equals("blocks")) {
                 return Arrays.asList("place", "remove", "reload");
             } else if ((subCommand.equals("nation") || subCommand.equals("nations")) && sender.hasPermission("rocket.reload")) {
-                return Arrays.asList("set", "remove", "info");
+                return Arrays.asList("set", "remove", "info", "verify");
             } else if (subCommand.equals("toggle") && sender.hasPermission("rocket.reload")) {
                 return Arrays.asList("join", "leave", "status");
             } else if ((subCommand.equals("role") || subCommand.equals("roles")) && sender.hasPermission("rocket.reload")) {
                 return Arrays.asList("add", "remove", "list", "window", "assign", "reset");
+            } else if (subCommand.equals("metrics") && sender.hasPermission("rocket.reload")) {
+                return Arrays.asList("reset", "debug");
             }
         }
         
         if (args.length == 3) {
             String subCommand = args[0].toLowerCase();
             if ((subCommand.equals("nation") || subCommand.equals("nations")) && sender.hasPermission("rocket.reload")) {
+                if (args[1].equalsIgnoreCase("verify")) {
+                    return Arrays.asList("repair");
+                }
                 // Return online player names
                 List<String> playerNames = new ArrayList<>();
                 for (Player player : Bukkit.getOnlinePlayers()) {
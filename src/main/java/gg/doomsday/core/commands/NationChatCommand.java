@@ -9,7 +9,6 @@ import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
 import net.luckperms.api.cacheddata.CachedDataManager;
 import net.luckperms.api.model.user.User;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -25,8 +24,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.UUID;
 
 public class NationChatCommand implements CommandExecutor, TabCompleter {
     
@@ -110,16 +107,8 @@ public class NationChatCommand implements CommandExecutor, TabCompleter {
         String formattedMessage = buildNationChatMessage(player, nation, message);
         
         // Send to all online players in the same nation
-        Set<UUID> onlinePlayersInNation = nationPlayerManager.getOnlinePlayersInNation(nationId);
-        int sentCount = 0;
-        
-        for (UUID playerId : onlinePlayersInNation) {
-            Player nationPlayer = Bukkit.getPlayer(playerId);
-            if (nationPlayer != null && nationPlayer.isOnline()) {
-                nationPlayer.sendMessage(formattedMessage);
-                sentCount++;
-            }
-        }
+        nationPlayerManager.forEachOnlineInNation(nationId, nationPlayer -> nationPlayer.sendMessage(formattedMessage));
+        int sentCount = nationPlayerManager.getOnlinePlayerCountInNation(nationId);
         
         // Log to console if enabled
         if (chatConfig.getBoolean("nation_chat.console.enabled", true)) {
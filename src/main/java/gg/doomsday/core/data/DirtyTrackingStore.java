@@ -0,0 +1,206 @@
+package gg.doomsday.core.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory key/value map backed by a flat YAML file, written in the background.
+ *
+ * Every change marks its key dirty. The first change after a write schedules the next
+ * one, so however many changes arrive the file is written at most once per flush
+ * interval. The writer thread owns its own copy of the YAML document and only applies
+ * the keys that changed before saving it with {@link YamlFiles#writeAtomically}.
+ *
+ * Reads and updates are safe from any thread.
+ */
+public class DirtyTrackingStore<V> {
+
+    /**
+     * Reads one value back from the YAML document
+     */
+    public interface ValueReader<V> {
+        V read(ConfigurationSection section, String key);
+    }
+
+    private final JavaPlugin plugin;
+    private final File file;
+    private final ValueReader<V> reader;
+    private final long flushIntervalMillis;
+    private final Map<String, V> values = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor writer;
+
+    // Writer thread only
+    private YamlConfiguration document = new YamlConfiguration();
+
+    public DirtyTrackingStore(JavaPlugin plugin, String fileName, long flushIntervalMillis, ValueReader<V> reader) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), fileName);
+        this.reader = reader;
+        this.flushIntervalMillis = Math.max(0L, flushIntervalMillis);
+        this.writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "DoomsdayCore-Store-" + fileName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Shutdown writes everything itself instead of waiting out a scheduled flush
+        this.writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Replace the in-memory contents with the file on disk. Call before handing the store
+     * to other threads; unsaved changes are discarded.
+     *
+     * @return the number of entries loaded
+     */
+    public int load() {
+        YamlConfiguration loaded = new YamlConfiguration();
+        if (file.exists()) {
+            try {
+                loaded.load(file);
+            } catch (IOException | InvalidConfigurationException e) {
+                plugin.getLogger().severe("Could not read " + file.getName() + ": " + e.getMessage());
+            }
+        }
+
+        values.clear();
+        dirty.clear();
+        for (String key : loaded.getKeys(false)) {
+            V value = reader.read(loaded, key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        writer.execute(() -> document = loaded);
+        return values.size();
+    }
+
+    public V get(String key) {
+        return values.get(key);
+    }
+
+    public V getOrDefault(String key, V defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void put(String key, V value) {
+        values.put(key, value);
+        markDirty(key);
+    }
+
+    public V remove(String key) {
+        V previous = values.remove(key);
+        if (previous != null) {
+            markDirty(key);
+        }
+        return previous;
+    }
+
+    /**
+     * Atomically update one key. Returning null removes it. The key is only marked dirty
+     * if the value actually changed.
+     */
+    public V compute(String key, BiFunction<String, V, V> remapping) {
+        Object[] previous = new Object[1];
+        V result = values.compute(key, (k, value) -> {
+            previous[0] = value;
+            return remapping.apply(k, value);
+        });
+        if (!Objects.equals(previous[0], result)) {
+            markDirty(key);
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (String key : values.keySet()) {
+            values.remove(key);
+            markDirty(key);
+        }
+    }
+
+    /**
+     * Copy of the current contents
+     */
+    public Map<String, V> snapshot() {
+        return new HashMap<>(values);
+    }
+
+    /**
+     * Write pending changes now instead of at the end of the flush interval. Does not block.
+     */
+    public void flush() {
+        if (!dirty.isEmpty() && !writer.isShutdown()) {
+            writer.execute(this::writeDirty);
+        }
+    }
+
+    /**
+     * Write pending changes and stop the background writer, waiting for it to finish
+     */
+    public void shutdown() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(this::writeDirty);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for " + file.getName() + " to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markDirty(String key) {
+        dirty.add(key);
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                writer.schedule(this::writeDirty, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down - the final write picks this change up if it has not run yet
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void writeDirty() {
+        // Cleared first so changes made while writing schedule another write
+        flushScheduled.set(false);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        for (String key : dirty.toArray(new String[0])) {
+            dirty.remove(key);
+            document.set(key, values.get(key));
+        }
+
+        try {
+            YamlFiles.writeAtomically(file, document.saveToString());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package gg.doomsday.core.data;
+
+import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongLongHashMap;
+import gg.doomsday.core.utils.LongObjectHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record of temporary terrain changes, so they can be undone a few blocks at a time.
+ *
+ * Each disaster run (or anything else that changes blocks temporarily) opens a
+ * {@link Batch} and records every block just before changing it. A block keeps the
+ * state it had when first recorded, stored as an index into a small per-batch palette
+ * of "placed type + original block data" pairs.
+ *
+ * Restoring a batch queues its blocks by chunk, and a tick task puts back at most
+ * terrain.restoreBlocksPerTick of them per tick, only in loaded chunks. A block is only
+ * put back if it still holds what was placed there, so later player changes survive.
+ *
+ * Batches are written to terrain_journal.yml in the background and removed once
+ * restored. Whatever is still in the file at startup, from a crash mid-disaster or a
+ * shutdown before restoration finished, is rolled back the same way.
+ *
+ * Main thread only.
+ */
+public class TerrainJournal implements Listener {
+
+    private static final String FILE_NAME = "terrain_journal.yml";
+    // Blocks per persisted segment, so each change rewrites one short string
+    private static final int SEGMENT_SIZE = 64;
+
+    /**
+     * Blocks changed by one disaster run
+     */
+    public final class Batch {
+        private final String id;
+        private final String worldName;
+        private final LongLongHashMap recorded = new LongLongHashMap(); // packed block key -> palette index
+        private final List<String> palette = new ArrayList<>();
+        private final Map<String, Integer> paletteIndex = new HashMap<>();
+        private final StringBuilder segment = new StringBuilder();
+        private int segmentEntries;
+        private int segmentIndex;
+
+        // Filled in when restoration starts
+        private Material[] placedTypes;
+        private BlockData[] originals;
+        private int remaining;
+        private boolean restoring;
+
+        private Batch(String id, String worldName) {
+            this.id = id;
+            this.worldName = worldName;
+        }
+
+        /**
+         * Remember the block's current state before it is changed to the placed type.
+         * Only the first record of a block is kept.
+         */
+        public void record(Block block, Material placed) {
+            if (restoring) {
+                return;
+            }
+            long position = CoordinateUtils.packBlockKey(block.getX(), block.getY(), block.getZ());
+            if (recorded.containsKey(position)) {
+                return;
+            }
+
+            String state = placed.name() + " " + block.getBlockData().getAsString();
+            Integer index = paletteIndex.get(state);
+            if (index == null) {
+                index = palette.size();
+                palette.add(state);
+                paletteIndex.put(state, index);
+                if (index == 0) {
+                    writer.set(path() + ".world", worldName);
+                }
+                writer.set(path() + ".palette", new ArrayList<>(palette));
+            }
+            recorded.put(position, index);
+            appendToSegment(block.getX(), block.getY(), block.getZ(), index);
+        }
+
+        /**
+         * Put every recorded block back, spread over the following ticks
+         */
+        public void restore() {
+            TerrainJournal.this.restore(this);
+        }
+
+        public int size() {
+            return recorded.size();
+        }
+
+        private String path() {
+            return "batches." + id;
+        }
+
+        private void appendToSegment(int x, int y, int z, int state) {
+            if (segmentEntries == SEGMENT_SIZE) {
+                segment.setLength(0);
+                segmentEntries = 0;
+                segmentIndex++;
+            }
+            if (segmentEntries > 0) {
+                segment.append(';');
+            }
+            segment.append(x).append(',').append(y).append(',').append(z).append(',').append(state);
+            segmentEntries++;
+            writer.set(path() + ".blocks.s" + segmentIndex, segment.toString());
+        }
+    }
+
+    private static final class ChunkWork {
+        final String worldName;
+        final int chunkX;
+        final int chunkZ;
+        long[] positions = new long[16];
+        int[] states = new int[16];
+        Batch[] batches = new Batch[16];
+        int size;
+        int next;
+        boolean queued;
+
+        ChunkWork(String worldName, int chunkX, int chunkZ) {
+            this.worldName = worldName;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        void add(long position, int state, Batch batch) {
+            if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                states = Arrays.copyOf(states, capacity);
+                batches = Arrays.copyOf(batches, capacity);
+            }
+            positions[size] = position;
+            states[size] = state;
+            batches[size] = batch;
+            size++;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final YamlWriteBehind writer;
+    private final int restoreBlocksPerTick;
+    private final Map<String, Batch> batches = new HashMap<>();
+    // World name -> chunk key -> blocks waiting to be restored there
+    private final Map<String, LongObjectHashMap<ChunkWork>> pending = new HashMap<>();
+    // Chunks with waiting blocks that are loaded right now
+    private final ArrayDeque<ChunkWork> ready = new ArrayDeque<>();
+    private BukkitRunnable restoreTask;
+
+    public TerrainJournal(JavaPlugin plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = ((DoomsdayCore) plugin).getConfigManager().getMainConfig();
+        this.restoreBlocksPerTick = Math.max(1, config.getInt("terrain.restoreBlocksPerTick", 200));
+        long flushIntervalMillis = config.getLong("storage.flushIntervalSeconds", 5) * 1000L;
+
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        this.writer = new YamlWriteBehind(plugin, file, flushIntervalMillis);
+        rollBackUnfinished(file);
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Open a batch for changes made in the world. The name only needs to be readable;
+     * it is made unique here.
+     */
+    public Batch begin(String name, World world) {
+        String base = name + "-" + System.currentTimeMillis();
+        String id = base;
+        for (int suffix = 2; batches.containsKey(id); suffix++) {
+            id = base + "-" + suffix;
+        }
+        Batch batch = new Batch(id, world.getName());
+        batches.put(id, batch);
+        return batch;
+    }
+
+    /**
+     * Number of blocks waiting to be restored, in loaded and unloaded chunks
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Batch batch : batches.values()) {
+            count += batch.remaining;
+        }
+        return count;
+    }
+
+    /**
+     * Stop restoring and write the journal. Blocks not restored yet are rolled back on
+     * the next startup.
+     */
+    public void shutdown() {
+        if (restoreTask != null) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+        int unrestored = 0;
+        for (Batch batch : batches.values()) {
+            unrestored += batch.restoring ? batch.remaining : batch.size();
+        }
+        if (unrestored > 0) {
+            plugin.getLogger().info(unrestored + " disaster-changed blocks will be restored on next startup");
+        }
+        writer.shutdown();
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        LongObjectHashMap<ChunkWork> chunks = pending.get(event.getWorld().getName());
+        if (chunks == null) {
+            return;
+        }
+        ChunkWork work = chunks.get(CoordinateUtils.packChunkKey(event.getChunk().getX(), event.getChunk().getZ()));
+        if (work != null && !work.queued) {
+            work.queued = true;
+            ready.add(work);
+            startRestoreTask();
+        }
+    }
+
+    private void restore(Batch batch) {
+        if (batch.restoring) {
+            return;
+        }
+        batch.restoring = true;
+
+        batch.placedTypes = new Material[batch.palette.size()];
+        batch.originals = new BlockData[batch.palette.size()];
+        for (int i = 0; i < batch.palette.size(); i++) {
+            String state = batch.palette.get(i);
+            int split = state.indexOf(' ');
+            try {
+                batch.placedTypes[i] = Material.valueOf(state.substring(0, split));
+                batch.originals[i] = Bukkit.createBlockData(state.substring(split + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                plugin.getLogger().warning("Skipping unreadable block state in " + FILE_NAME + ": " + state);
+            }
+        }
+
+        World world = Bukkit.getWorld(batch.worldName);
+        LongObjectHashMap<ChunkWork> chunks = pending.computeIfAbsent(batch.worldName, name -> new LongObjectHashMap<>());
+        batch.recorded.forEach((position, state) -> {
+            int x = CoordinateUtils.unpackBlockX(position);
+            int z = CoordinateUtils.unpackBlockZ(position);
+            long chunkKey = CoordinateUtils.packChunkKey(x >> 4, z >> 4);
+            ChunkWork work = chunks.computeIfAbsent(chunkKey, () -> new ChunkWork(batch.worldName, x >> 4, z >> 4));
+            work.add(position, (int) state, batch);
+            batch.remaining++;
+            if (!work.queued && world != null && world.isChunkLoaded(x >> 4, z >> 4)) {
+                work.queued = true;
+                ready.add(work);
+            }
+        });
+
+        if (batch.remaining == 0) {
+            finish(batch);
+        } else {
+            startRestoreTask();
+        }
+    }
+
+    private void startRestoreTask() {
+        // Tasks cannot be scheduled while disabling; the work is picked up on next startup
+        if (restoreTask != null || ready.isEmpty() || !plugin.isEnabled()) {
+            return;
+        }
+        restoreTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                restoreSome();
+            }
+        };
+        restoreTask.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void restoreSome() {
+        int budget = restoreBlocksPerTick;
+        while (budget > 0 && !ready.isEmpty()) {
+            ChunkWork work = ready.peek();
+            World world = Bukkit.getWorld(work.worldName);
+            if (world == null || !world.isChunkLoaded(work.chunkX, work.chunkZ)) {
+                // Picked up again by onChunkLoad
+                ready.poll();
+                work.queued = false;
+                continue;
+            }
+
+            while (budget > 0 && work.next < work.size) {
+                int i = work.next++;
+                restoreBlock(world, work.positions[i], work.states[i], work.batches[i]);
+                work.batches[i] = null;
+                budget--;
+            }
+
+            if (work.next == work.size) {
+                ready.poll();
+                pending.get(work.worldName).remove(CoordinateUtils.packChunkKey(work.chunkX, work.chunkZ));
+            }
+        }
+
+        if (ready.isEmpty() && restoreTask != null) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+    }
+
+    private void restoreBlock(World world, long position, int state, Batch batch) {
+        BlockData original = batch.originals[state];
+        if (original != null) {
+            Block block = world.getBlockAt(CoordinateUtils.unpackBlockX(position),
+                CoordinateUtils.unpackBlockY(position), CoordinateUtils.unpackBlockZ(position));
+            if (block.getType() == batch.placedTypes[state]) {
+                block.setBlockData(original);
+            }
+        }
+        if (--batch.remaining == 0) {
+            finish(batch);
+        }
+    }
+
+    private void finish(Batch batch) {
+        batches.remove(batch.id);
+        writer.set(batch.path(), null);
+    }
+
+    private void rollBackUnfinished(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        ConfigurationSection section = YamlConfiguration.loadConfiguration(file).getConfigurationSection("batches");
+        if (section == null) {
+            return;
+        }
+
+        List<Batch> unfinished = new ArrayList<>();
+        for (String id : section.getKeys(false)) {
+            Batch batch = new Batch(id, section.getString(id + ".world", ""));
+            batch.palette.addAll(section.getStringList(id + ".palette"));
+            ConfigurationSection blocks = section.getConfigurationSection(id + ".blocks");
+            if (blocks != null) {
+                for (String segmentKey : blocks.getKeys(false)) {
+                    readSegment(batch, blocks.getString(segmentKey, ""));
+                }
+            }
+            batches.put(id, batch);
+            unfinished.add(batch);
+        }
+
+        int blocks = 0;
+        for (Batch batch : unfinished) {
+            blocks += batch.size();
+            restore(batch);
+        }
+        if (blocks > 0) {
+            plugin.getLogger().info("Rolling back " + blocks + " blocks left changed by "
+                + unfinished.size() + " unfinished disasters");
+        }
+    }
+
+    private void readSegment(Batch batch, String segment) {
+        if (segment.isEmpty()) {
+            return;
+        }
+        for (String entry : segment.split(";")) {
+            String[] parts = entry.split(",");
+            try {
+                int state = Integer.parseInt(parts[3]);
+                if (state >= 0 && state < batch.palette.size()) {
+                    long position = CoordinateUtils.packBlockKey(
+                        Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    batch.recorded.put(position, state);
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                plugin.getLogger().warning("Skipping malformed entry in " + FILE_NAME + ": " + entry);
+            }
+        }
+    }
+}
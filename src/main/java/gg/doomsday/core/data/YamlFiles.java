@@ -0,0 +1,38 @@
+package gg.doomsday.core.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File helpers shared by the background YAML writers
+ */
+final class YamlFiles {
+
+    private YamlFiles() {
+    }
+
+    /**
+     * Write the contents to a temp file next to the target and rename it over the target,
+     * so a crash mid-write never leaves a truncated file behind
+     */
+    static void writeAtomically(File file, String contents) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            Files.write(tempFile.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+            throw e;
+        }
+    }
+}
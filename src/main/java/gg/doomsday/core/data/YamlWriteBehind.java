@@ -0,0 +1,163 @@
+package gg.doomsday.core.data;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background writer for a YAML file whose live copy is kept in memory elsewhere,
+ * e.g. a config the main thread reads and edits.
+ *
+ * Callers mirror each change they make with {@link #set(String, Object)}. The writer
+ * thread keeps its own copy of the document, applies the pending paths to it and saves
+ * it with {@link YamlFiles#writeAtomically} at most once per flush interval, so a burst
+ * of changes costs one write and the caller never blocks on disk.
+ *
+ * Only the last write to each path is kept, in the order of those last writes, which
+ * gives the same document as applying every write in turn. Values must not be changed
+ * after they are handed over.
+ */
+public class YamlWriteBehind {
+
+    private final JavaPlugin plugin;
+    private final File file;
+    private final long flushIntervalMillis;
+    private final ScheduledThreadPoolExecutor writer;
+
+    // Guarded by itself; null values delete the path
+    private final Map<String, Object> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    // Writer thread only
+    private YamlConfiguration document = new YamlConfiguration();
+
+    public YamlWriteBehind(JavaPlugin plugin, File file, long flushIntervalMillis) {
+        this.plugin = plugin;
+        this.file = file;
+        this.flushIntervalMillis = Math.max(0L, flushIntervalMillis);
+        this.writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "DoomsdayCore-Yaml-" + file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Shutdown writes everything itself instead of waiting out a scheduled flush
+        this.writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        reload();
+    }
+
+    /**
+     * Write pending changes, then re-read the file so edits made to it by hand are kept
+     * by later writes. Blocks until done; call before reloading the in-memory copy.
+     */
+    public void reload() {
+        runAndWait(() -> {
+            writePending();
+            YamlConfiguration loaded = new YamlConfiguration();
+            if (file.exists()) {
+                try {
+                    loaded.load(file);
+                } catch (IOException | InvalidConfigurationException e) {
+                    plugin.getLogger().severe("Could not read " + file.getName() + ": " + e.getMessage());
+                }
+            }
+            document = loaded;
+        });
+    }
+
+    /**
+     * Record a change to one path. Null removes it.
+     */
+    public void set(String path, Object value) {
+        boolean schedule;
+        synchronized (pending) {
+            // Re-inserting keeps the paths in the order of their last write
+            pending.remove(path);
+            pending.put(path, value);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            try {
+                writer.schedule(this::writePending, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down - the final write picks this change up if it has not run yet
+                synchronized (pending) {
+                    flushScheduled = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write pending changes now instead of at the end of the flush interval. Does not block.
+     */
+    public void flush() {
+        if (!writer.isShutdown()) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Write pending changes and stop the background writer, waiting for it to finish
+     */
+    public void shutdown() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(this::writePending);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for " + file.getName() + " to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runAndWait(Runnable task) {
+        if (writer.isShutdown()) {
+            return;
+        }
+        try {
+            writer.submit(task).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            plugin.getLogger().warning("Background task for " + file.getName() + " failed: " + e);
+        }
+    }
+
+    private void writePending() {
+        Map<String, Object> changes;
+        synchronized (pending) {
+            // Cleared first so changes made while writing schedule another write
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            document.set(change.getKey(), change.getValue());
+        }
+
+        try {
+            YamlFiles.writeAtomically(file, document.saveToString());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package gg.doomsday.core.defense;
 
 import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.flight.FlightSimulator;
+import gg.doomsday.core.flight.InterceptSolver;
+import gg.doomsday.core.flight.Projectile;
 import gg.doomsday.core.fuel.AntiAirFuelManager;
+import gg.doomsday.core.fuel.FuelLedger;
+import gg.doomsday.core.metrics.PerformanceMetrics;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -13,13 +18,15 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Transformation;
-import org.bukkit.util.Vector;
 import org.joml.AxisAngle4f;
 import org.joml.Vector3f;
 
 import java.util.concurrent.ThreadLocalRandom;
 
 public class AntiAirDefense {
+    // Interceptors leave from 2 blocks above the beacon
+    private static final double LAUNCH_HEIGHT = 2.0;
+
     private final Location location;
     private final String name;
     private final String displayName;
@@ -33,6 +40,8 @@ public class AntiAirDefense {
     
     private long lastShotTime;
     private boolean operational;
+    // True from committing to a target until the interceptor launches or the engagement is abandoned
+    private boolean engaging;
 
     public AntiAirDefense(JavaPlugin plugin, String name, String displayName, Location location, double range, 
                          double accuracy, double interceptorSpeed, double reloadTime, double startupTime, boolean automatic) {
@@ -51,89 +60,89 @@ public class AntiAirDefense {
     }
 
     public boolean canIntercept(Location missileStart, Location missileEnd, double missileSpeed) {
-        plugin.getLogger().info("=== " + name + " canIntercept check ===");
+        PerformanceMetrics metrics = ((DoomsdayCore) plugin).getMetrics();
         
         if (!operational) {
-            plugin.getLogger().info(name + " - FAILED: Not operational");
+            metrics.debug("antiair.check." + name, name + " - FAILED: Not operational");
             return false;
         }
 
         if (System.currentTimeMillis() - lastShotTime < reloadTime * 1000) {
-            plugin.getLogger().info(name + " - FAILED: In reload period");
+            metrics.debug("antiair.check." + name, name + " - FAILED: In reload period");
             return false;
         }
 
         // Check if manual defense needs a player nearby
-        if (!automatic) {
-            boolean playerNearby = false;
-            double closestPlayerDistance = Double.MAX_VALUE;
-            for (Player player : location.getWorld().getPlayers()) {
-                double distance = player.getLocation().distance(location);
-                if (distance < closestPlayerDistance) {
-                    closestPlayerDistance = distance;
-                }
-                if (distance <= 5.0) { // Increased from 3.0 to 5.0 blocks
-                    playerNearby = true;
-                    break;
-                }
-            }
-            if (!playerNearby) {
-                plugin.getLogger().info("Manual defense '" + name + "' cannot engage - no player nearby (closest: " + String.format("%.1f", closestPlayerDistance) + " blocks)");
-                return false; // Manual defense needs operator
-            } else {
-                plugin.getLogger().info("Manual defense '" + name + "' has operator nearby (" + String.format("%.1f", closestPlayerDistance) + " blocks)");
-            }
-        }
-
-        double distanceToTarget = location.distance(missileEnd);
-        plugin.getLogger().info(name + " - Target distance: " + String.format("%.1f", distanceToTarget) + " (range: " + range + ")");
-        if (distanceToTarget > range) {
-            plugin.getLogger().info(name + " - FAILED: Target out of range");
-            return false;
+        if (!automatic && !getOperatorRegistry().hasOperator(this)) {
+            metrics.debug("antiair.check." + name, "Manual defense '" + name + "' cannot engage - no player within "
+                + OperatorPresenceRegistry.OPERATOR_RANGE + " blocks");
+            return false; // Manual defense needs operator
         }
 
-        // Always attempt interception if within range and operational
-        // Let the actual pursuit determine success/failure
-        plugin.getLogger().info(name + " - ALL CHECKS PASSED - Will attempt interception");
+        // Range is settled by the defense index and the intercept solver, not the missile's end point
+        metrics.debug("antiair.check." + name, name + " - ALL CHECKS PASSED - Will attempt interception");
         
         return true;
     }
 
-    public boolean attemptIntercept(Location missileStart, Location missileEnd, double missileSpeed, BlockDisplay missileEntity) {
-        if (!canIntercept(missileStart, missileEnd, missileSpeed)) {
+    /**
+     * Commit to engaging a missile: after the startup delay an interceptor is launched at it
+     *
+     * @return true if the defense committed; {@link AntiAirDefenseManager#onEngagementEnded} is called once it is over
+     */
+    public boolean attemptIntercept(Location missileStart, Location missileEnd, double missileSpeed, Projectile missile) {
+        if (engaging || !canIntercept(missileStart, missileEnd, missileSpeed)) {
+            return false;
+        }
+
+        // Reject engagements the interceptor cannot physically reach before spending anything
+        PerformanceMetrics metrics = ((DoomsdayCore) plugin).getMetrics();
+        if (solveIntercept(missile, startupTime * 20) == null) {
+            metrics.debug("antiair.check." + name, name + " - FAILED: No intercept solution");
             return false;
         }
 
-        // Check fuel requirements
+        // Hold the fuel for the shot now so nothing else can spend it during startup
         DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
         AntiAirFuelManager fuelManager = doomsdayCore.getAntiAirFuelManager();
         int fuelRequired = fuelManager.getFuelRequirement(name);
+        FuelLedger.Reservation fuel = fuelManager.reserveFuel(name, fuelRequired);
         
-        if (!fuelManager.hasSufficientFuel(name, fuelRequired)) {
-            int currentFuel = fuelManager.getFuel(name);
+        if (fuel == null) {
+            int currentFuel = fuelManager.getAvailableFuel(name);
             plugin.getLogger().info("Anti-air defense '" + name + "' has insufficient fuel (" + currentFuel + "/" + fuelRequired + ")");
             return false;
         }
 
         plugin.getLogger().info("Anti-air defense '" + name + "' detected threat, preparing to engage...");
+        engaging = true;
         
         // Startup delay - defense needs time to acquire target and launch
         new BukkitRunnable() {
             @Override
             public void run() {
-                if (missileEntity == null || missileEntity.isDead()) {
+                engaging = false;
+                if (missile == null || !missile.isAlive()) {
                     plugin.getLogger().info("Anti-air defense '" + name + "' - target lost during startup");
+                    fuel.release();
+                    notifyEngagementEnded(missile);
+                    return;
+                }
+
+                // Re-solve from the missile's actual position now that startup is over
+                InterceptSolver.Solution solution = solveIntercept(missile, 0);
+                if (solution == null) {
+                    plugin.getLogger().info("Anti-air defense '" + name + "' - target out of reach after startup, holding fire");
+                    fuel.release();
+                    notifyEngagementEnded(missile);
                     return;
                 }
                 
                 // Set reload time when actually firing, not when detecting
                 lastShotTime = System.currentTimeMillis();
                 
-                // Consume fuel when actually firing
-                DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                AntiAirFuelManager fuelManager = doomsdayCore.getAntiAirFuelManager();
-                int fuelRequired = fuelManager.getFuelRequirement(name);
-                fuelManager.consumeFuel(name, fuelRequired);
+                // Consume the reserved fuel when actually firing
+                fuel.commit();
                 
                 plugin.getLogger().info("Anti-air defense '" + name + "' launching interceptor!");
                 
@@ -151,17 +160,52 @@ public class AntiAirDefense {
                     plugin.getLogger().info("Anti-air defense '" + name + "' interceptor will miss target");
                 }
                 
-                fireInterceptor(missileEntity, willHit);
+                fireInterceptor(missile, willHit, solution);
             }
         }.runTaskLater(plugin, (long)(startupTime * 20)); // Configurable startup time
         
-        return false; // Don't immediately stop missile, let interceptor catch it
+        return true; // Missile keeps flying until the interceptor catches it
+    }
+
+    private OperatorPresenceRegistry getOperatorRegistry() {
+        return ((DoomsdayCore) plugin).getAntiAirManager().getOperatorRegistry();
+    }
+
+    private void notifyEngagementEnded(Projectile missile) {
+        ((DoomsdayCore) plugin).getAntiAirManager().onEngagementEnded(this, missile);
+    }
+
+    /**
+     * Estimate how long until an interceptor fired at this missile would reach it,
+     * including the startup delay
+     *
+     * @return ticks until intercept, or {@link Double#POSITIVE_INFINITY} if the missile cannot be reached
+     */
+    public double estimateInterceptTicks(Projectile missile) {
+        double startupTicks = startupTime * 20;
+        InterceptSolver.Solution solution = solveIntercept(missile, startupTicks);
+        return solution != null ? startupTicks + solution.getTicks() : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Solve for an interceptor launched after the given delay against the missile's precomputed trajectory
+     *
+     * @return the intercept, or null if the missile reaches its target first or the meeting point is beyond pursuit range
+     */
+    private InterceptSolver.Solution solveIntercept(Projectile missile, double delayTicks) {
+        if (missile == null || !missile.isAlive() || missile.getTrajectory() == null) {
+            return null;
+        }
+        double missileTime = missile.getElapsed() + delayTicks * missile.getTimeStep();
+        return InterceptSolver.solve(missile.getTrajectory(), missileTime, missile.getTimeStep(),
+            location.getX(), location.getY() + LAUNCH_HEIGHT, location.getZ(),
+            interceptorSpeed, range * 1.5); // 1.5x range as max pursuit distance
     }
 
-    private void fireInterceptor(BlockDisplay missileTarget, boolean willHit) {
+    private void fireInterceptor(Projectile missileTarget, boolean willHit, InterceptSolver.Solution solution) {
         playDefenseSound(location, Sound.ENTITY_FIREWORK_ROCKET_LAUNCH, 2.0f, 1.2f);
         
-        Location interceptorStart = location.clone().add(0, 2, 0); // Launch from 2 blocks higher than beacon
+        Location interceptorStart = location.clone().add(0, LAUNCH_HEIGHT, 0); // Launch from 2 blocks higher than beacon
         
         BlockData ironBlock = Material.IRON_BLOCK.createBlockData();
         BlockDisplay interceptor = location.getWorld().spawn(interceptorStart, BlockDisplay.class, display -> {
@@ -175,147 +219,151 @@ public class AntiAirDefense {
             display.setTransformation(transform);
         });
 
-        new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = 200; // Increased max ticks for tracking
-            final Location startLoc = interceptorStart.clone();
-            double lastDistanceToTarget = Double.MAX_VALUE;
-            
-            @Override
-            public void run() {
-                if (interceptor.isDead() || !interceptor.isValid() || ticks >= maxTicks) {
-                    if (!interceptor.isDead()) {
-                        plugin.getLogger().info("'" + name + "' interceptor timed out - failed to reach target (ticks: " + ticks + "/" + maxTicks + ")");
-                        
-                        // Send failure message to players using configurable messaging system
-                        DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                        String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
-                        doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, location, name);
-                        
-                        interceptor.remove();
-                    } else {
-                        plugin.getLogger().info("'" + name + "' interceptor was already dead/invalid");
-                    }
-                    cancel();
-                    return;
-                }
+        // Interceptors move a fixed distance per tick, so the simulator time step is one tick
+        FlightSimulator flightSimulator = ((DoomsdayCore) plugin).getFlightSimulator();
+        Projectile projectile = flightSimulator.launch(Projectile.Kind.INTERCEPTOR, interceptorStart.getWorld(), interceptor,
+            interceptorStart.getX(), interceptorStart.getY(), interceptorStart.getZ(), 1.0,
+            new InterceptorFlight(missileTarget, willHit, solution));
+
+        // Straight line to the intercept point, timed to arrive with the missile
+        double ticks = solution.getTicks();
+        projectile.setVelocity(
+            (solution.getX() - interceptorStart.getX()) / ticks,
+            (solution.getY() - interceptorStart.getY()) / ticks,
+            (solution.getZ() - interceptorStart.getZ()) / ticks);
+    }
+
+    /**
+     * Flight behaviour of one interceptor: fly straight at the solved intercept point and
+     * detonate once close to the missile, or give up shortly after the planned intercept time
+     */
+    private class InterceptorFlight implements FlightSimulator.FlightController {
+
+        // Ticks past the planned intercept before the interceptor self-destructs
+        private static final int GRACE_TICKS = 10;
+
+        private final Projectile missileTarget;
+        private final boolean willHit;
+        private final int maxTicks;
+
+        InterceptorFlight(Projectile missileTarget, boolean willHit, InterceptSolver.Solution solution) {
+            this.missileTarget = missileTarget;
+            this.willHit = willHit;
+            this.maxTicks = (int) Math.ceil(solution.getTicks()) + GRACE_TICKS;
+        }
+
+        @Override
+        public boolean beforeMove(Projectile interceptor) {
+            int ticks = interceptor.getTicks();
+            double x = interceptor.getX();
+            double y = interceptor.getY();
+            double z = interceptor.getZ();
+
+            if (ticks >= maxTicks) {
+                plugin.getLogger().info("'" + name + "' interceptor passed its intercept point - failed to intercept");
                 
-                Location interceptorLoc = interceptor.getLocation();
+                // Send failure message to players using configurable messaging system
+                DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
+                String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
+                doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, location, name);
                 
-                // Check if interceptor is beyond max range from defense location
-                double distanceFromDefense = interceptorLoc.distance(startLoc);
-                if (distanceFromDefense > range * 1.5) { // 1.5x range as max pursuit distance
-                    plugin.getLogger().info("'" + name + "' interceptor reached maximum range - failed to intercept");
-                    
-                    // Send failure message to players using configurable messaging system
-                    DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                    String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
-                    doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, location, name);
-                    
+                createInterceptExplosion(new Location(interceptor.getWorld(), x, y, z));
+                notifyEngagementEnded(missileTarget);
+                return false;
+            }
+            
+            // Check if target missile is still alive
+            if (!missileTarget.isAlive()) {
+                plugin.getLogger().info("Interceptor from '" + name + "' lost target - missile destroyed or out of range");
+                notifyEngagementEnded(missileTarget);
+                return false;
+            }
+            
+            // Debug logging every 20 ticks (1 second)
+            PerformanceMetrics metrics = ((DoomsdayCore) plugin).getMetrics();
+            if (ticks % 20 == 0 && metrics.isDebugLogging()) {
+                double dx = missileTarget.getX() - x;
+                double dy = missileTarget.getY() - y;
+                double dz = missileTarget.getZ() - z;
+                metrics.debug("antiair.tracking." + name, "'" + name + "' interceptor tracking: distance to missile = " + String.format("%.1f", Math.sqrt(dx * dx + dy * dy + dz * dz)) + " blocks, intercept in " + (maxTicks - GRACE_TICKS - ticks) + " ticks");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean afterMove(Projectile interceptor) {
+            // Visual effects at the position the interceptor just left
+            World world = interceptor.getWorld();
+            double x = interceptor.getPreviousX();
+            double y = interceptor.getPreviousY();
+            double z = interceptor.getPreviousZ();
+            world.spawnParticle(Particle.SMOKE_NORMAL, x, y, z, 3, 0.1, 0.1, 0.1, 0.02);
+            world.spawnParticle(Particle.FLAME, x, y, z, 1, 0.05, 0.05, 0.05, 0.01);
+
+            if (!missileTarget.isAlive()) {
+                return true;
+            }
+
+            // Both projectiles move several blocks per tick, so fuse on the closest approach
+            // during this tick rather than only the positions at the end of it
+            double startX = missileTarget.getPreviousX() - x;
+            double startY = missileTarget.getPreviousY() - y;
+            double startZ = missileTarget.getPreviousZ() - z;
+            double deltaX = (missileTarget.getX() - interceptor.getX()) - startX;
+            double deltaY = (missileTarget.getY() - interceptor.getY()) - startY;
+            double deltaZ = (missileTarget.getZ() - interceptor.getZ()) - startZ;
+            double deltaSq = deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ;
+            double fraction = deltaSq > 0
+                ? Math.max(0.0, Math.min(1.0, -(startX * deltaX + startY * deltaY + startZ * deltaZ) / deltaSq))
+                : 0.0;
+            double closestX = startX + deltaX * fraction;
+            double closestY = startY + deltaY * fraction;
+            double closestZ = startZ + deltaZ * fraction;
+            double distanceToMissile = Math.sqrt(closestX * closestX + closestY * closestY + closestZ * closestZ);
+
+            // Check if interceptor is close enough to detonate
+            if (distanceToMissile < 5.0) { // Increased proximity range
+                Location interceptorLoc = new Location(world,
+                    x + (interceptor.getX() - x) * fraction,
+                    y + (interceptor.getY() - y) * fraction,
+                    z + (interceptor.getZ() - z) * fraction);
+                if (willHit) {
+                    plugin.getLogger().info("'" + name + "' interceptor hit target - missile destroyed!");
                     createInterceptExplosion(interceptorLoc);
-                    interceptor.remove();
-                    cancel();
-                    return;
-                }
-                
-                // Check if target missile is still alive
-                if (missileTarget == null || missileTarget.isDead() || !missileTarget.isValid()) {
-                    plugin.getLogger().info("Interceptor from '" + name + "' lost target - missile destroyed or out of range");
-                    interceptor.remove();
-                    cancel();
-                    return;
-                }
-                
-                Location missileCurrentLoc = missileTarget.getLocation();
-                
-                // Calculate direction to current missile position with some prediction
-                Vector toMissile = missileCurrentLoc.toVector().subtract(interceptorLoc.toVector());
-                double distanceToMissile = toMissile.length();
-                
-                // Debug logging every 20 ticks (1 second)
-                if (ticks % 20 == 0) {
-                    plugin.getLogger().info("'" + name + "' interceptor tracking: distance to missile = " + String.format("%.1f", distanceToMissile) + " blocks, last distance = " + String.format("%.1f", lastDistanceToTarget));
-                }
-                
-                // Check if interceptor is getting further away (missed/can't catch up)
-                if (ticks > 60 && distanceToMissile > lastDistanceToTarget + 2) { // Reduced threshold and increased time
-                    plugin.getLogger().info("'" + name + "' interceptor falling behind - failed to intercept");
-                    
-                    // Send failure message to players using configurable messaging system
+                    missileTarget.remove();
+                    // Notify players of successful interception
                     DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                    String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
-                    doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, location, name);
+                    String interceptMessage;
                     
-                    createInterceptExplosion(interceptorLoc);
-                    interceptor.remove();
-                    cancel();
-                    return;
-                }
-                
-                lastDistanceToTarget = distanceToMissile;
-                
-                // Check if interceptor is close enough to detonate
-                if (distanceToMissile < 5.0) { // Increased proximity range
-                    if (willHit) {
-                        plugin.getLogger().info("'" + name + "' interceptor hit target - missile destroyed!");
-                        createInterceptExplosion(interceptorLoc);
-                        if (!missileTarget.isDead()) {
-                            missileTarget.remove();
-                        }
-                        // Notify players of successful interception
-                        DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                        String interceptMessage;
+                    // For manual AA systems, find the operating player and credit them
+                    if (!automatic) {
+                        Player operator = getOperatorRegistry().getClosestOperator(AntiAirDefense.this);
                         
-                        // For manual AA systems, find the operating player and credit them
-                        if (!automatic) {
-                            Player operator = null;
-                            double closestDistance = Double.MAX_VALUE;
-                            for (Player player : location.getWorld().getPlayers()) {
-                                double distance = player.getLocation().distance(location);
-                                if (distance <= 5.0 && distance < closestDistance) {
-                                    closestDistance = distance;
-                                    operator = player;
-                                }
-                            }
-                            
-                            if (operator != null) {
-                                interceptMessage = doomsdayCore.getMessageManager().getMessage("antiair.intercepted_by_player",
-                                    new String[]{"displayName", "playerName"}, new String[]{displayName, operator.getName()});
-                            } else {
-                                interceptMessage = doomsdayCore.getMessageManager().getMessage("antiair.intercepted", "displayName", displayName);
-                            }
+                        if (operator != null) {
+                            interceptMessage = doomsdayCore.getMessageManager().getMessage("antiair.intercepted_by_player",
+                                new String[]{"displayName", "playerName"}, new String[]{displayName, operator.getName()});
                         } else {
                             interceptMessage = doomsdayCore.getMessageManager().getMessage("antiair.intercepted", "displayName", displayName);
                         }
-
-                        doomsdayCore.getMessagingManager().sendAntiAirMessage(interceptMessage, interceptorLoc, name);
                     } else {
-                        plugin.getLogger().info("'" + name + "' interceptor missed - detonated near target but failed to destroy");
-                        createInterceptExplosion(interceptorLoc);
-                        // Notify players of failed interception using configurable messaging system
-                        DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
-                        String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
-                        doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, interceptorLoc, name);
-                        // Missile continues flying - no removal
+                        interceptMessage = doomsdayCore.getMessageManager().getMessage("antiair.intercepted", "displayName", displayName);
                     }
-                    interceptor.remove();
-                    cancel();
-                    return;
+
+                    doomsdayCore.getMessagingManager().sendAntiAirMessage(interceptMessage, interceptorLoc, name);
+                } else {
+                    plugin.getLogger().info("'" + name + "' interceptor missed - detonated near target but failed to destroy");
+                    createInterceptExplosion(interceptorLoc);
+                    // Notify players of failed interception using configurable messaging system
+                    DoomsdayCore doomsdayCore = (DoomsdayCore) plugin;
+                    String failMessage = doomsdayCore.getMessageManager().getMessage("antiair.failed", "displayName", displayName);
+                    doomsdayCore.getMessagingManager().sendAntiAirMessage(failMessage, interceptorLoc, name);
+                    // Missile continues flying - no removal
                 }
-                
-                // Move towards current missile position
-                Vector direction = toMissile.normalize();
-                Location next = interceptorLoc.clone().add(direction.multiply(interceptorSpeed));
-                
-                interceptor.teleport(next);
-                
-                // Visual effects
-                next.getWorld().spawnParticle(Particle.SMOKE_NORMAL, interceptorLoc, 3, 0.1, 0.1, 0.1, 0.02);
-                next.getWorld().spawnParticle(Particle.FLAME, interceptorLoc, 1, 0.05, 0.05, 0.05, 0.01);
-                
-                ticks++;
+                notifyEngagementEnded(missileTarget);
+                return false;
             }
-        }.runTaskTimer(plugin, 1L, 1L);
+            return true;
+        }
     }
 
     private void createInterceptExplosion(Location location) {
@@ -328,12 +376,6 @@ public class AntiAirDefense {
         world.spawnParticle(Particle.SMOKE_LARGE, location, 10, 1.5, 1.5, 1.5, 0.05);
     }
 
-    private Location calculateInterceptPoint(Location start, Location end, double flightTime) {
-        Vector trajectory = end.toVector().subtract(start.toVector());
-        Vector midPoint = start.toVector().add(trajectory.multiply(0.7));
-        return new Location(start.getWorld(), midPoint.getX(), midPoint.getY(), midPoint.getZ());
-    }
-
     private void playDefenseSound(Location location, Sound sound, float volume, float pitch) {
         for (Player player : location.getWorld().getPlayers()) {
             if (player.getLocation().distance(location) <= 80) {
@@ -351,6 +393,7 @@ public class AntiAirDefense {
     public double getReloadTime() { return reloadTime; }
     public double getStartupTime() { return startupTime; }
     public boolean isOperational() { return operational; }
+    public boolean isEngaging() { return engaging; }
     public boolean isAutomatic() { return automatic; }
     
     public void setOperational(boolean operational) { this.operational = operational; }
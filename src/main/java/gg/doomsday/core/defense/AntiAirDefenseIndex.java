@@ -0,0 +1,169 @@
+package gg.doomsday.core.defense;
+
+import gg.doomsday.core.flight.Trajectory;
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongObjectHashMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grid index of anti-air defenses by the horizontal footprint of their range.
+ *
+ * Each defense is registered in every 64x64 column cell its range sphere overlaps, so a
+ * trajectory query only walks the cells under the missile's path and tests the defenses
+ * found there against the path segments. Cost scales with the length of the flight
+ * rather than the number of defenses on the server.
+ *
+ * Not thread-safe - only touch it from the main server thread.
+ */
+public class AntiAirDefenseIndex {
+
+    private static final int CELL_SHIFT = 6;
+
+    private static final class Entry {
+        final AntiAirDefense defense;
+        final World world;
+        final double x, y, z;
+        final double rangeSq;
+        final int minCellX, maxCellX, minCellZ, maxCellZ;
+        // Last query this entry was returned by, so each defense is reported once
+        int stamp;
+
+        Entry(AntiAirDefense defense) {
+            Location location = defense.getLocation();
+            double range = defense.getRange();
+            this.defense = defense;
+            this.world = location.getWorld();
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+            this.rangeSq = range * range;
+            this.minCellX = (int) Math.floor(x - range) >> CELL_SHIFT;
+            this.maxCellX = (int) Math.floor(x + range) >> CELL_SHIFT;
+            this.minCellZ = (int) Math.floor(z - range) >> CELL_SHIFT;
+            this.maxCellZ = (int) Math.floor(z + range) >> CELL_SHIFT;
+        }
+    }
+
+    private final LongObjectHashMap<List<Entry>> cells = new LongObjectHashMap<>();
+    private final Map<AntiAirDefense, Entry> entries = new HashMap<>();
+    private int queryStamp;
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Add a defense, replacing any earlier registration of the same defense
+     */
+    public void add(AntiAirDefense defense) {
+        remove(defense);
+        Entry entry = new Entry(defense);
+        entries.put(defense, entry);
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+            for (int cellZ = entry.minCellZ; cellZ <= entry.maxCellZ; cellZ++) {
+                cells.computeIfAbsent(CoordinateUtils.packChunkKey(cellX, cellZ), ArrayList::new).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove a defense
+     *
+     * @return true if the defense was indexed
+     */
+    public boolean remove(AntiAirDefense defense) {
+        Entry entry = entries.remove(defense);
+        if (entry == null) {
+            return false;
+        }
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+            for (int cellZ = entry.minCellZ; cellZ <= entry.maxCellZ; cellZ++) {
+                long cellKey = CoordinateUtils.packChunkKey(cellX, cellZ);
+                List<Entry> cell = cells.get(cellKey);
+                if (cell != null && cell.remove(entry) && cell.isEmpty()) {
+                    cells.remove(cellKey);
+                }
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    /**
+     * Find the defenses whose range sphere intersects the trajectory between two flight times.
+     * The result is in no particular order.
+     */
+    public List<AntiAirDefense> queryTrajectory(Trajectory trajectory, double fromTime, double toTime) {
+        List<AntiAirDefense> result = new ArrayList<>();
+        if (entries.isEmpty() || toTime <= fromTime) {
+            return result;
+        }
+
+        int stamp = ++queryStamp;
+        World world = trajectory.getWorld();
+        double step = trajectory.getSampleStep();
+        int firstSegment = Math.max(0, (int) Math.floor(fromTime / step));
+        int lastSegment = Math.min(trajectory.getSegmentCount() - 1, (int) Math.ceil(toTime / step) - 1);
+
+        for (int segment = firstSegment; segment <= lastSegment; segment++) {
+            double x0 = trajectory.getSampleX(segment);
+            double y0 = trajectory.getSampleY(segment);
+            double z0 = trajectory.getSampleZ(segment);
+            double x1 = trajectory.getSampleX(segment + 1);
+            double y1 = trajectory.getSampleY(segment + 1);
+            double z1 = trajectory.getSampleZ(segment + 1);
+
+            int minCellX = (int) Math.floor(Math.min(x0, x1)) >> CELL_SHIFT;
+            int maxCellX = (int) Math.floor(Math.max(x0, x1)) >> CELL_SHIFT;
+            int minCellZ = (int) Math.floor(Math.min(z0, z1)) >> CELL_SHIFT;
+            int maxCellZ = (int) Math.floor(Math.max(z0, z1)) >> CELL_SHIFT;
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    List<Entry> cell = cells.get(CoordinateUtils.packChunkKey(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size(); i++) {
+                        Entry entry = cell.get(i);
+                        if (entry.stamp == stamp || (world != null && entry.world != world)) {
+                            continue;
+                        }
+                        if (segmentDistanceSquared(entry, x0, y0, z0, x1, y1, z1) <= entry.rangeSq) {
+                            entry.stamp = stamp;
+                            result.add(entry.defense);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double segmentDistanceSquared(Entry entry, double x0, double y0, double z0,
+                                                 double x1, double y1, double z1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+        double lengthSq = dx * dx + dy * dy + dz * dz;
+        double fraction = 0.0;
+        if (lengthSq > 0) {
+            fraction = ((entry.x - x0) * dx + (entry.y - y0) * dy + (entry.z - z0) * dz) / lengthSq;
+            fraction = Math.max(0.0, Math.min(1.0, fraction));
+        }
+        double ox = x0 + dx * fraction - entry.x;
+        double oy = y0 + dy * fraction - entry.y;
+        double oz = z0 + dz * fraction - entry.z;
+        return ox * ox + oy * oy + oz * oz;
+    }
+}
@@ -3,33 +3,96 @@ package gg.doomsday.core.defense;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.BlockDisplay;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
 import gg.doomsday.core.config.ConfigManager;
+import gg.doomsday.core.flight.Projectile;
+import gg.doomsday.core.flight.Trajectory;
+import gg.doomsday.core.fuel.AntiAirFuelManager;
+import gg.doomsday.core.metrics.PerformanceMetrics;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AntiAirDefenseManager {
     private final JavaPlugin plugin;
     private final List<AntiAirDefense> defenses;
+    private final AntiAirDefenseIndex defenseIndex = new AntiAirDefenseIndex();
+    private final OperatorPresenceRegistry operatorRegistry;
+
+    // Engagements still open this many ticks after their planned intercept are written off
+    private static final int ENGAGEMENT_GRACE_TICKS = 40;
+
+    /**
+     * A detected missile and the engagements currently against it
+     */
+    private static class Threat {
+        final Projectile missile;
+        final Location start;
+        final Location end;
+        final double speed;
+        List<AntiAirDefense> candidates;
+        final List<Engagement> engagements = new ArrayList<>();
+
+        Threat(Projectile missile, Location start, Location end, double speed, List<AntiAirDefense> candidates) {
+            this.missile = missile;
+            this.start = start;
+            this.end = end;
+            this.speed = speed;
+            this.candidates = candidates;
+        }
+    }
+
+    private static class Engagement {
+        final AntiAirDefense defense;
+        final long expiresAtTick;
+
+        Engagement(AntiAirDefense defense, long expiresAtTick) {
+            this.defense = defense;
+            this.expiresAtTick = expiresAtTick;
+        }
+    }
+
+    private final Map<Projectile, Threat> threats = new LinkedHashMap<>();
+    private final InterceptAssignment assignment = new InterceptAssignment(2, 0.05);
+    private BukkitRunnable coordinationTask;
+    private long currentTick;
+    private long nextAssignmentTick;
+    private int assignmentIntervalTicks = 5;
 
     public AntiAirDefenseManager(JavaPlugin plugin) {
         this.plugin = plugin;
         this.defenses = new ArrayList<>();
+        this.operatorRegistry = new OperatorPresenceRegistry(plugin);
         try {
             loadDefensesFromConfig();
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to load anti-air configuration: " + e.getMessage());
         }
+        operatorRegistry.rebuild(defenses, plugin.getServer().getOnlinePlayers());
+    }
+
+    private void loadCoordinationConfig() {
+        ConfigurationSection section = ((gg.doomsday.core.DoomsdayCore) plugin).getConfigManager().getAntiairConfig().getConfigurationSection("antiair.coordination");
+        if (section == null) {
+            return;
+        }
+        assignmentIntervalTicks = Math.max(1, section.getInt("intervalTicks", 5));
+        assignment.setLimits(section.getInt("maxDefensesPerThreat", 2), section.getDouble("minKillGain", 0.05));
     }
 
     private void loadDefensesFromConfig() {
         List<AntiAirDefense> oldDefenses = new ArrayList<>(defenses);
         defenses.clear();
+        defenseIndex.clear();
         
         ConfigurationSection defensesSection;
         try {
+            loadCoordinationConfig();
             defensesSection = ((gg.doomsday.core.DoomsdayCore) plugin).getConfigManager().getAntiairConfig().getConfigurationSection("antiair.defenses");
             if (defensesSection == null) {
                 plugin.getLogger().info("No anti-air defenses configured");
@@ -74,6 +137,7 @@ public class AntiAirDefenseManager {
                 }
                 
                 defenses.add(defense);
+                defenseIndex.add(defense);
 
                 plugin.getLogger().info("Loaded anti-air defense: " + defenseName + " at (" + 
                     (int)x + ", " + (int)y + ", " + (int)z + ") with " + (int)(accuracy*100) + "% accuracy");
@@ -97,36 +161,181 @@ public class AntiAirDefenseManager {
 
     public void reloadDefenses() {
         loadDefensesFromConfig();
+        operatorRegistry.rebuild(defenses, plugin.getServer().getOnlinePlayers());
+        // Tracked missiles keep flying; point them at the reloaded defenses
+        for (Threat threat : threats.values()) {
+            threat.candidates = findCandidates(threat.missile);
+        }
     }
 
-    public boolean checkForInterception(Location missileStart, Location missileEnd, double missileSpeed, BlockDisplay missileEntity) {
-        if (defenses.isEmpty()) {
-            return false;
+    /**
+     * Hand a detected missile to the coordinator. Defenses are assigned to it on the next
+     * coordination tick and again whenever an engagement against it ends without a kill.
+     */
+    public void trackMissile(Projectile missile, Location missileStart, Location missileEnd, double missileSpeed) {
+        if (defenses.isEmpty() || missile == null || missile.getTrajectory() == null || threats.containsKey(missile)) {
+            return;
         }
 
-        List<AntiAirDefense> capableDefenses = new ArrayList<>();
-        for (AntiAirDefense defense : defenses) {
-            if (defense.canIntercept(missileStart, missileEnd, missileSpeed)) {
-                capableDefenses.add(defense);
+        List<AntiAirDefense> candidates = findCandidates(missile);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        threats.put(missile, new Threat(missile, missileStart, missileEnd, missileSpeed, candidates));
+        nextAssignmentTick = currentTick;
+
+        if (coordinationTask == null) {
+            coordinationTask = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tickCoordination();
+                }
+            };
+            coordinationTask.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    /**
+     * Called by a defense once an engagement is over, whatever the outcome
+     */
+    public void onEngagementEnded(AntiAirDefense defense, Projectile missile) {
+        Threat threat = threats.get(missile);
+        if (threat == null) {
+            return;
+        }
+        threat.engagements.removeIf(engagement -> engagement.defense == defense);
+        // Re-evaluate the threat straight away rather than waiting for the next interval
+        nextAssignmentTick = Math.min(nextAssignmentTick, currentTick + 1);
+    }
+
+    private void tickCoordination() {
+        currentTick++;
+
+        Iterator<Threat> iterator = threats.values().iterator();
+        while (iterator.hasNext()) {
+            Threat threat = iterator.next();
+            if (!threat.missile.isAlive()) {
+                iterator.remove();
+                continue;
             }
+            // Interceptors removed without reporting back (entity unloaded, plugin reload) must not pin the threat
+            if (threat.engagements.removeIf(engagement -> engagement.expiresAtTick <= currentTick)) {
+                nextAssignmentTick = currentTick;
+            }
+        }
+
+        if (threats.isEmpty()) {
+            shutdown();
+            return;
         }
 
-        if (capableDefenses.isEmpty()) {
-            return false;
+        if (currentTick >= nextAssignmentTick) {
+            assignDefenses();
+            nextAssignmentTick = currentTick + assignmentIntervalTicks;
         }
+    }
+
+    /**
+     * One coordination round: score every ready defense against every threat it covers and
+     * let {@link InterceptAssignment} share them out
+     */
+    private void assignDefenses() {
+        PerformanceMetrics metrics = ((gg.doomsday.core.DoomsdayCore) plugin).getMetrics();
+        AntiAirFuelManager fuelManager = ((gg.doomsday.core.DoomsdayCore) plugin).getAntiAirFuelManager();
+        long startNanos = System.nanoTime();
 
-        AntiAirDefense selectedDefense = capableDefenses.get(0);
-        double closestDistance = selectedDefense.getLocation().distance(missileEnd);
+        List<Threat> round = new ArrayList<>(threats.values());
+        // Defense -> index in readyDefenses, or -1 once found not ready this round
+        Map<AntiAirDefense, Integer> readiness = new IdentityHashMap<>();
+        List<AntiAirDefense> readyDefenses = new ArrayList<>();
+        assignment.reset(round.size(), defenses.size());
+
+        for (int threatIndex = 0; threatIndex < round.size(); threatIndex++) {
+            Threat threat = round.get(threatIndex);
+            double survival = 1.0;
+            for (Engagement engagement : threat.engagements) {
+                survival *= 1.0 - engagement.defense.getAccuracy();
+            }
+            assignment.setThreat(threatIndex, survival, threat.engagements.size());
+            if (threat.engagements.size() >= assignment.getMaxDefensesPerThreat()) {
+                continue;
+            }
+
+            for (AntiAirDefense defense : threat.candidates) {
+                Integer index = readiness.get(defense);
+                if (index == null) {
+                    boolean ready = !defense.isEngaging() && defense.canIntercept(threat.start, threat.end, threat.speed)
+                        && shotsLeft(fuelManager, defense) > 0;
+                    index = ready ? readyDefenses.size() : -1;
+                    if (ready) {
+                        readyDefenses.add(defense);
+                    }
+                    readiness.put(defense, index);
+                }
+                if (index < 0) {
+                    continue;
+                }
+
+                double ticks = defense.estimateInterceptTicks(threat.missile);
+                if (ticks == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double weight = InterceptAssignment.weight(ticks, defense.getReloadTime(), shotsLeft(fuelManager, defense));
+                assignment.addCandidate(threatIndex, index, defense.getAccuracy(), weight);
+            }
+        }
+        metrics.add(PerformanceMetrics.Counter.INTERCEPT_CHECKS, assignment.getCandidateCount());
 
-        for (AntiAirDefense defense : capableDefenses) {
-            double distance = defense.getLocation().distance(missileEnd);
-            if (distance < closestDistance) {
-                selectedDefense = defense;
-                closestDistance = distance;
+        int assigned = assignment.solve();
+        for (int i = 0; i < assigned; i++) {
+            Threat threat = round.get(assignment.getAssignedThreat(i));
+            AntiAirDefense defense = readyDefenses.get(assignment.getAssignedDefense(i));
+            double ticks = defense.estimateInterceptTicks(threat.missile);
+            if (defense.attemptIntercept(threat.start, threat.end, threat.speed, threat.missile)) {
+                threat.engagements.add(new Engagement(defense, currentTick + (long) Math.ceil(ticks) + ENGAGEMENT_GRACE_TICKS));
+                metrics.increment(PerformanceMetrics.Counter.INTERCEPT_ENGAGEMENTS);
             }
         }
+        metrics.record(PerformanceMetrics.Timer.INTERCEPT_CHECK, System.nanoTime() - startNanos);
+
+        if (assigned > 0 && metrics.isDebugLogging()) {
+            metrics.debug("antiair.assignment", "Assigned " + assigned + " defenses across " + round.size() + " threats ("
+                + assignment.getCandidateCount() + " candidate pairings)");
+        }
+    }
+
+    private int shotsLeft(AntiAirFuelManager fuelManager, AntiAirDefense defense) {
+        int required = fuelManager.getFuelRequirement(defense.getName());
+        if (required <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return fuelManager.getAvailableFuel(defense.getName()) / required;
+    }
+
+    /**
+     * Stop coordinating and forget every tracked missile
+     */
+    public void shutdown() {
+        if (coordinationTask != null) {
+            coordinationTask.cancel();
+            coordinationTask = null;
+        }
+        threats.clear();
+    }
+
+    /**
+     * Find the defenses whose range covers the rest of a missile's flight, before it reaches its target
+     */
+    public List<AntiAirDefense> findCandidates(Projectile missile) {
+        Trajectory trajectory = missile.getTrajectory();
+        if (trajectory == null) {
+            return new ArrayList<>();
+        }
+        return defenseIndex.queryTrajectory(trajectory, missile.getElapsed(), trajectory.getArcTime());
+    }
 
-        return selectedDefense.attemptIntercept(missileStart, missileEnd, missileSpeed, missileEntity);
+    public OperatorPresenceRegistry getOperatorRegistry() {
+        return operatorRegistry;
     }
 
     public List<AntiAirDefense> getDefenses() {
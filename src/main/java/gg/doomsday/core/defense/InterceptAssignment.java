@@ -0,0 +1,228 @@
+package gg.doomsday.core.defense;
+
+import java.util.Arrays;
+
+/**
+ * Greedy threat-to-defense assignment for one coordination round.
+ *
+ * Every candidate pairing of a threat and a ready defense is scored by the kill
+ * probability it would add to that threat, scaled by a weight for how quick and how
+ * cheap the shot is. Pairings are taken best first. A threat that is already covered
+ * gains less from another interceptor, so scores only ever fall; a lazy max-heap
+ * re-scores a pairing when it reaches the top instead of re-sorting after every pick.
+ *
+ * Each defense fires at most once per round and each threat holds at most
+ * {@code maxDefensesPerThreat} engagements in total. Has no server dependencies.
+ */
+public class InterceptAssignment {
+
+    private int maxDefensesPerThreat;
+    private double minGain;
+
+    private int threatCount;
+    private double[] threatSurvival = new double[16];
+    private int[] threatEngagements = new int[16];
+    private boolean[] defenseUsed = new boolean[16];
+
+    private int pairCount;
+    private int[] pairThreat = new int[64];
+    private int[] pairDefense = new int[64];
+    private double[] pairHitChance = new double[64];
+    private double[] pairWeight = new double[64];
+    private double[] pairScore = new double[64];
+    private int[] heap = new int[64];
+    private int heapSize;
+
+    private int assignedCount;
+    private int[] assignedThreat = new int[16];
+    private int[] assignedDefense = new int[16];
+
+    /**
+     * @param maxDefensesPerThreat most engagements one threat may hold at once
+     * @param minGain              smallest weighted kill probability worth spending a shot on
+     */
+    public InterceptAssignment(int maxDefensesPerThreat, double minGain) {
+        setLimits(maxDefensesPerThreat, minGain);
+    }
+
+    public void setLimits(int maxDefensesPerThreat, double minGain) {
+        this.maxDefensesPerThreat = Math.max(1, maxDefensesPerThreat);
+        this.minGain = Math.max(0.0, minGain);
+    }
+
+    public int getMaxDefensesPerThreat() {
+        return maxDefensesPerThreat;
+    }
+
+    /**
+     * Weight of a shot: sooner intercepts, short reloads and plenty of fuel are preferred
+     *
+     * @param interceptTicks ticks until the interceptor would reach the missile
+     * @param reloadSeconds  time the defense is unavailable after firing
+     * @param shotsLeft      shots the defense's fuel covers, including this one
+     */
+    public static double weight(double interceptTicks, double reloadSeconds, int shotsLeft) {
+        double timeFactor = 1.0 / (1.0 + interceptTicks / 100.0);
+        double reloadFactor = 1.0 / (1.0 + reloadSeconds / 10.0);
+        double fuelFactor = shotsLeft / (shotsLeft + 1.0);
+        return timeFactor * reloadFactor * fuelFactor;
+    }
+
+    /**
+     * Start a new round. Threats default to fully alive with no engagements.
+     */
+    public void reset(int threatCount, int defenseCount) {
+        this.threatCount = threatCount;
+        if (threatSurvival.length < threatCount) {
+            threatSurvival = new double[Math.max(threatCount, threatSurvival.length << 1)];
+            threatEngagements = new int[threatSurvival.length];
+        }
+        Arrays.fill(threatSurvival, 0, threatCount, 1.0);
+        Arrays.fill(threatEngagements, 0, threatCount, 0);
+
+        if (defenseUsed.length < defenseCount) {
+            defenseUsed = new boolean[Math.max(defenseCount, defenseUsed.length << 1)];
+        }
+        Arrays.fill(defenseUsed, 0, defenseCount, false);
+
+        pairCount = 0;
+        assignedCount = 0;
+    }
+
+    /**
+     * Record engagements already in flight against a threat
+     *
+     * @param survival chance the threat survives them
+     */
+    public void setThreat(int threat, double survival, int engagements) {
+        threatSurvival[threat] = survival;
+        threatEngagements[threat] = engagements;
+    }
+
+    public void addCandidate(int threat, int defense, double hitChance, double weight) {
+        if (pairCount == pairThreat.length) {
+            int capacity = pairCount << 1;
+            pairThreat = Arrays.copyOf(pairThreat, capacity);
+            pairDefense = Arrays.copyOf(pairDefense, capacity);
+            pairHitChance = Arrays.copyOf(pairHitChance, capacity);
+            pairWeight = Arrays.copyOf(pairWeight, capacity);
+            pairScore = Arrays.copyOf(pairScore, capacity);
+            heap = new int[capacity];
+        }
+        pairThreat[pairCount] = threat;
+        pairDefense[pairCount] = defense;
+        pairHitChance[pairCount] = hitChance;
+        pairWeight[pairCount] = weight;
+        pairCount++;
+    }
+
+    public int getCandidateCount() {
+        return pairCount;
+    }
+
+    /**
+     * Assign defenses to threats
+     *
+     * @return number of assignments, read back with {@link #getAssignedThreat} and {@link #getAssignedDefense}
+     */
+    public int solve() {
+        heapSize = 0;
+        for (int pair = 0; pair < pairCount; pair++) {
+            pairScore[pair] = score(pair);
+            if (pairScore[pair] >= minGain) {
+                heap[heapSize++] = pair;
+            }
+        }
+        for (int i = (heapSize >> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+
+        while (heapSize > 0) {
+            int pair = heap[0];
+            int threat = pairThreat[pair];
+            int defense = pairDefense[pair];
+            if (defenseUsed[defense] || threatEngagements[threat] >= maxDefensesPerThreat) {
+                popTop();
+                continue;
+            }
+
+            double current = score(pair);
+            if (current < minGain) {
+                popTop();
+                continue;
+            }
+            if (current < pairScore[pair]) {
+                // Stale score - re-rank against the rest before committing
+                pairScore[pair] = current;
+                siftDown(0);
+                continue;
+            }
+
+            popTop();
+            defenseUsed[defense] = true;
+            threatEngagements[threat]++;
+            threatSurvival[threat] *= 1.0 - pairHitChance[pair];
+            addAssignment(threat, defense);
+        }
+        return assignedCount;
+    }
+
+    public int getAssignedThreat(int index) {
+        return assignedThreat[index];
+    }
+
+    public int getAssignedDefense(int index) {
+        return assignedDefense[index];
+    }
+
+    /**
+     * Chance a threat survives everything assigned to it so far this round
+     */
+    public double getThreatSurvival(int threat) {
+        return threatSurvival[threat];
+    }
+
+    public int getThreatCount() {
+        return threatCount;
+    }
+
+    private double score(int pair) {
+        return threatSurvival[pairThreat[pair]] * pairHitChance[pair] * pairWeight[pair];
+    }
+
+    private void addAssignment(int threat, int defense) {
+        if (assignedCount == assignedThreat.length) {
+            assignedThreat = Arrays.copyOf(assignedThreat, assignedCount << 1);
+            assignedDefense = Arrays.copyOf(assignedDefense, assignedCount << 1);
+        }
+        assignedThreat[assignedCount] = threat;
+        assignedDefense[assignedCount] = defense;
+        assignedCount++;
+    }
+
+    private void popTop() {
+        heap[0] = heap[--heapSize];
+        if (heapSize > 0) {
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int index) {
+        int pair = heap[index];
+        double value = pairScore[pair];
+        int half = heapSize >> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < heapSize && pairScore[heap[right]] > pairScore[heap[child]]) {
+                child = right;
+            }
+            if (value >= pairScore[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = pair;
+    }
+}
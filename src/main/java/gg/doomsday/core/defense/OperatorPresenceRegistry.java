@@ -0,0 +1,209 @@
+package gg.doomsday.core.defense;
+
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongObjectHashMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks which players are standing at each manual anti-air defense.
+ *
+ * Manual defenses are bucketed by every chunk their operator radius touches. Player
+ * positions are re-checked only when a player crosses a block boundary, teleports, joins
+ * or respawns, and only against the defenses in the bucket of the chunk they are in, so
+ * asking whether a defense is manned is a map lookup instead of a scan of the world's
+ * players.
+ *
+ * Main thread only.
+ */
+public class OperatorPresenceRegistry implements Listener {
+
+    /**
+     * How close a player has to stand to operate a manual defense
+     */
+    public static final double OPERATOR_RANGE = 5.0;
+
+    private final LongObjectHashMap<List<AntiAirDefense>> defensesByChunk = new LongObjectHashMap<>();
+    private final Map<AntiAirDefense, List<Player>> operators = new IdentityHashMap<>();
+    // Player -> defenses they are currently operating
+    private final Map<UUID, List<AntiAirDefense>> stations = new HashMap<>();
+
+    public OperatorPresenceRegistry(JavaPlugin plugin) {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Replace the tracked defenses and re-check every online player against them
+     */
+    public void rebuild(List<AntiAirDefense> defenses, Iterable<? extends Player> onlinePlayers) {
+        defensesByChunk.clear();
+        operators.clear();
+        stations.clear();
+
+        int reach = (int) Math.ceil(OPERATOR_RANGE);
+        for (AntiAirDefense defense : defenses) {
+            if (defense.isAutomatic()) {
+                continue;
+            }
+            operators.put(defense, new ArrayList<>(2));
+            Location location = defense.getLocation();
+            int minChunkX = (location.getBlockX() - reach) >> 4;
+            int maxChunkX = (location.getBlockX() + reach) >> 4;
+            int minChunkZ = (location.getBlockZ() - reach) >> 4;
+            int maxChunkZ = (location.getBlockZ() + reach) >> 4;
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    defensesByChunk.computeIfAbsent(CoordinateUtils.packChunkKey(chunkX, chunkZ), ArrayList::new).add(defense);
+                }
+            }
+        }
+
+        for (Player player : onlinePlayers) {
+            update(player, player.getLocation());
+        }
+    }
+
+    public boolean hasOperator(AntiAirDefense defense) {
+        List<Player> present = operators.get(defense);
+        return present != null && !present.isEmpty();
+    }
+
+    /**
+     * Players currently operating a defense; empty for automatic or unknown defenses
+     */
+    public List<Player> getOperators(AntiAirDefense defense) {
+        List<Player> present = operators.get(defense);
+        return present != null ? Collections.unmodifiableList(present) : Collections.emptyList();
+    }
+
+    /**
+     * The operator standing closest to a defense, or null if it is unmanned
+     */
+    public Player getClosestOperator(AntiAirDefense defense) {
+        List<Player> present = operators.get(defense);
+        if (present == null || present.isEmpty()) {
+            return null;
+        }
+        if (present.size() == 1) {
+            return present.get(0);
+        }
+
+        Location location = defense.getLocation();
+        Player closest = null;
+        double closestDistanceSq = Double.MAX_VALUE;
+        for (Player player : present) {
+            double distanceSq = player.getLocation().distanceSquared(location);
+            if (distanceSq < closestDistanceSq) {
+                closestDistanceSq = distanceSq;
+                closest = player;
+            }
+        }
+        return closest;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+            && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld())) {
+            return;
+        }
+        update(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() != null) {
+            update(event.getPlayer(), event.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        leaveAll(event.getPlayer());
+    }
+
+    private void update(Player player, Location position) {
+        if (operators.isEmpty()) {
+            return;
+        }
+
+        List<AntiAirDefense> nearby = defensesByChunk.get(
+            CoordinateUtils.packChunkKey(position.getBlockX() >> 4, position.getBlockZ() >> 4));
+        List<AntiAirDefense> current = stations.get(player.getUniqueId());
+        if (nearby == null && current == null) {
+            return;
+        }
+
+        List<AntiAirDefense> next = null;
+        if (nearby != null) {
+            World world = position.getWorld();
+            double rangeSq = OPERATOR_RANGE * OPERATOR_RANGE;
+            for (AntiAirDefense defense : nearby) {
+                Location location = defense.getLocation();
+                if (location.getWorld() == world && location.distanceSquared(position) <= rangeSq) {
+                    if (next == null) {
+                        next = new ArrayList<>(1);
+                    }
+                    next.add(defense);
+                }
+            }
+        }
+
+        if (current != null) {
+            for (AntiAirDefense defense : current) {
+                if (next == null || !next.contains(defense)) {
+                    operators.get(defense).remove(player);
+                }
+            }
+        }
+        if (next != null) {
+            for (AntiAirDefense defense : next) {
+                if (current == null || !current.contains(defense)) {
+                    operators.get(defense).add(player);
+                }
+            }
+            stations.put(player.getUniqueId(), next);
+        } else {
+            stations.remove(player.getUniqueId());
+        }
+    }
+
+    private void leaveAll(Player player) {
+        List<AntiAirDefense> current = stations.remove(player.getUniqueId());
+        if (current != null) {
+            for (AntiAirDefense defense : current) {
+                operators.get(defense).remove(player);
+            }
+        }
+    }
+}
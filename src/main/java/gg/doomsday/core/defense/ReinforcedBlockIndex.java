@@ -0,0 +1,149 @@
+package gg.doomsday.core.defense;
+
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongLongHashMap;
+import gg.doomsday.core.utils.LongObjectHashMap;
+
+/**
+ * Spatial index of the reinforced blocks in a single world.
+ *
+ * Blocks are bucketed by chunk. Each chunk section maps a packed block key
+ * (see {@link CoordinateUtils#packBlockKey}) to the time the block was reinforced,
+ * so lookups are two primitive hash probes and never allocate.
+ *
+ * Not thread-safe - only touch it from the main server thread.
+ */
+public class ReinforcedBlockIndex {
+
+    /**
+     * Callback used when walking the index
+     */
+    public interface BlockVisitor {
+        void visit(int x, int y, int z, long reinforcedAt);
+    }
+
+    private final LongObjectHashMap<LongLongHashMap> sections = new LongObjectHashMap<>();
+    private int size;
+    // Bumped on every add/remove so callers can tell when cached query results are stale
+    private long modCount;
+
+    public boolean contains(int x, int y, int z) {
+        LongLongHashMap section = sections.get(CoordinateUtils.packChunkKey(x >> 4, z >> 4));
+        return section != null && section.containsKey(CoordinateUtils.packBlockKey(x, y, z));
+    }
+
+    /**
+     * Add or update a block
+     *
+     * @return true if the block was not indexed before
+     */
+    public boolean put(int x, int y, int z, long reinforcedAt) {
+        LongLongHashMap section = sections.computeIfAbsent(
+            CoordinateUtils.packChunkKey(x >> 4, z >> 4), LongLongHashMap::new);
+
+        boolean added = section.put(CoordinateUtils.packBlockKey(x, y, z), reinforcedAt);
+        if (added) {
+            size++;
+            modCount++;
+        }
+        return added;
+    }
+
+    /**
+     * Remove a block
+     *
+     * @return true if the block was indexed
+     */
+    public boolean remove(int x, int y, int z) {
+        long chunkKey = CoordinateUtils.packChunkKey(x >> 4, z >> 4);
+        LongLongHashMap section = sections.get(chunkKey);
+        if (section == null || !section.remove(CoordinateUtils.packBlockKey(x, y, z))) {
+            return false;
+        }
+
+        size--;
+        modCount++;
+        if (section.isEmpty()) {
+            sections.remove(chunkKey);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int sectionCount() {
+        return sections.size();
+    }
+
+    public long getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Get the section for a chunk, or null if the chunk has no reinforced blocks
+     */
+    LongLongHashMap getSection(int chunkX, int chunkZ) {
+        return sections.get(CoordinateUtils.packChunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Visit every block within a sphere. Only the chunk sections that overlap the
+     * sphere's footprint are touched, so cost scales with the area queried rather
+     * than the total number of reinforced blocks.
+     */
+    public void queryRadius(int centerX, int centerY, int centerZ, int radius, BlockVisitor visitor) {
+        long radiusSq = (long) radius * radius;
+        int minChunkX = (centerX - radius) >> 4;
+        int maxChunkX = (centerX + radius) >> 4;
+        int minChunkZ = (centerZ - radius) >> 4;
+        int maxChunkZ = (centerZ + radius) >> 4;
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            // Distance from the center to the nearest column of this chunk
+            long nearestDx = Math.max(0, Math.max((chunkX << 4) - centerX, centerX - ((chunkX << 4) + 15)));
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                long nearestDz = Math.max(0, Math.max((chunkZ << 4) - centerZ, centerZ - ((chunkZ << 4) + 15)));
+                if (nearestDx * nearestDx + nearestDz * nearestDz > radiusSq) {
+                    continue;
+                }
+
+                LongLongHashMap section = getSection(chunkX, chunkZ);
+                if (section == null) {
+                    continue;
+                }
+
+                section.forEach((blockKey, reinforcedAt) -> {
+                    int x = CoordinateUtils.unpackBlockX(blockKey);
+                    int y = CoordinateUtils.unpackBlockY(blockKey);
+                    int z = CoordinateUtils.unpackBlockZ(blockKey);
+                    long dx = x - centerX;
+                    long dy = y - centerY;
+                    long dz = z - centerZ;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                        visitor.visit(x, y, z, reinforcedAt);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Visit every block in the index. The visitor must not modify the index.
+     */
+    public void forEach(BlockVisitor visitor) {
+        sections.forEach((chunkKey, section) -> section.forEach((blockKey, reinforcedAt) ->
+            visitor.visit(
+                CoordinateUtils.unpackBlockX(blockKey),
+                CoordinateUtils.unpackBlockY(blockKey),
+                CoordinateUtils.unpackBlockZ(blockKey),
+                reinforcedAt)));
+    }
+
+    public void clear() {
+        sections.clear();
+        size = 0;
+        modCount++;
+    }
+}
@@ -8,30 +8,40 @@ import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
 import gg.doomsday.core.config.ConfigManager;
+import gg.doomsday.core.utils.CoordinateUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 
 public class ReinforcedBlockManager {
     
     private final JavaPlugin plugin;
-    private final Map<String, Long> reinforcedBlocks = new ConcurrentHashMap<>();
-    private final File dataFile;
+    // World name -> chunk-sectioned index of reinforced blocks (main thread only)
+    private final Map<String, ReinforcedBlockIndex> worldIndexes = new HashMap<>();
+    private final ReinforcedBlockStore store;
+    // Pre-binary YAML data file, imported once and then renamed
+    private final File legacyDataFile;
     private List<String> validBlocks;
     private Map<String, Double> resistanceValues;
+    private int flushIntervalSeconds = 10;
+    private int compactAfterJournalEntries = 100000;
+    private BukkitRunnable storageTask;
     
     public ReinforcedBlockManager(JavaPlugin plugin) {
         this.plugin = plugin;
-        this.dataFile = new File(plugin.getDataFolder(), "reinforced_blocks.yml");
+        this.store = new ReinforcedBlockStore(plugin);
+        this.legacyDataFile = new File(plugin.getDataFolder(), "reinforced_blocks.yml");
         // Initialize with empty lists/maps to prevent NPE
         this.validBlocks = new ArrayList<>();
         this.resistanceValues = new HashMap<>();
@@ -43,6 +53,7 @@ public class ReinforcedBlockManager {
             loadDefaultConfiguration();
         }
         loadReinforcedBlocks();
+        startStorageTask();
     }
     
     private void loadConfiguration() {
@@ -62,6 +73,10 @@ public class ReinforcedBlockManager {
             }
         }
         
+        // Load storage settings
+        flushIntervalSeconds = Math.max(1, config.getInt("reinforcement.storage.flushIntervalSeconds", 10));
+        compactAfterJournalEntries = Math.max(1000, config.getInt("reinforcement.storage.compactAfterJournalEntries", 100000));
+        
         plugin.getLogger().info("Loaded " + validBlocks.size() + " valid reinforcement materials");
         plugin.getLogger().info("Loaded " + resistanceValues.size() + " resistance values");
     }
@@ -111,16 +126,33 @@ public class ReinforcedBlockManager {
             return false;
         }
         
-        String blockKey = getBlockKey(location);
+        String worldName = location.getWorld().getName();
         long currentTime = System.currentTimeMillis();
-        reinforcedBlocks.put(blockKey, currentTime);
+        getOrCreateIndex(worldName)
+            .put(location.getBlockX(), location.getBlockY(), location.getBlockZ(), currentTime);
+        store.recordPut(worldName, location.getBlockX(), location.getBlockY(), location.getBlockZ(), currentTime);
         
-        plugin.getLogger().info("Reinforced block at " + blockKey);
+        plugin.getLogger().info("Reinforced block at " + getBlockKey(location));
         return true;
     }
     
     public boolean isReinforced(Location location) {
-        return reinforcedBlocks.containsKey(getBlockKey(location));
+        return isReinforced(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+    
+    /**
+     * Allocation-free reinforcement check for hot paths such as explosion processing
+     */
+    public boolean isReinforced(Block block) {
+        return isReinforced(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+    
+    /**
+     * Coordinate form of the check - two primitive hash probes, no key objects
+     */
+    public boolean isReinforced(World world, int x, int y, int z) {
+        ReinforcedBlockIndex index = worldIndexes.get(world.getName());
+        return index != null && index.contains(x, y, z);
     }
     
     public double getResistance(Location location) {
@@ -128,47 +160,187 @@ public class ReinforcedBlockManager {
             return 0.0;
         }
         
-        Material material = location.getBlock().getType();
+        return getMaterialResistance(location.getBlock().getType());
+    }
+    
+    public double getResistance(Block block) {
+        if (!isReinforced(block)) {
+            return 0.0;
+        }
+        
+        return getMaterialResistance(block.getType());
+    }
+    
+    /**
+     * Resistance of a material when reinforced, regardless of whether a given block is
+     */
+    public double getMaterialResistance(Material material) {
         return resistanceValues.getOrDefault(material.name(), 0.0);
     }
     
     public void removeReinforcement(Location location) {
-        String blockKey = getBlockKey(location);
-        if (reinforcedBlocks.remove(blockKey) != null) {
-            plugin.getLogger().info("Removed reinforcement from block at " + blockKey);
+        if (removeReinforcement(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ())) {
+            plugin.getLogger().info("Removed reinforcement from block at " + getBlockKey(location));
+        }
+    }
+    
+    public void removeReinforcement(Block block) {
+        if (removeReinforcement(block.getWorld(), block.getX(), block.getY(), block.getZ())) {
+            plugin.getLogger().info("Removed reinforcement from block at " + getBlockKey(block.getWorld().getName(), block.getX(), block.getY(), block.getZ()));
+        }
+    }
+    
+    /**
+     * Remove a reinforcement without logging
+     * 
+     * @return true if the block was reinforced
+     */
+    public boolean removeReinforcement(World world, int x, int y, int z) {
+        ReinforcedBlockIndex index = worldIndexes.get(world.getName());
+        if (index == null || !index.remove(x, y, z)) {
+            return false;
+        }
+        store.recordRemove(world.getName(), x, y, z);
+        return true;
+    }
+    
+    /**
+     * Get the reinforced block index for a world, or null if it has no reinforced blocks yet
+     */
+    public ReinforcedBlockIndex getIndex(World world) {
+        return worldIndexes.get(world.getName());
+    }
+    
+    /**
+     * Visit every reinforced block within a radius of a block position.
+     * Only chunks inside the sphere are scanned.
+     */
+    public void queryRadius(World world, int x, int y, int z, int radius, ReinforcedBlockIndex.BlockVisitor visitor) {
+        ReinforcedBlockIndex index = worldIndexes.get(world.getName());
+        if (index != null) {
+            index.queryRadius(x, y, z, radius, visitor);
         }
     }
     
+    private ReinforcedBlockIndex getOrCreateIndex(String worldName) {
+        return worldIndexes.computeIfAbsent(worldName, k -> new ReinforcedBlockIndex());
+    }
+    
     private String getBlockKey(Location location) {
-        return location.getWorld().getName() + ":" + 
-               location.getBlockX() + ":" + 
-               location.getBlockY() + ":" + 
-               location.getBlockZ();
+        return getBlockKey(location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
     
-    public void saveReinforcedBlocks() {
-        try {
-            YamlConfiguration config = new YamlConfiguration();
-            
-            for (Map.Entry<String, Long> entry : reinforcedBlocks.entrySet()) {
-                config.set("blocks." + entry.getKey(), entry.getValue());
+    private static String getBlockKey(String worldName, int x, int y, int z) {
+        return worldName + ":" + x + ":" + y + ":" + z;
+    }
+    
+    private void startStorageTask() {
+        storageTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (store.needsCompaction(compactAfterJournalEntries)) {
+                    saveReinforcedBlocks();
+                } else {
+                    store.flush();
+                }
             }
-            
-            config.save(dataFile);
-            plugin.getLogger().info("Saved " + reinforcedBlocks.size() + " reinforced blocks to file");
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save reinforced blocks: " + e.getMessage());
+        };
+        long period = 20L * flushIntervalSeconds;
+        storageTask.runTaskTimer(plugin, period, period);
+    }
+    
+    /**
+     * Write a full snapshot of all reinforced blocks in the background and reset the journal
+     */
+    public CompletableFuture<Boolean> saveReinforcedBlocks() {
+        List<ReinforcedBlockStore.WorldSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ReinforcedBlockIndex> entry : worldIndexes.entrySet()) {
+            snapshots.add(ReinforcedBlockStore.WorldSnapshot.capture(entry.getKey(), entry.getValue()));
+        }
+        
+        int count = getReinforcedBlockCount();
+        return store.compact(snapshots).thenApply(saved -> {
+            if (saved) {
+                plugin.getLogger().info("Saved " + count + " reinforced blocks to file");
+            }
+            return saved;
+        });
+    }
+    
+    /**
+     * Save everything and stop the background writer. Blocks until writes are done.
+     */
+    public void shutdown() {
+        if (storageTask != null) {
+            storageTask.cancel();
         }
+        saveReinforcedBlocks();
+        store.shutdown();
     }
     
     private void loadReinforcedBlocks() {
-        if (!dataFile.exists()) {
-            plugin.getLogger().info("No reinforced blocks data file found, starting fresh");
+        long start = System.currentTimeMillis();
+        
+        if (!store.hasData()) {
+            if (legacyDataFile.exists()) {
+                importLegacyYaml();
+            } else {
+                plugin.getLogger().info("No reinforced blocks data file found, starting fresh");
+            }
             return;
         }
         
+        Map<String, World> worlds = new HashMap<>();
+        int[] skipped = {0};
         try {
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+            int journalRecords = store.load(new ReinforcedBlockStore.LoadHandler() {
+                @Override
+                public void put(String worldName, long blockKey, long reinforcedAt) {
+                    World world = worlds.computeIfAbsent(worldName, Bukkit::getWorld);
+                    int y = CoordinateUtils.unpackBlockY(blockKey);
+                    
+                    // Validate that the world still exists and the block is within its bounds
+                    if (world == null || y < world.getMinHeight() || y > world.getMaxHeight()) {
+                        skipped[0]++;
+                        return;
+                    }
+                    getOrCreateIndex(worldName).put(
+                        CoordinateUtils.unpackBlockX(blockKey), y, CoordinateUtils.unpackBlockZ(blockKey), reinforcedAt);
+                }
+                
+                @Override
+                public void remove(String worldName, long blockKey) {
+                    ReinforcedBlockIndex index = worldIndexes.get(worldName);
+                    if (index != null) {
+                        index.remove(CoordinateUtils.unpackBlockX(blockKey),
+                            CoordinateUtils.unpackBlockY(blockKey), CoordinateUtils.unpackBlockZ(blockKey));
+                    }
+                }
+            });
+            
+            if (skipped[0] > 0) {
+                plugin.getLogger().info("Removed " + skipped[0] + " invalid reinforced blocks");
+            }
+            plugin.getLogger().info("Loaded " + getReinforcedBlockCount() + " reinforced blocks from file in "
+                + (System.currentTimeMillis() - start) + "ms (" + journalRecords + " journal entries replayed)");
+            
+            // Fold the replayed journal (and anything we dropped) into a fresh snapshot
+            if (journalRecords > 0 || skipped[0] > 0) {
+                saveReinforcedBlocks();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to load reinforced blocks: " + e.getMessage());
+            // Keep the unreadable files so saving what did load cannot overwrite them
+            store.quarantine();
+        }
+    }
+    
+    /**
+     * One-shot import of the old reinforced_blocks.yml format into the binary store
+     */
+    private void importLegacyYaml() {
+        try {
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(legacyDataFile);
             
             if (config.isConfigurationSection("blocks")) {
                 for (String key : config.getConfigurationSection("blocks").getKeys(false)) {
@@ -176,16 +348,25 @@ public class ReinforcedBlockManager {
                     
                     // Validate that the world and location still exist
                     if (validateBlockLocation(key)) {
-                        reinforcedBlocks.put(key, timestamp);
+                        String[] parts = key.split(":");
+                        getOrCreateIndex(parts[0]).put(
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), timestamp);
                     } else {
                         plugin.getLogger().info("Removed invalid reinforced block: " + key);
                     }
                 }
             }
             
-            plugin.getLogger().info("Loaded " + reinforcedBlocks.size() + " reinforced blocks from file");
+            // Only retire the YAML file once the binary snapshot is safely written
+            if (saveReinforcedBlocks().join()) {
+                File importedFile = new File(legacyDataFile.getPath() + ".imported");
+                if (legacyDataFile.renameTo(importedFile)) {
+                    plugin.getLogger().info("Imported " + getReinforcedBlockCount() + " reinforced blocks from "
+                        + legacyDataFile.getName() + " (kept as " + importedFile.getName() + ")");
+                }
+            }
         } catch (Exception e) {
-            plugin.getLogger().severe("Failed to load reinforced blocks: " + e.getMessage());
+            plugin.getLogger().severe("Failed to import reinforced blocks: " + e.getMessage());
         }
     }
     
@@ -211,23 +392,38 @@ public class ReinforcedBlockManager {
     public void cleanupInvalidReinforcements() {
         // Remove reinforcements for blocks that no longer exist or have been replaced
         int removedCount = 0;
-        Iterator<Map.Entry<String, Long>> iterator = reinforcedBlocks.entrySet().iterator();
+        Iterator<Map.Entry<String, ReinforcedBlockIndex>> iterator = worldIndexes.entrySet().iterator();
         
         while (iterator.hasNext()) {
-            Map.Entry<String, Long> entry = iterator.next();
-            String blockKey = entry.getKey();
-            Location location = getLocationFromKey(blockKey);
+            Map.Entry<String, ReinforcedBlockIndex> entry = iterator.next();
+            ReinforcedBlockIndex index = entry.getValue();
+            World world = Bukkit.getWorld(entry.getKey());
             
-            if (location == null || location.getWorld() == null) {
+            if (world == null) {
+                String worldName = entry.getKey();
+                index.forEach((x, y, z, reinforcedAt) -> store.recordRemove(worldName, x, y, z));
+                removedCount += index.size();
                 iterator.remove();
-                removedCount++;
                 continue;
             }
             
-            Block block = location.getBlock();
-            if (block.getType() == Material.AIR || !isValidBlock(block.getType())) {
+            // Collect first - the index can't be modified while it is being walked
+            List<int[]> invalid = new ArrayList<>();
+            index.forEach((x, y, z, reinforcedAt) -> {
+                Block block = world.getBlockAt(x, y, z);
+                if (block.getType() == Material.AIR || !isValidBlock(block.getType())) {
+                    invalid.add(new int[]{x, y, z});
+                }
+            });
+            
+            for (int[] pos : invalid) {
+                index.remove(pos[0], pos[1], pos[2]);
+                store.recordRemove(entry.getKey(), pos[0], pos[1], pos[2]);
+            }
+            removedCount += invalid.size();
+            
+            if (index.size() == 0) {
                 iterator.remove();
-                removedCount++;
             }
         }
         
@@ -237,11 +433,24 @@ public class ReinforcedBlockManager {
     }
     
     public int getReinforcedBlockCount() {
-        return reinforcedBlocks.size();
+        int count = 0;
+        for (ReinforcedBlockIndex index : worldIndexes.values()) {
+            count += index.size();
+        }
+        return count;
     }
     
+    /**
+     * Snapshot of every reinforced block as a "world:x:y:z" key.
+     * Builds a new set on every call - prefer the per-world index for lookups.
+     */
     public Set<String> getAllReinforcedBlocks() {
-        return reinforcedBlocks.keySet();
+        Set<String> keys = new HashSet<>();
+        for (Map.Entry<String, ReinforcedBlockIndex> entry : worldIndexes.entrySet()) {
+            String worldName = entry.getKey();
+            entry.getValue().forEach((x, y, z, reinforcedAt) -> keys.add(getBlockKey(worldName, x, y, z)));
+        }
+        return keys;
     }
     
     // Get location from block key for debugging/admin purposes
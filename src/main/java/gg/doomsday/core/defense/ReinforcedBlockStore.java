@@ -0,0 +1,438 @@
+package gg.doomsday.core.defense;
+
+import gg.doomsday.core.utils.CoordinateUtils;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary persistence for reinforced blocks.
+ *
+ * Data lives in two files in the plugin folder:
+ * - reinforced_blocks.dat: snapshot of fixed-size records (packed block key + reinforce time), grouped by world
+ * - reinforced_blocks.journal: append-only log of every change made since that snapshot
+ *
+ * Changes are buffered on the main thread and handed to a single background writer,
+ * which appends them to the journal. Once the journal grows large enough the manager
+ * passes in a copy of its index and the writer replaces the snapshot (temp file + rename)
+ * and starts a fresh journal. Loading reads the snapshot and replays the journal on top.
+ */
+public class ReinforcedBlockStore {
+
+    /**
+     * Receives blocks as they are read back from disk
+     */
+    public interface LoadHandler {
+        void put(String worldName, long blockKey, long reinforcedAt);
+
+        void remove(String worldName, long blockKey);
+    }
+
+    /**
+     * Copy of one world's index, taken on the main thread and written by the background writer
+     */
+    public static final class WorldSnapshot {
+        private final String worldName;
+        private final long[] blockKeys;
+        private final long[] reinforcedAt;
+        private int count;
+
+        private WorldSnapshot(String worldName, int size) {
+            this.worldName = worldName;
+            this.blockKeys = new long[size];
+            this.reinforcedAt = new long[size];
+        }
+
+        public static WorldSnapshot capture(String worldName, ReinforcedBlockIndex index) {
+            WorldSnapshot snapshot = new WorldSnapshot(worldName, index.size());
+            index.forEach((x, y, z, time) -> {
+                snapshot.blockKeys[snapshot.count] = CoordinateUtils.packBlockKey(x, y, z);
+                snapshot.reinforcedAt[snapshot.count] = time;
+                snapshot.count++;
+            });
+            return snapshot;
+        }
+    }
+
+    private static final int SNAPSHOT_MAGIC = 0x44445253; // "DDRS"
+    private static final int JOURNAL_MAGIC = 0x4444524A;  // "DDRJ"
+    private static final int FORMAT_VERSION = 1;
+
+    // Journal record types. PUT/REMOVE records are fixed size: op, world id, block key, time
+    private static final byte OP_WORLD = 0;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final JavaPlugin plugin;
+    private final File snapshotFile;
+    private final File journalFile;
+    private final ExecutorService writer;
+
+    // Main thread state
+    private ChangeBatch pending = new ChangeBatch();
+    private int journalEntries;
+    // Set when unreadable files could not be moved aside; nothing is written until restart
+    private boolean writesDisabled;
+
+    // Writer thread state
+    private FileOutputStream journalFileOut;
+    private DataOutputStream journalOut;
+    // Journal length after the last append that fully reached the file
+    private long journalLength;
+    private final Map<String, Integer> journalWorldIds = new HashMap<>();
+
+    // Set by the writer after a failed append; appends stop until the next compaction
+    private volatile boolean journalFailed;
+
+    public ReinforcedBlockStore(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.snapshotFile = new File(plugin.getDataFolder(), "reinforced_blocks.dat");
+        this.journalFile = new File(plugin.getDataFolder(), "reinforced_blocks.journal");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoomsdayCore-ReinforcedBlockStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether a binary snapshot or journal exists on disk
+     */
+    public boolean hasData() {
+        return snapshotFile.exists() || journalFile.exists();
+    }
+
+    /**
+     * Read the snapshot and replay the journal. Call once at startup, before any changes are recorded.
+     *
+     * @return the number of journal records replayed
+     */
+    public int load(LoadHandler handler) throws IOException {
+        if (snapshotFile.exists()) {
+            readSnapshot(handler);
+        }
+        return journalFile.exists() ? replayJournal(handler) : 0;
+    }
+
+    /**
+     * Move the data files aside after they failed to load, so the next write cannot replace
+     * them with a partial copy. If they cannot be moved, writing is turned off instead.
+     * Call before any changes are recorded.
+     */
+    public void quarantine() {
+        String suffix = ".corrupt-" + System.currentTimeMillis();
+        boolean moved = true;
+        for (File file : new File[]{snapshotFile, journalFile}) {
+            if (!file.exists()) {
+                continue;
+            }
+            File target = new File(file.getPath() + suffix);
+            if (file.renameTo(target)) {
+                plugin.getLogger().warning("Moved unreadable " + file.getName() + " to " + target.getName());
+            } else {
+                moved = false;
+            }
+        }
+        if (!moved) {
+            writesDisabled = true;
+            plugin.getLogger().severe("Could not move unreadable reinforced block data aside - "
+                + "reinforced block changes will not be saved until the files are fixed and the server restarted");
+        }
+    }
+
+    public void recordPut(String worldName, int x, int y, int z, long reinforcedAt) {
+        pending.add(OP_PUT, worldName, CoordinateUtils.packBlockKey(x, y, z), reinforcedAt);
+    }
+
+    public void recordRemove(String worldName, int x, int y, int z) {
+        pending.add(OP_REMOVE, worldName, CoordinateUtils.packBlockKey(x, y, z), 0L);
+    }
+
+    /**
+     * Hand buffered changes to the background writer. Main thread only.
+     */
+    public void flush() {
+        if (pending.size == 0) {
+            return;
+        }
+        if (writesDisabled) {
+            pending = new ChangeBatch();
+            return;
+        }
+
+        ChangeBatch batch = pending;
+        pending = new ChangeBatch();
+        journalEntries += batch.size;
+        writer.execute(() -> appendToJournal(batch));
+    }
+
+    public boolean needsCompaction(int maxJournalEntries) {
+        // A failed append left changes only in memory; a new snapshot saves them
+        return journalEntries + pending.size >= maxJournalEntries || (journalFailed && !writesDisabled);
+    }
+
+    /**
+     * Replace the snapshot with the given world copies and start a fresh journal.
+     * Any buffered changes are flushed first so the journal stays in order. Main thread only.
+     *
+     * @return completes with true once the new snapshot is safely on disk
+     */
+    public CompletableFuture<Boolean> compact(List<WorldSnapshot> worlds) {
+        if (writesDisabled) {
+            pending = new ChangeBatch();
+            return CompletableFuture.completedFuture(false);
+        }
+        flush();
+        journalEntries = 0;
+        return CompletableFuture.supplyAsync(() -> writeSnapshot(worlds), writer);
+    }
+
+    /**
+     * Stop the background writer, waiting for queued writes to finish
+     */
+    public void shutdown() {
+        flush();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for reinforced block writes to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeJournal();
+    }
+
+    private void readSnapshot(LoadHandler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a reinforced block snapshot: " + snapshotFile.getName());
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported reinforced block snapshot version " + version);
+            }
+
+            int worldCount = in.readInt();
+            for (int w = 0; w < worldCount; w++) {
+                String worldName = in.readUTF();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long blockKey = in.readLong();
+                    long reinforcedAt = in.readLong();
+                    handler.put(worldName, blockKey, reinforcedAt);
+                }
+            }
+        }
+    }
+
+    private int replayJournal(LoadHandler handler) throws IOException {
+        Map<Integer, String> worldNames = new HashMap<>();
+        int records = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile), 1 << 16))) {
+            if (in.readInt() != JOURNAL_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a reinforced block journal: " + journalFile.getName());
+            }
+
+            int op;
+            while ((op = in.read()) != -1) {
+                int worldId = in.readInt();
+                if (op == OP_WORLD) {
+                    worldNames.put(worldId, in.readUTF());
+                    continue;
+                }
+
+                long blockKey = in.readLong();
+                long reinforcedAt = in.readLong();
+                String worldName = worldNames.get(worldId);
+                if (worldName == null) {
+                    throw new IOException("Journal references unknown world id " + worldId);
+                }
+
+                if (op == OP_PUT) {
+                    handler.put(worldName, blockKey, reinforcedAt);
+                } else if (op == OP_REMOVE) {
+                    handler.remove(worldName, blockKey);
+                } else {
+                    throw new IOException("Unknown journal record type " + op);
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            // A crash mid-append leaves a partial record at the end - everything before it is intact
+            plugin.getLogger().warning("Reinforced block journal ended with a partial record, ignoring it");
+        }
+        return records;
+    }
+
+    private void appendToJournal(ChangeBatch batch) {
+        if (journalFailed) {
+            // Waiting for the compaction that saves these changes in the snapshot
+            return;
+        }
+        try {
+            DataOutputStream out = openJournal();
+            for (int i = 0; i < batch.size; i++) {
+                int worldId = journalWorldId(out, batch.worlds[i]);
+                out.writeByte(batch.ops[i]);
+                out.writeInt(worldId);
+                out.writeLong(batch.blockKeys[i]);
+                out.writeLong(batch.times[i]);
+            }
+            out.flush();
+            journalLength = journalFileOut.getChannel().position();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to append to reinforced block journal: " + e.getMessage());
+            discardFailedAppend();
+        }
+    }
+
+    /**
+     * Cut the journal back to the end of the last complete append, so a partly written
+     * batch cannot be misread as records when more is appended after it
+     */
+    private void discardFailedAppend() {
+        journalFailed = true;
+        // Closing the buffered stream would push more of the failed batch to the file
+        try {
+            journalFileOut.getChannel().truncate(journalLength);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to truncate reinforced block journal: " + e.getMessage());
+        }
+        try {
+            journalFileOut.close();
+        } catch (IOException ignored) {
+            // The stream is being thrown away either way
+        }
+        journalFileOut = null;
+        journalOut = null;
+    }
+
+    private DataOutputStream openJournal() throws IOException {
+        if (journalOut == null) {
+            boolean fresh = !journalFile.exists() || journalFile.length() == 0;
+            journalFileOut = new FileOutputStream(journalFile, true);
+            journalLength = journalFileOut.getChannel().size();
+            journalOut = new DataOutputStream(new BufferedOutputStream(journalFileOut, 1 << 16));
+            journalWorldIds.clear();
+            if (fresh) {
+                journalOut.writeInt(JOURNAL_MAGIC);
+                journalOut.writeInt(FORMAT_VERSION);
+            }
+        }
+        return journalOut;
+    }
+
+    private int journalWorldId(DataOutputStream out, String worldName) throws IOException {
+        Integer id = journalWorldIds.get(worldName);
+        if (id == null) {
+            // Ids are only meaningful from this point on, so appending after an older run is safe
+            id = journalWorldIds.size();
+            journalWorldIds.put(worldName, id);
+            out.writeByte(OP_WORLD);
+            out.writeInt(id);
+            out.writeUTF(worldName);
+        }
+        return id;
+    }
+
+    private boolean writeSnapshot(List<WorldSnapshot> worlds) {
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(worlds.size());
+            for (WorldSnapshot world : worlds) {
+                out.writeUTF(world.worldName);
+                out.writeInt(world.count);
+                for (int i = 0; i < world.count; i++) {
+                    out.writeLong(world.blockKeys[i]);
+                    out.writeLong(world.reinforcedAt[i]);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to write reinforced block snapshot: " + e.getMessage());
+            tempFile.delete();
+            return false;
+        }
+
+        try {
+            try {
+                Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to replace reinforced block snapshot: " + e.getMessage());
+            return false;
+        }
+
+        // The snapshot now contains everything the journal did
+        closeJournal();
+        journalFailed = false;
+        if (journalFile.exists() && !journalFile.delete()) {
+            plugin.getLogger().warning("Failed to delete compacted reinforced block journal");
+        }
+        return true;
+    }
+
+    private void closeJournal() {
+        if (journalOut == null) {
+            return;
+        }
+        try {
+            journalOut.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to close reinforced block journal: " + e.getMessage());
+        }
+        journalFileOut = null;
+        journalOut = null;
+    }
+
+    /**
+     * Growable buffer of changes recorded on the main thread
+     */
+    private static final class ChangeBatch {
+        private byte[] ops = new byte[64];
+        private String[] worlds = new String[64];
+        private long[] blockKeys = new long[64];
+        private long[] times = new long[64];
+        private int size;
+
+        private void add(byte op, String worldName, long blockKey, long time) {
+            if (size == ops.length) {
+                int capacity = size * 2;
+                ops = Arrays.copyOf(ops, capacity);
+                worlds = Arrays.copyOf(worlds, capacity);
+                blockKeys = Arrays.copyOf(blockKeys, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            ops[size] = op;
+            worlds[size] = worldName;
+            blockKeys[size] = blockKey;
+            times[size] = time;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package gg.doomsday.core.explosions;
+
+import gg.doomsday.core.defense.ReinforcedBlockManager;
+import gg.doomsday.core.metrics.PerformanceMetrics;
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.ExpiryWheel;
+import gg.doomsday.core.utils.LongLongHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Resolves explosion block damage in batches instead of inside each explosion event.
+ *
+ * Explosion events hand their block lists over rather than letting the server break
+ * the blocks straight away. On the next tick the blocks of every explosion from the
+ * previous tick are de-duplicated and checked against the protection and reinforcement
+ * indexes in one pass. Blocks that fail their resistance roll are then broken over the
+ * following ticks, spending at most a configurable amount of time per tick.
+ *
+ * Block lists are taken at MONITOR priority, after protection plugins have trimmed them
+ * and after block loggers such as CoreProtect have recorded them (the plugin soft-depends
+ * on the common ones so their listeners are registered, and run, first). Listeners of
+ * other plugins that run after ours at MONITOR see only the TNT left in the list.
+ */
+public class ExplosionBlockPipeline {
+
+    private final JavaPlugin plugin;
+    private final ReinforcedBlockManager reinforcedBlockManager;
+    private final PerformanceMetrics metrics;
+    private final Map<UUID, WorldQueue> worldQueues = new HashMap<>();
+    private final long removalBudgetNanos;
+    private boolean resolveScheduled;
+    private BukkitRunnable removalTask;
+
+    public ExplosionBlockPipeline(JavaPlugin plugin, ReinforcedBlockManager reinforcedBlockManager, PerformanceMetrics metrics) {
+        this.plugin = plugin;
+        this.reinforcedBlockManager = reinforcedBlockManager;
+        this.metrics = metrics;
+        double budgetMs = ((gg.doomsday.core.DoomsdayCore) plugin).getConfigManager().getRocketsConfig()
+            .getDouble("explosions.blockRemovalBudgetMs", 5.0);
+        this.removalBudgetNanos = (long) (Math.max(0.1, budgetMs) * 1_000_000L);
+    }
+
+    /**
+     * Take over the blocks of an explosion. Blocks handed over are removed from the list
+     * so the server leaves them alone; TNT stays so chain reactions still prime normally.
+     */
+    public void submit(List<Block> blockList, float yield) {
+        if (blockList.isEmpty()) {
+            return;
+        }
+
+        metrics.add(PerformanceMetrics.Counter.EXPLOSION_BLOCKS, blockList.size());
+        long yieldBits = Float.floatToIntBits(yield);
+        List<Block> kept = null;
+        World lastWorld = null;
+        WorldQueue queue = null;
+
+        for (Block block : blockList) {
+            if (block.getType() == Material.TNT) {
+                if (kept == null) {
+                    kept = new ArrayList<>();
+                }
+                kept.add(block);
+                continue;
+            }
+
+            World world = block.getWorld();
+            if (world != lastWorld) {
+                lastWorld = world;
+                queue = worldQueues.computeIfAbsent(world.getUID(), k -> new WorldQueue());
+            }
+            queue.incoming.put(CoordinateUtils.packBlockKey(block.getX(), block.getY(), block.getZ()), yieldBits);
+        }
+
+        blockList.clear();
+        if (kept != null) {
+            blockList.addAll(kept);
+        }
+
+        if (!resolveScheduled) {
+            resolveScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::resolvePending);
+        }
+    }
+
+    /**
+     * Break every queued block immediately, ignoring the time budget
+     */
+    public void shutdown() {
+        if (resolveScheduled) {
+            resolvePending();
+        }
+        if (removalTask != null) {
+            removalTask.cancel();
+            removalTask = null;
+        }
+        removeQueuedBlocks(Long.MAX_VALUE);
+        worldQueues.clear();
+    }
+
+    private void resolvePending() {
+        resolveScheduled = false;
+        long startNanos = System.nanoTime();
+        long currentTime = System.currentTimeMillis();
+
+        Iterator<Map.Entry<UUID, WorldQueue>> iterator = worldQueues.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, WorldQueue> entry = iterator.next();
+            WorldQueue queue = entry.getValue();
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                iterator.remove();
+                continue;
+            }
+
+            queue.protectedUntil.expire(currentTime);
+            if (!queue.incoming.isEmpty()) {
+                queue.incoming.forEach((blockKey, yieldBits) ->
+                    resolveBlock(world, queue, blockKey, Float.intBitsToFloat((int) yieldBits), currentTime));
+                queue.incoming.clear();
+            }
+        }
+        metrics.record(PerformanceMetrics.Timer.EXPLOSION_RESOLVE, System.nanoTime() - startNanos);
+
+        if (removalTask == null && hasQueuedRemovals()) {
+            removalTask = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    long startNanos = System.nanoTime();
+                    removeQueuedBlocks(startNanos + removalBudgetNanos);
+                    metrics.record(PerformanceMetrics.Timer.BLOCK_REMOVAL, System.nanoTime() - startNanos);
+                    if (!hasQueuedRemovals()) {
+                        cancel();
+                        removalTask = null;
+                    }
+                }
+            };
+            removalTask.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    private void resolveBlock(World world, WorldQueue queue, long blockKey, float yield, long currentTime) {
+        if (queue.scheduled.containsKey(blockKey)) {
+            return;
+        }
+
+        int x = CoordinateUtils.unpackBlockX(blockKey);
+        int y = CoordinateUtils.unpackBlockY(blockKey);
+        int z = CoordinateUtils.unpackBlockZ(blockKey);
+
+        long protectedUntil = queue.protectedUntil.getExpiry(blockKey);
+        if (protectedUntil != 0L) {
+            if (currentTime < protectedUntil) {
+                metrics.increment(PerformanceMetrics.Counter.BLOCKS_PROTECTED);
+                if (metrics.isDebugLogging()) {
+                    metrics.debug("explosion.protected", "Protected block at " + x + "," + y + "," + z);
+                }
+                return;
+            }
+            queue.protectedUntil.remove(blockKey);
+        }
+
+        Material material = world.getBlockAt(x, y, z).getType();
+        if (material.isAir()) {
+            return;
+        }
+
+        // Check if block is reinforced and get its resistance
+        double resistanceChance;
+        boolean isReinforced = reinforcedBlockManager.isReinforced(world, x, y, z);
+
+        if (isReinforced) {
+            resistanceChance = reinforcedBlockManager.getMaterialResistance(material);
+        } else {
+            // Check for special blocks that always have resistance (obsidian, bedrock)
+            resistanceChance = getLegacyBlockResistance(material);
+        }
+
+        if (resistanceChance > 0.0) {
+            double random = ThreadLocalRandom.current().nextDouble();
+            if (random < resistanceChance) {
+                // Block survived the explosion
+                // For reinforced blocks with high resistance, protect them longer during multi-wave explosions
+                long protectionTime = isReinforced && resistanceChance >= 0.8 ? 10000L : 500L; // 10 seconds for high resistance reinforced blocks
+                queue.protectedUntil.put(blockKey, currentTime + protectionTime - 500L); // Adjust so cleanup works correctly
+                metrics.increment(PerformanceMetrics.Counter.BLOCKS_SAVED);
+                if (metrics.isDebugLogging()) {
+                    String blockType = isReinforced ? "reinforced " + material.name().toLowerCase() : material.name().toLowerCase();
+                    metrics.debug("explosion.saved", "Saved " + blockType + " block at " + x + "," + y + "," + z + " (resistance: " + (resistanceChance*100) + "%, protected for " + (protectionTime/1000) + "s)");
+                }
+                return;
+            } else if (isReinforced) {
+                // Reinforced block failed its resistance check - will be destroyed
+                // Remove it from the reinforced blocks list
+                reinforcedBlockManager.removeReinforcement(world, x, y, z);
+                metrics.increment(PerformanceMetrics.Counter.REINFORCED_DESTROYED);
+                if (metrics.isDebugLogging()) {
+                    metrics.debug("explosion.reinforced", "Reinforced " + material.name().toLowerCase() + " block destroyed by explosion at " + x + "," + y + "," + z + " (failed " + (resistanceChance*100) + "% resistance check)");
+                }
+            }
+        } else if (isReinforced) {
+            // Block was reinforced but had no resistance (shouldn't happen, but just in case)
+            reinforcedBlockManager.removeReinforcement(world, x, y, z);
+            metrics.increment(PerformanceMetrics.Counter.REINFORCED_DESTROYED);
+            if (metrics.isDebugLogging()) {
+                metrics.debug("explosion.reinforced", "Reinforced " + material.name().toLowerCase() + " block destroyed by explosion at " + x + "," + y + "," + z + " (no resistance configured)");
+            }
+        }
+
+        queue.scheduleRemoval(blockKey, yield);
+    }
+
+    private double getLegacyBlockResistance(Material material) {
+        // Only certain special blocks have inherent resistance (not reinforced)
+        switch (material) {
+            case OBSIDIAN:
+                return 0.95;
+            case BEDROCK:
+                return 1.0;
+            default:
+                return 0.0;
+        }
+    }
+
+    private boolean hasQueuedRemovals() {
+        for (WorldQueue queue : worldQueues.values()) {
+            if (queue.hasRemovals()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Break queued blocks until the deadline passes. Always breaks at least one block per call
+     * so a tiny budget still makes progress.
+     */
+    private void removeQueuedBlocks(long deadlineNanos) {
+        boolean first = true;
+        for (Map.Entry<UUID, WorldQueue> entry : worldQueues.entrySet()) {
+            WorldQueue queue = entry.getValue();
+            if (!queue.hasRemovals()) {
+                continue;
+            }
+
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                queue.clearRemovals();
+                continue;
+            }
+
+            while (queue.hasRemovals()) {
+                if (!first && System.nanoTime() >= deadlineNanos) {
+                    return;
+                }
+                first = false;
+
+                long blockKey = queue.removalQueue[queue.removalHead++];
+                float yield = Float.intBitsToFloat((int) queue.scheduled.getOrDefault(blockKey, 0L));
+                queue.scheduled.remove(blockKey);
+
+                Block block = world.getBlockAt(
+                    CoordinateUtils.unpackBlockX(blockKey),
+                    CoordinateUtils.unpackBlockY(blockKey),
+                    CoordinateUtils.unpackBlockZ(blockKey));
+                if (block.getType().isAir()) {
+                    continue;
+                }
+
+                // Same drop chance the server would have applied
+                if (ThreadLocalRandom.current().nextFloat() < yield) {
+                    block.breakNaturally();
+                } else {
+                    block.setType(Material.AIR);
+                }
+                metrics.increment(PerformanceMetrics.Counter.BLOCKS_DESTROYED);
+            }
+            queue.clearRemovals();
+        }
+    }
+
+    /**
+     * Per-world explosion state, keyed by packed block coordinates
+     */
+    private static final class WorldQueue {
+        // Blocks handed over since the last resolve pass -> explosion yield (float bits)
+        private final LongLongHashMap incoming = new LongLongHashMap(1024);
+        // Blocks that survived a blast -> time their protection ends (50ms slots, ~25s per rotation)
+        private final ExpiryWheel protectedUntil = new ExpiryWheel(50L, 512);
+        // Blocks waiting to be broken -> explosion yield (float bits)
+        private final LongLongHashMap scheduled = new LongLongHashMap();
+        private long[] removalQueue = new long[256];
+        private int removalHead;
+        private int removalTail;
+
+        private void scheduleRemoval(long blockKey, float yield) {
+            scheduled.put(blockKey, Float.floatToIntBits(yield));
+            if (removalTail == removalQueue.length) {
+                // Compact consumed entries before growing
+                int remaining = removalTail - removalHead;
+                if (removalHead > 0 && remaining < removalQueue.length / 2) {
+                    System.arraycopy(removalQueue, removalHead, removalQueue, 0, remaining);
+                } else {
+                    removalQueue = Arrays.copyOf(removalQueue, removalQueue.length * 2);
+                    System.arraycopy(removalQueue, removalHead, removalQueue, 0, remaining);
+                }
+                removalHead = 0;
+                removalTail = remaining;
+            }
+            removalQueue[removalTail++] = blockKey;
+        }
+
+        private boolean hasRemovals() {
+            return removalHead < removalTail;
+        }
+
+        private void clearRemovals() {
+            removalHead = 0;
+            removalTail = 0;
+            scheduled.clear();
+        }
+    }
+}
@@ -4,7 +4,6 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.BlockDisplay;
 import org.bukkit.entity.Player;
@@ -13,25 +12,25 @@ import org.bukkit.util.Transformation;
 import org.joml.AxisAngle4f;
 import org.joml.Vector3f;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import gg.doomsday.core.config.ConfigManager;
 import gg.doomsday.core.defense.ReinforcedBlockManager;
+import gg.doomsday.core.metrics.PerformanceMetrics;
 
 public class ExplosionHandler implements Listener {
     
     private final JavaPlugin plugin;
-    private final Map<String, Long> protectedBlocks = new HashMap<>();
     private final ReinforcedBlockManager reinforcedBlockManager;
+    private final ExplosionBlockPipeline blockPipeline;
+    private final PerformanceMetrics metrics;
 
     public enum ExplosionType {
         DEFAULT,
@@ -44,6 +43,8 @@ public class ExplosionHandler implements Listener {
     public ExplosionHandler(JavaPlugin plugin, ReinforcedBlockManager reinforcedBlockManager) {
         this.plugin = plugin;
         this.reinforcedBlockManager = reinforcedBlockManager;
+        this.metrics = ((gg.doomsday.core.DoomsdayCore) plugin).getMetrics();
+        this.blockPipeline = new ExplosionBlockPipeline(plugin, reinforcedBlockManager, metrics);
     }
 
     public void handleExplosion(Location loc, String explosionTypeStr) {
@@ -1194,87 +1195,28 @@ public class ExplosionHandler implements Listener {
         }
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent event) {
-        plugin.getLogger().info("EntityExplode event triggered! Entity: " + event.getEntity().getType() + " Blocks affected: " + event.blockList().size());
-        processExplosion(event.blockList());
-    }
-
-    @EventHandler
-    public void onBlockExplode(BlockExplodeEvent event) {
-        plugin.getLogger().info("BlockExplode event triggered! Block: " + event.getBlock().getType() + " Blocks affected: " + event.blockList().size());
-        processExplosion(event.blockList());
-    }
-
-    private void processExplosion(java.util.List<Block> blockList) {
-        Iterator<Block> iterator = blockList.iterator();
-        long currentTime = System.currentTimeMillis();
-        
-        while (iterator.hasNext()) {
-            Block block = iterator.next();
-            Material material = block.getType();
-            String blockKey = block.getWorld().getName() + ":" + block.getX() + ":" + block.getY() + ":" + block.getZ();
-            
-            if (protectedBlocks.containsKey(blockKey)) {
-                long protectedUntil = protectedBlocks.get(blockKey);
-                if (currentTime < protectedUntil) {
-                    iterator.remove();
-                    plugin.getLogger().info("Protected block: " + material + " at " + block.getX() + "," + block.getY() + "," + block.getZ());
-                    continue;
-                }
-                protectedBlocks.remove(blockKey);
-            }
-            
-            // Check if block is reinforced and get its resistance
-            double resistanceChance = 0.0;
-            boolean isReinforced = reinforcedBlockManager.isReinforced(block.getLocation());
-            
-            if (isReinforced) {
-                resistanceChance = reinforcedBlockManager.getResistance(block.getLocation());
-            } else {
-                // Check for special blocks that always have resistance (obsidian, bedrock)
-                resistanceChance = getLegacyBlockResistance(material);
-            }
-            
-            if (resistanceChance > 0.0) {
-                double random = ThreadLocalRandom.current().nextDouble();
-                if (random < resistanceChance) {
-                    // Block survived the explosion
-                    iterator.remove();
-                    // For reinforced blocks with high resistance, protect them longer during multi-wave explosions
-                    long protectionTime = isReinforced && resistanceChance >= 0.8 ? 10000L : 500L; // 10 seconds for high resistance reinforced blocks
-                    protectedBlocks.put(blockKey, currentTime + protectionTime - 500L); // Adjust so cleanup works correctly
-                    String blockType = isReinforced ? "reinforced " + material.name().toLowerCase() : material.name().toLowerCase();
-                    plugin.getLogger().info("Saved " + blockType + " block at " + block.getX() + "," + block.getY() + "," + block.getZ() + " (resistance: " + (resistanceChance*100) + "%, protected for " + (protectionTime/1000) + "s)");
-                } else if (isReinforced) {
-                    // Reinforced block failed its resistance check - will be destroyed
-                    // Remove it from the reinforced blocks list
-                    reinforcedBlockManager.removeReinforcement(block.getLocation());
-                    plugin.getLogger().info("Reinforced " + material.name().toLowerCase() + " block destroyed by explosion at " + block.getX() + "," + block.getY() + "," + block.getZ() + " (failed " + (resistanceChance*100) + "% resistance check)");
-                }
-            } else if (isReinforced) {
-                // Block was reinforced but had no resistance (shouldn't happen, but just in case)
-                reinforcedBlockManager.removeReinforcement(block.getLocation());
-                plugin.getLogger().info("Reinforced " + material.name().toLowerCase() + " block destroyed by explosion at " + block.getX() + "," + block.getY() + "," + block.getZ() + " (no resistance configured)");
-            }
+        metrics.increment(PerformanceMetrics.Counter.EXPLOSION_EVENTS);
+        if (metrics.isDebugLogging()) {
+            metrics.debug("explode.entity", "EntityExplode event triggered! Entity: " + event.getEntity().getType() + " Blocks affected: " + event.blockList().size());
         }
-        
-        cleanupOldProtections(currentTime);
+        blockPipeline.submit(event.blockList(), event.getYield());
     }
 
-    private double getLegacyBlockResistance(Material material) {
-        // Only certain special blocks have inherent resistance (not reinforced)
-        switch (material) {
-            case OBSIDIAN:
-                return 0.95;
-            case BEDROCK:
-                return 1.0;
-            default:
-                return 0.0;
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        metrics.increment(PerformanceMetrics.Counter.EXPLOSION_EVENTS);
+        if (metrics.isDebugLogging()) {
+            metrics.debug("explode.block", "BlockExplode event triggered! Block: " + event.getBlock().getType() + " Blocks affected: " + event.blockList().size());
         }
+        blockPipeline.submit(event.blockList(), event.getYield());
     }
 
-    private void cleanupOldProtections(long currentTime) {
-        protectedBlocks.entrySet().removeIf(entry -> currentTime >= entry.getValue());
+    /**
+     * Break any blocks still waiting in the explosion pipeline
+     */
+    public void shutdown() {
+        blockPipeline.shutdown();
     }
 }
\ No newline at end of file
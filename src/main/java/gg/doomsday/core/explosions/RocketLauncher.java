@@ -9,7 +9,6 @@ import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.BlockDisplay;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Transformation;
 import org.bukkit.util.Vector;
 import org.joml.AxisAngle4f;
@@ -18,19 +17,31 @@ import org.joml.Vector3f;
 import gg.doomsday.core.config.ConfigManager;
 import gg.doomsday.core.defense.AntiAirDefenseManager;
 import gg.doomsday.core.defense.ReinforcedBlockManager;
+import gg.doomsday.core.flight.FlightSimulator;
+import gg.doomsday.core.flight.Projectile;
+import gg.doomsday.core.flight.Trajectory;
+import gg.doomsday.core.metrics.PerformanceMetrics;
+import gg.doomsday.core.utils.VoxelRaycast;
 
 public class RocketLauncher {
+
+    private static final double STRAIGHT_SPEED = 12.0;
+    private static final double FLIGHT_TIMEOUT_SECONDS = 15.0;
     
     private final JavaPlugin plugin;
     private final ExplosionHandler explosionHandler;
     private final ReinforcedBlockManager reinforcedBlockManager;
     private final AntiAirDefenseManager antiAirManager;
+    private final PerformanceMetrics metrics;
+    private final FlightSimulator flightSimulator;
 
     public RocketLauncher(JavaPlugin plugin, ExplosionHandler explosionHandler, ReinforcedBlockManager reinforcedBlockManager, AntiAirDefenseManager antiAirManager) {
         this.plugin = plugin;
         this.explosionHandler = explosionHandler;
         this.reinforcedBlockManager = reinforcedBlockManager;
         this.antiAirManager = antiAirManager;
+        this.metrics = ((gg.doomsday.core.DoomsdayCore) plugin).getMetrics();
+        this.flightSimulator = ((gg.doomsday.core.DoomsdayCore) plugin).getFlightSimulator();
     }
 
     public void spawnRocket(Location start, Location end, double smokeOffset, double speed, double arcScale, String soundStr, String explosionTypeStr) {
@@ -71,203 +82,210 @@ public class RocketLauncher {
 
         playRocketSound(launchPos, launchSound, 2.0f, 0.9f, soundRadius);
 
-        new BukkitRunnable() {
-            double t = 0.0;
-            Vector lastVel = v0.clone();
-            boolean exploded = false;
-            boolean checkedForIntercept = false;
-            Location lastPosition = launchPos.clone().add(0, 0.5, 0); // Start at actual launch position
-
-            @Override public void run() {
-                if (rocket.isDead() || !rocket.isValid()) { 
-                    cancel(); 
-                    return; 
-                }
-
-                // Calculate next position based on current trajectory phase
-                Location targetPos;
-                Vector currentVelocity;
-
-                if (t < T) {
-                    // Arc trajectory phase - calculate physics-based position
-                    Vector vt = v0.clone().add(gVec.clone().multiply(t));
-                    Vector pt = launchPos.toVector()
-                            .add(v0.clone().multiply(t))
-                            .add(gVec.clone().multiply(0.5 * t * t));
-
-                    targetPos = vectorToLocation(pt, launchPos.getWorld());
-                    currentVelocity = vt.clone();
-                    
-                    // Store velocity for potential straight-line continuation
-                    if (currentVelocity.length() > 1e-6) {
-                        lastVel = currentVelocity.clone();
-                    }
-                } else {
-                    // Straight line continuation phase
-                    double extraTime = t - T;
-                    Vector straightVel = lastVel.clone().normalize().multiply(12.0); // Constant speed
-                    
-                    // Continue from end point in straight line
-                    targetPos = end.clone().add(straightVel.clone().multiply(extraTime));
-                    currentVelocity = straightVel;
-                    
-                    plugin.getLogger().info("Rocket in straight-line phase: extraTime=" + String.format("%.2f", extraTime) + 
-                        ", pos=" + String.format("%.1f,%.1f,%.1f", targetPos.getX(), targetPos.getY(), targetPos.getZ()));
-                }
-
-                // Check for ground collision (y <= 0)
-                if (targetPos.getY() <= 0) {
-                    plugin.getLogger().info("Rocket reached bedrock level (y=" + targetPos.getY() + "), disappearing...");
-                    rocket.remove();
-                    cancel();
-                    return;
-                }
-
-                // ROBUST COLLISION DETECTION - Ray-cast from current to target position
-                boolean hitBlock = performRaycastCollision(lastPosition, targetPos);
-                if (hitBlock) {
-                    return; // Explosion already handled in raycast method
-                }
-
-                // Anti-air interception check
-                if (!checkedForIntercept && t > T * 0.15) {
-                    checkedForIntercept = true;
-                    boolean intercepted = antiAirManager.checkForInterception(start, end, speed, rocket);
-                    if (intercepted) {
-                        plugin.getLogger().info("Missile intercepted by anti-air defenses!");
-                        cancel();
-                        return;
-                    }
-                }
-
-                // Update rocket position and orientation
-                rocket.teleport(targetPos);
-                
-                // Apply rotation based on velocity direction
-                Vector direction = currentVelocity.clone().normalize();
-                applyUpToDirectionRotation(rocket, direction);
-
-                // Create smoke trail effects
-                createSmokeTrail(targetPos, direction, smokeOffset);
-
-                // Update position tracking
-                lastPosition = targetPos.clone();
-                t += dtSeconds;
-
-                // Timeout safety - remove after extended flight time
-                if (t > T + 15.0) {
-                    plugin.getLogger().info("Rocket flight timeout after " + String.format("%.1f", t) + " seconds, removing...");
-                    rocket.remove();
-                    cancel();
-                }
+        // Whole flight path: arc to the target, straight continuation until the timeout
+        Trajectory trajectory = Trajectory.ballistic(launchPos.getWorld(),
+            launchPos.getX(), launchPos.getY(), launchPos.getZ(), v0.getX(), v0.getY(), v0.getZ(), gVec.getY(),
+            T, STRAIGHT_SPEED, T + FLIGHT_TIMEOUT_SECONDS, dtSeconds);
+
+        RocketFlight flight = new RocketFlight(rocket, start, end, speed, trajectory, smokeOffset, soundRadius, explosionTypeStr);
+        Projectile projectile = flightSimulator.launch(Projectile.Kind.MISSILE, launchPos.getWorld(), rocket,
+            launchPos.getX(), launchPos.getY(), launchPos.getZ(), dtSeconds, flight);
+        projectile.setTrajectory(trajectory);
+        projectile.setVelocity(v0.getX(), v0.getY(), v0.getZ());
+        projectile.setAcceleration(0, gVec.getY(), 0);
+    }
+
+    /**
+     * Flight behaviour of one missile: ballistic arc to the target, then a straight line
+     * at constant speed if nothing was hit on the way down
+     */
+    private class RocketFlight implements FlightSimulator.FlightController {
+
+        private static final int PHASE_ARC = 0;
+        private static final int PHASE_STRAIGHT = 1;
+
+        private final BlockDisplay rocket;
+        private final Location start;
+        private final Location end;
+        private final double speed;
+        private final Trajectory trajectory;
+        private final double flightTime;
+        private final double smokeOffset;
+        private final double soundRadius;
+        private final String explosionTypeStr;
+        private boolean exploded = false;
+        private boolean checkedForIntercept = false;
+
+        // Raycast state, reused every tick so collision checks don't allocate
+        private final World flightWorld;
+        private final int minCheckY;
+        private final int maxCheckY;
+        private long visitedBlocks;
+        private int hitX, hitY, hitZ;
+        private final VoxelRaycast.VoxelVisitor solidBlockTest = (x, y, z) -> {
+            visitedBlocks++;
+            if (y < this.minCheckY || y > this.maxCheckY) {
+                return false;
+            }
+            if (this.flightWorld.getType(x, y, z).isAir()) {
+                return false;
+            }
+            hitX = x;
+            hitY = y;
+            hitZ = z;
+            return true;
+        };
+
+        RocketFlight(BlockDisplay rocket, Location start, Location end, double speed, Trajectory trajectory,
+                     double smokeOffset, double soundRadius, String explosionTypeStr) {
+            this.rocket = rocket;
+            this.start = start;
+            this.end = end;
+            this.speed = speed;
+            this.trajectory = trajectory;
+            this.flightTime = trajectory.getArcTime();
+            this.smokeOffset = smokeOffset;
+            this.soundRadius = soundRadius;
+            this.explosionTypeStr = explosionTypeStr;
+            this.flightWorld = start.getWorld();
+            this.minCheckY = Math.max(0, flightWorld.getMinHeight());
+            this.maxCheckY = flightWorld.getMaxHeight() - 1;
+        }
+
+        @Override
+        public boolean afterMove(Projectile projectile) {
+            metrics.increment(PerformanceMetrics.Counter.ROCKET_TICKS);
+            double t = projectile.getElapsed();
+
+            if (projectile.getPhase() == PHASE_ARC && t >= flightTime) {
+                // Straight line continuation from the target point, along the arc's final direction
+                projectile.setPosition(trajectory.xAt(t), trajectory.yAt(t), trajectory.zAt(t));
+                projectile.setVelocity(trajectory.velocityXAt(t), trajectory.velocityYAt(t), trajectory.velocityZAt(t));
+                projectile.setAcceleration(0, 0, 0);
+                projectile.setPhase(PHASE_STRAIGHT);
             }
 
-            private boolean performRaycastCollision(Location from, Location to) {
-                if (from == null || to == null || from.getWorld() != to.getWorld()) {
-                    plugin.getLogger().warning("Invalid collision check parameters");
-                    return false;
-                }
-
-                Vector movement = to.toVector().subtract(from.toVector());
-                double totalDistance = movement.length();
-                
-                if (totalDistance <= 0.01) return false; // Too small to matter
-
-                Vector direction = movement.normalize();
-                double stepSize = 0.1; // Very fine steps for accuracy
-                
-                // Check every 0.1 blocks along the path
-                for (double distance = stepSize; distance <= totalDistance; distance += stepSize) {
-                    Location checkPoint = from.clone().add(direction.clone().multiply(distance));
-                    
-                    // Safety check for world boundaries
-                    if (checkPoint.getY() < 0 || checkPoint.getY() > 320) {
-                        continue;
-                    }
-                    
-                    try {
-                        // Ensure we check the block at this exact position
-                        if (!checkPoint.getBlock().getType().isAir()) {
-                            // Found solid block - calculate impact point (slightly back from collision)
-                            Location impactPoint = from.clone().add(direction.clone().multiply(Math.max(0, distance - stepSize*0.5)));
-                            
-                            plugin.getLogger().info("COLLISION DETECTED: Rocket hit " + 
-                                checkPoint.getBlock().getType().name() + " at " +
-                                checkPoint.getBlockX() + "," + checkPoint.getBlockY() + "," + checkPoint.getBlockZ() +
-                                " - Exploding at impact point " +
-                                String.format("%.1f,%.1f,%.1f", impactPoint.getX(), impactPoint.getY(), impactPoint.getZ()));
-                            
-                            explodeAt(impactPoint);
-                            return true;
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Error checking block at " + checkPoint + ": " + e.getMessage());
-                        // If we can't check the block, assume collision to be safe
-                        explodeAt(checkPoint);
-                        return true;
-                    }
-                }
-                
-                // Final safety check - if we're at the target position, check if it's solid
-                try {
-                    if (!to.getBlock().getType().isAir()) {
-                        plugin.getLogger().info("Target destination has solid block, exploding there");
-                        explodeAt(to);
-                        return true;
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Error checking target block, exploding as safety measure");
-                    explodeAt(to);
-                    return true;
-                }
-                
+            double x = projectile.getX();
+            double y = projectile.getY();
+            double z = projectile.getZ();
+
+            if (projectile.getPhase() == PHASE_STRAIGHT && metrics.isDebugLogging()) {
+                metrics.debug("rocket.straight", "Rocket in straight-line phase: extraTime=" + String.format("%.2f", t - flightTime) + 
+                    ", pos=" + String.format("%.1f,%.1f,%.1f", x, y, z));
+            }
+
+            // Check for ground collision (y <= 0)
+            if (y <= 0) {
+                plugin.getLogger().info("Rocket reached bedrock level (y=" + y + "), disappearing...");
                 return false;
             }
 
-            private void createSmokeTrail(Location center, Vector direction, double smokeOffset) {
-                Location trailLoc = center.clone().add(direction.clone().multiply(-0.9));
-                trailLoc.add(0, smokeOffset, 0);
-
-                center.getWorld().spawnParticle(Particle.SMOKE_NORMAL, trailLoc, 2, 0.10, 0.10, 0.10, 0.01);
-                center.getWorld().spawnParticle(Particle.FLAME, trailLoc, 1, 0.05, 0.05, 0.05, 0.01);
-                
-                // Trail particles behind rocket
-                for (double d = 0.5; d <= 2.0; d += 0.5) {
-                    Location step = center.clone().add(direction.clone().multiply(-d));
-                    step.add(0, smokeOffset, 0);
-                    center.getWorld().spawnParticle(Particle.SMOKE_LARGE, step, 1, 0.03, 0.03, 0.03, 0.0);
-                }
+            // ROBUST COLLISION DETECTION - Ray-cast from current to target position
+            long raycastStart = System.nanoTime();
+            boolean hitBlock = performRaycastCollision(projectile.getPreviousX(), projectile.getPreviousY(), projectile.getPreviousZ(), x, y, z);
+            metrics.record(PerformanceMetrics.Timer.ROCKET_RAYCAST, System.nanoTime() - raycastStart);
+            if (hitBlock) {
+                return false; // Explosion already handled in raycast method
+            }
+
+            // Anti-air detection - from here the defense coordinator assigns interceptors
+            if (!checkedForIntercept && t > flightTime * 0.15) {
+                checkedForIntercept = true;
+                antiAirManager.trackMissile(projectile, start, end, speed);
+            }
+
+            // Orientation and smoke trail; the simulator teleports the entity afterwards
+            double vx = projectile.getVelocityX();
+            double vy = projectile.getVelocityY();
+            double vz = projectile.getVelocityZ();
+            double length = Math.sqrt(vx * vx + vy * vy + vz * vz);
+            if (length > 1e-6) {
+                vx /= length;
+                vy /= length;
+                vz /= length;
+                applyUpToDirectionRotation(rocket, vx, vy, vz);
+                createSmokeTrail(x, y, z, vx, vy, vz);
             }
 
-            private void explodeAt(Location where) {
-                if (exploded) return;
-                exploded = true;
-                
-                // Ensure explosion location is valid
-                if (where == null || where.getWorld() == null) {
-                    plugin.getLogger().warning("Invalid explosion location, using rocket position");
-                    where = rocket.getLocation();
-                }
-                
-                plugin.getLogger().info("MISSILE EXPLODING at " + 
-                    String.format("%.2f,%.2f,%.2f", where.getX(), where.getY(), where.getZ()));
-                
-                // Play explosion sound and trigger explosion
-                playRocketSound(where, Sound.ENTITY_GENERIC_EXPLODE, 3.0f, 1.0f, soundRadius);
-                explosionHandler.handleExplosion(where, explosionTypeStr);
-                
-                // Clean up rocket entity
-                if (rocket != null && !rocket.isDead()) {
-                    rocket.remove();
-                }
-                cancel();
+            // Timeout safety - remove after extended flight time
+            if (t > trajectory.getDuration()) {
+                plugin.getLogger().info("Rocket flight timeout after " + String.format("%.1f", t) + " seconds, removing...");
+                return false;
             }
-        }.runTaskTimer(plugin, 1L, 1L);
+            return true;
+        }
+
+        private boolean performRaycastCollision(double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+            double dx = toX - fromX;
+            double dy = toY - fromY;
+            double dz = toZ - fromZ;
+            double totalDistance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            
+            if (totalDistance <= 0.01) return false; // Too small to matter
+
+            // Walk each block between the two frames once, in order
+            visitedBlocks = 0;
+            double hitDistance;
+            try {
+                hitDistance = VoxelRaycast.traverse(fromX, fromY, fromZ, toX, toY, toZ, solidBlockTest);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error checking blocks along rocket path: " + e.getMessage());
+                // If we can't check the blocks, assume collision to be safe
+                explodeAt(new Location(flightWorld, toX, toY, toZ));
+                return true;
+            } finally {
+                metrics.add(PerformanceMetrics.Counter.RAYCAST_STEPS, visitedBlocks);
+            }
+
+            if (hitDistance < 0) {
+                return false;
+            }
+
+            // Impact point slightly back from where the path entered the solid block
+            double impactFraction = Math.max(0, hitDistance - 0.05) / totalDistance;
+            Location impactPoint = new Location(flightWorld,
+                fromX + dx * impactFraction, fromY + dy * impactFraction, fromZ + dz * impactFraction);
+
+            metrics.increment(PerformanceMetrics.Counter.ROCKET_COLLISIONS);
+            if (metrics.isDebugLogging()) {
+                metrics.debug("rocket.collision", "COLLISION DETECTED: Rocket hit " + 
+                    flightWorld.getType(hitX, hitY, hitZ).name() + " at " +
+                    hitX + "," + hitY + "," + hitZ +
+                    " - Exploding at impact point " +
+                    String.format("%.1f,%.1f,%.1f", impactPoint.getX(), impactPoint.getY(), impactPoint.getZ()));
+            }
+            
+            explodeAt(impactPoint);
+            return true;
+        }
+
+        private void createSmokeTrail(double x, double y, double z, double dirX, double dirY, double dirZ) {
+            double trailY = y + smokeOffset;
+            flightWorld.spawnParticle(Particle.SMOKE_NORMAL, x - dirX * 0.9, trailY - dirY * 0.9, z - dirZ * 0.9, 2, 0.10, 0.10, 0.10, 0.01);
+            flightWorld.spawnParticle(Particle.FLAME, x - dirX * 0.9, trailY - dirY * 0.9, z - dirZ * 0.9, 1, 0.05, 0.05, 0.05, 0.01);
+            
+            // Trail particles behind rocket
+            for (double d = 0.5; d <= 2.0; d += 0.5) {
+                flightWorld.spawnParticle(Particle.SMOKE_LARGE, x - dirX * d, trailY - dirY * d, z - dirZ * d, 1, 0.03, 0.03, 0.03, 0.0);
+            }
+        }
+
+        private void explodeAt(Location where) {
+            if (exploded) return;
+            exploded = true;
+            
+            plugin.getLogger().info("MISSILE EXPLODING at " + 
+                String.format("%.2f,%.2f,%.2f", where.getX(), where.getY(), where.getZ()));
+            
+            // Play explosion sound and trigger explosion; the simulator removes the rocket entity
+            playRocketSound(where, Sound.ENTITY_GENERIC_EXPLODE, 3.0f, 1.0f, soundRadius);
+            explosionHandler.handleExplosion(where, explosionTypeStr);
+        }
     }
 
-    private void applyUpToDirectionRotation(BlockDisplay display, Vector dirBukkit) {
+    private void applyUpToDirectionRotation(BlockDisplay display, double dirX, double dirY, double dirZ) {
         Vector3f up = new Vector3f(0f, 1f, 0f);
-        Vector3f dir = new Vector3f((float) dirBukkit.getX(), (float) dirBukkit.getY(), (float) dirBukkit.getZ());
+        Vector3f dir = new Vector3f((float) dirX, (float) dirY, (float) dirZ);
         float dirLen = dir.length();
 
         if (dirLen < 1e-6f) return;
@@ -320,8 +338,4 @@ public class RocketLauncher {
     private static float clampF(float v, float lo, float hi) {
         return Math.max(lo, Math.min(hi, v));
     }
-
-    private static Location vectorToLocation(Vector v, World w) {
-        return new Location(w, v.getX(), v.getY(), v.getZ());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+package gg.doomsday.core.flight;
+
+import gg.doomsday.core.metrics.PerformanceMetrics;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Arrays;
+
+/**
+ * Moves every rocket and interceptor from a single tick task.
+ *
+ * Projectile state is kept as parallel primitive arrays (struct of arrays) and each
+ * tick runs in passes over all projectiles: steering, integration under constant
+ * acceleration, post-move checks, then one batch of entity teleports. Behaviour
+ * specific to each kind of projectile lives in its {@link FlightController}.
+ *
+ * Main thread only.
+ */
+public class FlightSimulator {
+
+    /**
+     * Per-projectile behaviour. Returning false from either callback removes the projectile.
+     */
+    public interface FlightController {
+        /**
+         * Called before the projectile moves, e.g. to steer by setting its velocity
+         */
+        default boolean beforeMove(Projectile projectile) {
+            return true;
+        }
+
+        /**
+         * Called after the projectile moved and before its entity is teleported
+         */
+        boolean afterMove(Projectile projectile);
+    }
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final JavaPlugin plugin;
+    private final PerformanceMetrics metrics;
+    private final Location teleportTarget = new Location(null, 0, 0, 0);
+    private BukkitRunnable task;
+    private int count;
+
+    // Projectile state, indexed by slot. Package-private so Projectile can read it directly.
+    double[] posX, posY, posZ;
+    double[] prevX, prevY, prevZ;
+    double[] velX, velY, velZ;
+    double[] accX, accY, accZ;
+    double[] timeStep;
+    double[] elapsed;
+    int[] ticks;
+    byte[] phase;
+    boolean[] removed;
+    private Projectile[] handles;
+    private FlightController[] controllers;
+
+    public FlightSimulator(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.metrics = ((gg.doomsday.core.DoomsdayCore) plugin).getMetrics();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Start simulating a projectile at rest. Set its velocity and acceleration on the
+     * returned handle.
+     *
+     * @param timeStep simulated time per tick; positions advance by velocity * timeStep
+     */
+    public Projectile launch(Projectile.Kind kind, World world, Entity entity, double x, double y, double z,
+                             double timeStep, FlightController controller) {
+        if (count == handles.length) {
+            allocate(handles.length * 2);
+        }
+
+        int slot = count++;
+        posX[slot] = prevX[slot] = x;
+        posY[slot] = prevY[slot] = y;
+        posZ[slot] = prevZ[slot] = z;
+        velX[slot] = velY[slot] = velZ[slot] = 0;
+        accX[slot] = accY[slot] = accZ[slot] = 0;
+        this.timeStep[slot] = timeStep;
+        elapsed[slot] = 0;
+        ticks[slot] = 0;
+        phase[slot] = 0;
+        removed[slot] = false;
+        controllers[slot] = controller;
+        Projectile projectile = new Projectile(this, kind, world, entity, slot);
+        handles[slot] = projectile;
+
+        if (task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            };
+            task.runTaskTimer(plugin, 1L, 1L);
+        }
+        return projectile;
+    }
+
+    public int getProjectileCount() {
+        return count;
+    }
+
+    /**
+     * Remove every projectile and its entity
+     */
+    public void shutdown() {
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                markRemoved(i);
+            }
+        }
+        compact();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    void markRemoved(int slot) {
+        removed[slot] = true;
+        Entity entity = handles[slot].getEntity();
+        if (entity != null && !entity.isDead()) {
+            entity.remove();
+        }
+    }
+
+    private void tick() {
+        long startNanos = System.nanoTime();
+        int n = count;
+
+        // Steering; drop projectiles whose entity was removed by something else
+        for (int i = 0; i < n; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            Entity entity = handles[i].getEntity();
+            if (entity != null && (entity.isDead() || !entity.isValid())) {
+                removed[i] = true;
+                continue;
+            }
+            if (!controllers[i].beforeMove(handles[i])) {
+                markRemoved(i);
+            }
+        }
+
+        // Integrate: exact for constant acceleration, so ballistic arcs don't drift
+        for (int i = 0; i < n; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            double dt = timeStep[i];
+            double halfDtSq = 0.5 * dt * dt;
+            prevX[i] = posX[i];
+            prevY[i] = posY[i];
+            prevZ[i] = posZ[i];
+            posX[i] += velX[i] * dt + accX[i] * halfDtSq;
+            posY[i] += velY[i] * dt + accY[i] * halfDtSq;
+            posZ[i] += velZ[i] * dt + accZ[i] * halfDtSq;
+            velX[i] += accX[i] * dt;
+            velY[i] += accY[i] * dt;
+            velZ[i] += accZ[i] * dt;
+            elapsed[i] += dt;
+            ticks[i]++;
+        }
+
+        // Collisions, interception and effects
+        for (int i = 0; i < n; i++) {
+            if (!removed[i] && !controllers[i].afterMove(handles[i])) {
+                markRemoved(i);
+            }
+        }
+
+        // Move the entities in one batch
+        for (int i = 0; i < n; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            Projectile projectile = handles[i];
+            Entity entity = projectile.getEntity();
+            if (entity != null) {
+                teleportTarget.setWorld(projectile.getWorld());
+                teleportTarget.setX(posX[i]);
+                teleportTarget.setY(posY[i]);
+                teleportTarget.setZ(posZ[i]);
+                entity.teleport(teleportTarget);
+            }
+        }
+        teleportTarget.setWorld(null);
+
+        compact();
+        metrics.record(PerformanceMetrics.Timer.FLIGHT_TICK, System.nanoTime() - startNanos);
+
+        if (count == 0 && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Fill the slots of removed projectiles with live ones from the end of the arrays
+     */
+    private void compact() {
+        int i = 0;
+        while (i < count) {
+            if (!removed[i]) {
+                i++;
+                continue;
+            }
+
+            handles[i].slot = -1;
+            int last = --count;
+            if (i != last) {
+                moveSlot(last, i);
+            }
+            handles[last] = null;
+            controllers[last] = null;
+            removed[last] = false;
+        }
+    }
+
+    private void moveSlot(int from, int to) {
+        posX[to] = posX[from];
+        posY[to] = posY[from];
+        posZ[to] = posZ[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        prevZ[to] = prevZ[from];
+        velX[to] = velX[from];
+        velY[to] = velY[from];
+        velZ[to] = velZ[from];
+        accX[to] = accX[from];
+        accY[to] = accY[from];
+        accZ[to] = accZ[from];
+        timeStep[to] = timeStep[from];
+        elapsed[to] = elapsed[from];
+        ticks[to] = ticks[from];
+        phase[to] = phase[from];
+        removed[to] = removed[from];
+        controllers[to] = controllers[from];
+        handles[to] = handles[from];
+        handles[to].slot = to;
+    }
+
+    private void allocate(int capacity) {
+        if (handles == null) {
+            posX = new double[capacity];
+            posY = new double[capacity];
+            posZ = new double[capacity];
+            prevX = new double[capacity];
+            prevY = new double[capacity];
+            prevZ = new double[capacity];
+            velX = new double[capacity];
+            velY = new double[capacity];
+            velZ = new double[capacity];
+            accX = new double[capacity];
+            accY = new double[capacity];
+            accZ = new double[capacity];
+            timeStep = new double[capacity];
+            elapsed = new double[capacity];
+            ticks = new int[capacity];
+            phase = new byte[capacity];
+            removed = new boolean[capacity];
+            handles = new Projectile[capacity];
+            controllers = new FlightController[capacity];
+            return;
+        }
+
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        prevZ = Arrays.copyOf(prevZ, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        velZ = Arrays.copyOf(velZ, capacity);
+        accX = Arrays.copyOf(accX, capacity);
+        accY = Arrays.copyOf(accY, capacity);
+        accZ = Arrays.copyOf(accZ, capacity);
+        timeStep = Arrays.copyOf(timeStep, capacity);
+        elapsed = Arrays.copyOf(elapsed, capacity);
+        ticks = Arrays.copyOf(ticks, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        controllers = Arrays.copyOf(controllers, capacity);
+    }
+}
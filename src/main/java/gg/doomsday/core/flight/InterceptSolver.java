@@ -0,0 +1,161 @@
+package gg.doomsday.core.flight;
+
+/**
+ * Lead-intercept solver for straight-line interceptors against a missile {@link Trajectory}.
+ *
+ * Time is counted in server ticks from the interceptor's launch. The missile advances
+ * {@code missileTimeStep} of trajectory time per tick; the interceptor covers at most
+ * {@code interceptorSpeed} blocks per tick. The earliest time at which the missile is
+ * within the interceptor's reach is found by conservative advancement along the
+ * closed-form path, then bisecting the crossing. The search is bounded by the missile's
+ * remaining flight.
+ */
+public final class InterceptSolver {
+
+    private static final int REFINE_ITERATIONS = 24;
+    private static final double MIN_STEP_TICKS = 0.05;
+
+    /**
+     * Where and when an interceptor launched now meets the missile
+     */
+    public static final class Solution {
+        private final double ticks;
+        private final double x, y, z;
+        private final double missileTime;
+
+        Solution(double ticks, double x, double y, double z, double missileTime) {
+            this.ticks = ticks;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.missileTime = missileTime;
+        }
+
+        /**
+         * Ticks after launch at which the interceptor reaches the intercept point
+         */
+        public double getTicks() {
+            return ticks;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        /**
+         * Missile trajectory time at the intercept
+         */
+        public double getMissileTime() {
+            return missileTime;
+        }
+    }
+
+    private InterceptSolver() {
+    }
+
+    /**
+     * @param missileTime     trajectory time of the missile at the interceptor's launch
+     * @param missileTimeStep trajectory time the missile advances per tick
+     * @param maxDistance     furthest the intercept point may be from the launch point
+     * @return the earliest intercept before the missile reaches its target, or null if there is none
+     */
+    public static Solution solve(Trajectory trajectory, double missileTime, double missileTimeStep,
+                                 double launchX, double launchY, double launchZ,
+                                 double interceptorSpeed, double maxDistance) {
+        if (trajectory == null || missileTimeStep <= 0 || interceptorSpeed <= 0) {
+            return null;
+        }
+
+        // Once the arc ends the missile is at its target and about to detonate
+        double horizonTicks = (trajectory.getArcTime() - missileTime) / missileTimeStep;
+        if (horizonTicks <= 0) {
+            return null;
+        }
+
+        // The gap below changes no faster than the closing speed, so stepping by gap / closing
+        // speed cannot jump over the first crossing. Speed along the arc peaks at an end.
+        double missileSpeed = Math.sqrt(Math.max(speedSquaredAt(trajectory, missileTime), speedSquaredAt(trajectory, trajectory.getArcTime())));
+        double closingSpeed = missileSpeed * missileTimeStep + interceptorSpeed;
+        double maxDistanceSq = maxDistance * maxDistance;
+
+        // The interceptor needs at least one tick to leave the launcher
+        double ticks = Math.min(1.0, horizonTicks);
+        double gap = reachGap(trajectory, missileTime, missileTimeStep, launchX, launchY, launchZ, interceptorSpeed, ticks);
+        double previousTicks = ticks;
+        double previousGap = Double.POSITIVE_INFINITY;
+
+        while (true) {
+            double step;
+            if (gap <= 0) {
+                double hitTicks = previousGap > 0 && previousTicks < ticks
+                    ? refine(trajectory, missileTime, missileTimeStep, launchX, launchY, launchZ, interceptorSpeed, previousTicks, ticks)
+                    : ticks;
+                double t = missileTime + hitTicks * missileTimeStep;
+                double x = trajectory.xAt(t);
+                double y = trajectory.yAt(t);
+                double z = trajectory.zAt(t);
+                double dx = x - launchX;
+                double dy = y - launchY;
+                double dz = z - launchZ;
+                if (dx * dx + dy * dy + dz * dz <= maxDistanceSq) {
+                    return new Solution(hitTicks, x, y, z, t);
+                }
+                // Reachable but outside pursuit range - the missile may still come closer
+                step = 1.0;
+            } else {
+                step = Math.max(MIN_STEP_TICKS, gap / closingSpeed);
+            }
+
+            if (ticks >= horizonTicks) {
+                return null;
+            }
+            previousTicks = ticks;
+            previousGap = gap;
+            ticks = Math.min(horizonTicks, ticks + step);
+            gap = reachGap(trajectory, missileTime, missileTimeStep, launchX, launchY, launchZ, interceptorSpeed, ticks);
+        }
+    }
+
+    private static double speedSquaredAt(Trajectory trajectory, double t) {
+        double vx = trajectory.velocityXAt(t);
+        double vy = trajectory.velocityYAt(t);
+        double vz = trajectory.velocityZAt(t);
+        return vx * vx + vy * vy + vz * vz;
+    }
+
+    /**
+     * Distance from the launch point to the missile after some ticks, minus how far the
+     * interceptor can fly in that time. Non-positive means the interceptor can be there.
+     */
+    private static double reachGap(Trajectory trajectory, double missileTime, double missileTimeStep,
+                                   double launchX, double launchY, double launchZ,
+                                   double interceptorSpeed, double ticks) {
+        double t = missileTime + ticks * missileTimeStep;
+        double dx = trajectory.xAt(t) - launchX;
+        double dy = trajectory.yAt(t) - launchY;
+        double dz = trajectory.zAt(t) - launchZ;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz) - interceptorSpeed * ticks;
+    }
+
+    private static double refine(Trajectory trajectory, double missileTime, double missileTimeStep,
+                                 double launchX, double launchY, double launchZ,
+                                 double interceptorSpeed, double lo, double hi) {
+        for (int i = 0; i < REFINE_ITERATIONS; i++) {
+            double mid = 0.5 * (lo + hi);
+            if (reachGap(trajectory, missileTime, missileTimeStep, launchX, launchY, launchZ, interceptorSpeed, mid) <= 0) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        return hi;
+    }
+}
@@ -0,0 +1,151 @@
+package gg.doomsday.core.flight;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+/**
+ * Handle to a projectile owned by the {@link FlightSimulator}.
+ *
+ * The projectile's state lives in the simulator's arrays; the handle just remembers
+ * which slot it occupies, so reads and writes are plain array accesses. Once the
+ * projectile is removed the handle stays safe to hold but {@link #isAlive()} is false.
+ */
+public final class Projectile {
+
+    public enum Kind {
+        MISSILE,
+        INTERCEPTOR
+    }
+
+    private final FlightSimulator simulator;
+    private final Kind kind;
+    private final World world;
+    private final Entity entity;
+    private Trajectory trajectory;
+    // Slot in the simulator's arrays, or -1 once removed
+    int slot;
+
+    Projectile(FlightSimulator simulator, Kind kind, World world, Entity entity, int slot) {
+        this.simulator = simulator;
+        this.kind = kind;
+        this.world = world;
+        this.entity = entity;
+        this.slot = slot;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Planned flight path, or null for projectiles that steer themselves
+     */
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    public void setTrajectory(Trajectory trajectory) {
+        this.trajectory = trajectory;
+    }
+
+    public boolean isAlive() {
+        return slot >= 0 && !simulator.removed[slot];
+    }
+
+    /**
+     * Stop simulating the projectile and remove its entity
+     */
+    public void remove() {
+        if (isAlive()) {
+            simulator.markRemoved(slot);
+        }
+    }
+
+    public double getX() {
+        return simulator.posX[slot];
+    }
+
+    public double getY() {
+        return simulator.posY[slot];
+    }
+
+    public double getZ() {
+        return simulator.posZ[slot];
+    }
+
+    /**
+     * Position before the most recent move
+     */
+    public double getPreviousX() {
+        return simulator.prevX[slot];
+    }
+
+    public double getPreviousY() {
+        return simulator.prevY[slot];
+    }
+
+    public double getPreviousZ() {
+        return simulator.prevZ[slot];
+    }
+
+    public double getVelocityX() {
+        return simulator.velX[slot];
+    }
+
+    public double getVelocityY() {
+        return simulator.velY[slot];
+    }
+
+    public double getVelocityZ() {
+        return simulator.velZ[slot];
+    }
+
+    /**
+     * Simulated seconds (or ticks, for projectiles launched with a time step of 1) since launch
+     */
+    public double getElapsed() {
+        return simulator.elapsed[slot];
+    }
+
+    public double getTimeStep() {
+        return simulator.timeStep[slot];
+    }
+
+    public int getTicks() {
+        return simulator.ticks[slot];
+    }
+
+    public int getPhase() {
+        return simulator.phase[slot];
+    }
+
+    public void setPhase(int phase) {
+        simulator.phase[slot] = (byte) phase;
+    }
+
+    public void setPosition(double x, double y, double z) {
+        simulator.posX[slot] = x;
+        simulator.posY[slot] = y;
+        simulator.posZ[slot] = z;
+    }
+
+    public void setVelocity(double x, double y, double z) {
+        simulator.velX[slot] = x;
+        simulator.velY[slot] = y;
+        simulator.velZ[slot] = z;
+    }
+
+    public void setAcceleration(double x, double y, double z) {
+        simulator.accX[slot] = x;
+        simulator.accY[slot] = y;
+        simulator.accZ[slot] = z;
+    }
+}
@@ -0,0 +1,366 @@
+package gg.doomsday.core.flight;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed missile flight path: a ballistic arc under constant gravity until
+ * {@code arcTime}, then a straight line at constant speed along the arc's final
+ * direction until {@code duration}.
+ *
+ * Positions come from the closed-form equations, so {@link #xAt(double)} and friends are
+ * O(1). The path is also sampled into a polyline (one point per flight tick) with a
+ * bounding box per segment for coarse spatial queries. Because horizontal velocity never
+ * changes sign along the path, segments are ordered in X and Z, which keeps chunk
+ * lookups to a binary search.
+ *
+ * Immutable and safe to share between the simulator, anti-air and UI code.
+ */
+public final class Trajectory {
+
+    private final World world;
+    private final double startX, startY, startZ;
+    private final double velX, velY, velZ;
+    private final double gravity;
+    private final double arcTime;
+    private final double duration;
+    // Arc end point and straight-line velocity
+    private final double endX, endY, endZ;
+    private final double lineVelX, lineVelY, lineVelZ;
+
+    private final double sampleStep;
+    private final double[] sampleX, sampleY, sampleZ;
+    // Per-segment bounds, segment i runs from sample i to sample i + 1
+    private final double[] segMinY, segMaxY;
+
+    private Trajectory(World world, double startX, double startY, double startZ,
+                       double velX, double velY, double velZ, double gravity,
+                       double arcTime, double straightSpeed, double duration, double sampleStep) {
+        this.world = world;
+        this.startX = startX;
+        this.startY = startY;
+        this.startZ = startZ;
+        this.velX = velX;
+        this.velY = velY;
+        this.velZ = velZ;
+        this.gravity = gravity;
+        this.arcTime = Math.max(0, arcTime);
+        this.duration = Math.max(this.arcTime, duration);
+
+        this.endX = startX + velX * this.arcTime;
+        this.endY = startY + velY * this.arcTime + 0.5 * gravity * this.arcTime * this.arcTime;
+        this.endZ = startZ + velZ * this.arcTime;
+
+        double finalVelY = velY + gravity * this.arcTime;
+        double finalSpeed = Math.sqrt(velX * velX + finalVelY * finalVelY + velZ * velZ);
+        if (finalSpeed < 1e-6) {
+            this.lineVelX = 0;
+            this.lineVelY = -straightSpeed;
+            this.lineVelZ = 0;
+        } else {
+            double scale = straightSpeed / finalSpeed;
+            this.lineVelX = velX * scale;
+            this.lineVelY = finalVelY * scale;
+            this.lineVelZ = velZ * scale;
+        }
+
+        this.sampleStep = Math.max(1e-3, sampleStep);
+        int samples = (int) Math.ceil(this.duration / this.sampleStep) + 1;
+        this.sampleX = new double[samples];
+        this.sampleY = new double[samples];
+        this.sampleZ = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            double t = Math.min(i * this.sampleStep, this.duration);
+            sampleX[i] = xAt(t);
+            sampleY[i] = yAt(t);
+            sampleZ[i] = zAt(t);
+        }
+
+        this.segMinY = new double[Math.max(0, samples - 1)];
+        this.segMaxY = new double[segMinY.length];
+        double apexTime = gravity != 0 ? -velY / gravity : -1;
+        for (int i = 0; i < segMinY.length; i++) {
+            double minY = Math.min(sampleY[i], sampleY[i + 1]);
+            double maxY = Math.max(sampleY[i], sampleY[i + 1]);
+            // The apex can fall between two samples
+            double t0 = i * this.sampleStep;
+            double t1 = Math.min((i + 1) * this.sampleStep, this.duration);
+            if (apexTime > t0 && apexTime < t1 && apexTime <= this.arcTime) {
+                double apexY = yAt(apexTime);
+                minY = Math.min(minY, apexY);
+                maxY = Math.max(maxY, apexY);
+            }
+            segMinY[i] = minY;
+            segMaxY[i] = maxY;
+        }
+    }
+
+    /**
+     * Build the path of a missile launched from a point with an initial velocity
+     *
+     * @param gravity       vertical acceleration during the arc (negative is down)
+     * @param arcTime       time at which the arc ends and the straight line begins
+     * @param straightSpeed speed along the straight-line continuation
+     * @param duration      total time the path covers
+     * @param sampleStep    time between polyline samples, usually one flight tick
+     */
+    public static Trajectory ballistic(World world, double startX, double startY, double startZ,
+                                       double velX, double velY, double velZ, double gravity,
+                                       double arcTime, double straightSpeed, double duration, double sampleStep) {
+        return new Trajectory(world, startX, startY, startZ, velX, velY, velZ, gravity,
+            arcTime, straightSpeed, duration, sampleStep);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public double getArcTime() {
+        return arcTime;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public double getSampleStep() {
+        return sampleStep;
+    }
+
+    public int getSegmentCount() {
+        return segMinY.length;
+    }
+
+    public double xAt(double t) {
+        t = clampTime(t);
+        return t <= arcTime ? startX + velX * t : endX + lineVelX * (t - arcTime);
+    }
+
+    public double yAt(double t) {
+        t = clampTime(t);
+        return t <= arcTime ? startY + velY * t + 0.5 * gravity * t * t : endY + lineVelY * (t - arcTime);
+    }
+
+    public double zAt(double t) {
+        t = clampTime(t);
+        return t <= arcTime ? startZ + velZ * t : endZ + lineVelZ * (t - arcTime);
+    }
+
+    public double velocityXAt(double t) {
+        return clampTime(t) <= arcTime ? velX : lineVelX;
+    }
+
+    public double velocityYAt(double t) {
+        t = clampTime(t);
+        return t <= arcTime ? velY + gravity * t : lineVelY;
+    }
+
+    public double velocityZAt(double t) {
+        return clampTime(t) <= arcTime ? velZ : lineVelZ;
+    }
+
+    public Location positionAt(double t) {
+        return new Location(world, xAt(t), yAt(t), zAt(t));
+    }
+
+    /**
+     * Time at which the path passes closest to a point, solved in closed form
+     */
+    public double timeOfClosestApproach(double px, double py, double pz) {
+        double bestTime = 0;
+        double bestDistance = distanceSquaredAt(0, px, py, pz);
+
+        // Arc: d/dt |p(t) - P|^2 = 0 is a cubic in t
+        if (arcTime > 0) {
+            double ax = startX - px;
+            double ay = startY - py;
+            double az = startZ - pz;
+            double c3 = 0.5 * gravity * gravity;
+            double c2 = 1.5 * gravity * velY;
+            double c1 = velX * velX + velY * velY + velZ * velZ + ay * gravity;
+            double c0 = ax * velX + ay * velY + az * velZ;
+
+            double[] roots = new double[3];
+            int rootCount = solveCubic(c3, c2, c1, c0, roots);
+            for (int i = 0; i <= rootCount; i++) {
+                double t = i < rootCount ? roots[i] : arcTime;
+                if (t < 0 || t > arcTime) {
+                    continue;
+                }
+                double distance = distanceSquaredAt(t, px, py, pz);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestTime = t;
+                }
+            }
+        }
+
+        // Straight line: project the point onto the segment
+        double lineTime = duration - arcTime;
+        double lineSpeedSq = lineVelX * lineVelX + lineVelY * lineVelY + lineVelZ * lineVelZ;
+        if (lineTime > 0 && lineSpeedSq > 0) {
+            double u = -((endX - px) * lineVelX + (endY - py) * lineVelY + (endZ - pz) * lineVelZ) / lineSpeedSq;
+            double t = arcTime + Math.max(0, Math.min(lineTime, u));
+            double distance = distanceSquaredAt(t, px, py, pz);
+            if (distance < bestDistance) {
+                bestTime = t;
+            }
+        }
+        return bestTime;
+    }
+
+    public double distanceSquaredAt(double t, double px, double py, double pz) {
+        double dx = xAt(t) - px;
+        double dy = yAt(t) - py;
+        double dz = zAt(t) - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Indices of the polyline segments whose bounds overlap a chunk column
+     */
+    public int[] segmentsIntersectingChunk(int chunkX, int chunkZ) {
+        int segments = segMinY.length;
+        if (segments == 0) {
+            return new int[0];
+        }
+
+        double minX = chunkX << 4;
+        double maxX = minX + 16;
+        double minZ = chunkZ << 4;
+        double maxZ = minZ + 16;
+
+        // X is monotonic along the path, so the overlapping segments form one run
+        int first = firstSegmentReaching(sampleX, minX, maxX, segments);
+        if (first < 0) {
+            return new int[0];
+        }
+
+        int[] found = new int[8];
+        int count = 0;
+        for (int i = first; i < segments; i++) {
+            double segMinX = Math.min(sampleX[i], sampleX[i + 1]);
+            double segMaxX = Math.max(sampleX[i], sampleX[i + 1]);
+            if (segMinX >= maxX || segMaxX < minX) {
+                break;
+            }
+            double segMinZ = Math.min(sampleZ[i], sampleZ[i + 1]);
+            double segMaxZ = Math.max(sampleZ[i], sampleZ[i + 1]);
+            if (segMinZ >= maxZ || segMaxZ < minZ) {
+                continue;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = i;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public double getSegmentMinY(int segment) {
+        return segMinY[segment];
+    }
+
+    public double getSegmentMaxY(int segment) {
+        return segMaxY[segment];
+    }
+
+    public double getSampleX(int index) {
+        return sampleX[index];
+    }
+
+    public double getSampleY(int index) {
+        return sampleY[index];
+    }
+
+    public double getSampleZ(int index) {
+        return sampleZ[index];
+    }
+
+    private double clampTime(double t) {
+        return t < 0 ? 0 : (t > duration ? duration : t);
+    }
+
+    /**
+     * Binary search for the first segment whose X range reaches [minX, maxX)
+     */
+    private static int firstSegmentReaching(double[] xs, double minX, double maxX, int segments) {
+        boolean increasing = xs[segments] >= xs[0];
+        int lo = 0;
+        int hi = segments - 1;
+        int result = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            double segMin = Math.min(xs[mid], xs[mid + 1]);
+            double segMax = Math.max(xs[mid], xs[mid + 1]);
+            boolean before = increasing ? segMax < minX : segMin >= maxX;
+            if (before) {
+                lo = mid + 1;
+            } else {
+                result = mid;
+                hi = mid - 1;
+            }
+        }
+        if (result < 0) {
+            return -1;
+        }
+        double segMin = Math.min(xs[result], xs[result + 1]);
+        double segMax = Math.max(xs[result], xs[result + 1]);
+        return segMin < maxX && segMax >= minX ? result : -1;
+    }
+
+    /**
+     * Real roots of a*t^3 + b*t^2 + c*t + d, degrading to lower orders when leading
+     * coefficients vanish
+     *
+     * @return the number of roots written to {@code roots}
+     */
+    static int solveCubic(double a, double b, double c, double d, double[] roots) {
+        if (Math.abs(a) < 1e-12) {
+            if (Math.abs(b) < 1e-12) {
+                if (Math.abs(c) < 1e-12) {
+                    return 0;
+                }
+                roots[0] = -d / c;
+                return 1;
+            }
+            double disc = c * c - 4 * b * d;
+            if (disc < 0) {
+                return 0;
+            }
+            double sq = Math.sqrt(disc);
+            roots[0] = (-c + sq) / (2 * b);
+            roots[1] = (-c - sq) / (2 * b);
+            return 2;
+        }
+
+        // Depressed cubic t = u - b/3a: u^3 + p*u + q = 0
+        double bn = b / a;
+        double cn = c / a;
+        double dn = d / a;
+        double shift = bn / 3.0;
+        double p = cn - bn * bn / 3.0;
+        double q = 2.0 * bn * bn * bn / 27.0 - bn * cn / 3.0 + dn;
+        double disc = q * q / 4.0 + p * p * p / 27.0;
+
+        if (disc > 1e-12) {
+            double sq = Math.sqrt(disc);
+            roots[0] = Math.cbrt(-q / 2.0 + sq) + Math.cbrt(-q / 2.0 - sq) - shift;
+            return 1;
+        }
+        if (disc > -1e-12) {
+            double u = Math.cbrt(-q / 2.0);
+            roots[0] = 2 * u - shift;
+            roots[1] = -u - shift;
+            return 2;
+        }
+        double r = Math.sqrt(-p / 3.0);
+        double phi = Math.acos(Math.max(-1.0, Math.min(1.0, -q / (2.0 * r * r * r))));
+        roots[0] = 2 * r * Math.cos(phi / 3.0) - shift;
+        roots[1] = 2 * r * Math.cos((phi + 2 * Math.PI) / 3.0) - shift;
+        roots[2] = 2 * r * Math.cos((phi + 4 * Math.PI) / 3.0) - shift;
+        return 3;
+    }
+}
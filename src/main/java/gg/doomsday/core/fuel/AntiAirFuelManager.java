@@ -1,14 +1,10 @@
 package gg.doomsday.core.fuel;
 
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.data.DirtyTrackingStore;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages anti-air defense fuel storage and consumption
@@ -18,60 +14,40 @@ import java.util.concurrent.ConcurrentHashMap;
 public class AntiAirFuelManager {
     
     private final JavaPlugin plugin;
-    private final Map<String, Integer> antiAirFuel; // defense key -> fuel amount
-    private File fuelDataFile;
-    private FileConfiguration fuelConfig;
+    private final DirtyTrackingStore<Integer> antiAirFuel; // defense key -> fuel amount
+    private final FuelLedger ledger;
     
     public AntiAirFuelManager(JavaPlugin plugin) {
         this.plugin = plugin;
-        this.antiAirFuel = new ConcurrentHashMap<>();
-        setupFuelDataFile();
+        long flushIntervalMillis = ((DoomsdayCore) plugin).getConfigManager().getMainConfig()
+            .getLong("storage.flushIntervalSeconds", 5) * 1000L;
+        this.antiAirFuel = new DirtyTrackingStore<>(plugin, "antiair_fuel.yml", flushIntervalMillis,
+            (section, key) -> section.getInt(key, 0));
+        // Cap fuel at reasonable maximum (1000 units)
+        this.ledger = new FuelLedger(antiAirFuel, 1000);
         loadFuelData();
     }
     
     /**
-     * Setup the fuel data file
+     * Load fuel data from file
      */
-    private void setupFuelDataFile() {
-        fuelDataFile = new File(plugin.getDataFolder(), "antiair_fuel.yml");
-        if (!fuelDataFile.exists()) {
-            try {
-                fuelDataFile.createNewFile();
-                plugin.getLogger().info("Created antiair_fuel.yml file");
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create antiair_fuel.yml file: " + e.getMessage());
-            }
-        }
-        fuelConfig = YamlConfiguration.loadConfiguration(fuelDataFile);
+    public void loadFuelData() {
+        int loaded = antiAirFuel.load();
+        plugin.getLogger().info("Loaded fuel data for " + loaded + " anti-air defenses");
     }
     
     /**
-     * Load fuel data from file
+     * Write pending fuel changes without waiting for the next background flush
      */
-    public void loadFuelData() {
-        antiAirFuel.clear();
-        
-        for (String key : fuelConfig.getKeys(false)) {
-            int fuel = fuelConfig.getInt(key, 0);
-            antiAirFuel.put(key, fuel);
-        }
-        
-        plugin.getLogger().info("Loaded fuel data for " + antiAirFuel.size() + " anti-air defenses");
+    public void saveFuelData() {
+        antiAirFuel.flush();
     }
     
     /**
-     * Save fuel data to file
+     * Write pending fuel changes and stop the background writer
      */
-    public void saveFuelData() {
-        for (Map.Entry<String, Integer> entry : antiAirFuel.entrySet()) {
-            fuelConfig.set(entry.getKey(), entry.getValue());
-        }
-        
-        try {
-            fuelConfig.save(fuelDataFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save anti-air fuel data: " + e.getMessage());
-        }
+    public void shutdown() {
+        antiAirFuel.shutdown();
     }
     
     /**
@@ -85,14 +61,7 @@ public class AntiAirFuelManager {
             return false;
         }
         
-        int currentFuel = antiAirFuel.getOrDefault(defenseKey, 0);
-        int newFuel = currentFuel + fuelAmount;
-        
-        // Cap fuel at reasonable maximum (1000 units)
-        newFuel = Math.min(newFuel, 1000);
-        
-        antiAirFuel.put(defenseKey, newFuel);
-        saveFuelData();
+        int newFuel = ledger.add(defenseKey, fuelAmount);
         
         plugin.getLogger().info("Added " + fuelAmount + " fuel to anti-air " + defenseKey + 
                                " (total: " + newFuel + ")");
@@ -111,15 +80,10 @@ public class AntiAirFuelManager {
             return true; // No fuel needed
         }
         
-        int currentFuel = antiAirFuel.getOrDefault(defenseKey, 0);
-        
-        if (currentFuel < fuelAmount) {
+        if (!ledger.consume(defenseKey, fuelAmount)) {
             return false; // Not enough fuel
         }
-        
-        int newFuel = currentFuel - fuelAmount;
-        antiAirFuel.put(defenseKey, newFuel);
-        saveFuelData();
+        int newFuel = ledger.getBalance(defenseKey);
         
         plugin.getLogger().info("Consumed " + fuelAmount + " fuel from anti-air " + defenseKey + 
                                " (remaining: " + newFuel + ")");
@@ -133,7 +97,27 @@ public class AntiAirFuelManager {
      * @return Current fuel amount
      */
     public int getFuel(String defenseKey) {
-        return antiAirFuel.getOrDefault(defenseKey, 0);
+        return ledger.getBalance(defenseKey);
+    }
+    
+    /**
+     * Get fuel that is not held by a pending reservation
+     * @param defenseKey The anti-air key
+     * @return Fuel available to reserve or consume
+     */
+    public int getAvailableFuel(String defenseKey) {
+        return ledger.getAvailable(defenseKey);
+    }
+    
+    /**
+     * Hold fuel for a use that happens later, e.g. after a launch countdown.
+     * Commit the reservation when the fuel is spent or release it if the use is abandoned.
+     * @param defenseKey The anti-air key
+     * @param fuelAmount Amount of fuel to hold
+     * @return The reservation, or null if not enough fuel is available
+     */
+    public FuelLedger.Reservation reserveFuel(String defenseKey, int fuelAmount) {
+        return ledger.reserve(defenseKey, Math.max(0, fuelAmount));
     }
     
     /**
@@ -143,8 +127,7 @@ public class AntiAirFuelManager {
      * @return true if defense has enough fuel
      */
     public boolean hasSufficientFuel(String defenseKey, int requiredFuel) {
-        int currentFuel = antiAirFuel.getOrDefault(defenseKey, 0);
-        return currentFuel >= requiredFuel;
+        return ledger.getAvailable(defenseKey) >= requiredFuel;
     }
     
     /**
@@ -175,7 +158,7 @@ public class AntiAirFuelManager {
      * @return Map of defense keys to fuel amounts
      */
     public Map<String, Integer> getAllFuelData() {
-        return new HashMap<>(antiAirFuel);
+        return antiAirFuel.snapshot();
     }
     
     /**
@@ -183,8 +166,7 @@ public class AntiAirFuelManager {
      * @param defenseKey The defense system key
      */
     public void resetFuel(String defenseKey) {
-        antiAirFuel.put(defenseKey, 0);
-        saveFuelData();
+        ledger.reset(defenseKey);
         plugin.getLogger().info("Reset fuel for anti-air " + defenseKey);
     }
     
@@ -192,8 +174,7 @@ public class AntiAirFuelManager {
      * Reset all fuel data (admin command)
      */
     public void resetAllFuel() {
-        antiAirFuel.clear();
-        saveFuelData();
+        ledger.resetAll();
         plugin.getLogger().info("Reset all anti-air fuel data");
     }
     
@@ -0,0 +1,180 @@
+package gg.doomsday.core.fuel;
+
+import gg.doomsday.core.data.DirtyTrackingStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Atomic fuel accounting for a set of tanks.
+ *
+ * Every change to a tank runs inside {@link DirtyTrackingStore#compute}, which serialises
+ * updates per key, so check-then-act sequences such as "enough fuel? then take it" cannot
+ * interleave. Fuel needed later (after a launch countdown, say) is held with
+ * {@link #reserve}: it stays in the tank but no longer counts as available until the
+ * reservation is committed or released. Reservations are not persisted; after a restart
+ * the fuel is simply available again.
+ *
+ * Safe to use from any thread.
+ */
+public class FuelLedger {
+
+    /**
+     * Fuel held for a pending use. Settles exactly once; later calls do nothing.
+     */
+    public final class Reservation {
+        private final String key;
+        private final int amount;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(String key, int amount) {
+            this.key = key;
+            this.amount = amount;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        /**
+         * Take the reserved fuel out of the tank
+         *
+         * @return false if the reservation was already settled
+         */
+        public boolean commit() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            if (amount > 0) {
+                tanks.compute(key, (k, balance) -> {
+                    unreserve(k, amount);
+                    return Math.max(0, (balance != null ? balance : 0) - amount);
+                });
+            }
+            return true;
+        }
+
+        /**
+         * Give the reserved fuel back without using it
+         *
+         * @return false if the reservation was already settled
+         */
+        public boolean release() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            if (amount > 0) {
+                tanks.compute(key, (k, balance) -> {
+                    unreserve(k, amount);
+                    return balance;
+                });
+            }
+            return true;
+        }
+    }
+
+    private final DirtyTrackingStore<Integer> tanks;
+    private final int capacity;
+    // Only changed from inside tanks.compute for the same key
+    private final Map<String, Integer> reserved = new ConcurrentHashMap<>();
+
+    public FuelLedger(DirtyTrackingStore<Integer> tanks, int capacity) {
+        this.tanks = tanks;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Fuel in the tank, including any that is reserved
+     */
+    public int getBalance(String key) {
+        return tanks.getOrDefault(key, 0);
+    }
+
+    public int getReserved(String key) {
+        return reserved.getOrDefault(key, 0);
+    }
+
+    /**
+     * Fuel that can still be reserved or consumed
+     */
+    public int getAvailable(String key) {
+        int[] available = new int[1];
+        tanks.compute(key, (k, balance) -> {
+            available[0] = (balance != null ? balance : 0) - reserved.getOrDefault(k, 0);
+            return balance;
+        });
+        return Math.max(0, available[0]);
+    }
+
+    /**
+     * Add fuel, capped at the tank capacity
+     *
+     * @return the new balance
+     */
+    public int add(String key, int amount) {
+        return tanks.compute(key, (k, balance) -> Math.min(capacity, (balance != null ? balance : 0) + amount));
+    }
+
+    /**
+     * Take fuel immediately if enough is available
+     */
+    public boolean consume(String key, int amount) {
+        boolean[] consumed = new boolean[1];
+        tanks.compute(key, (k, balance) -> {
+            int current = balance != null ? balance : 0;
+            if (current - reserved.getOrDefault(k, 0) < amount) {
+                return balance;
+            }
+            consumed[0] = true;
+            return current - amount;
+        });
+        return consumed[0];
+    }
+
+    /**
+     * Hold fuel for later use. Holding no fuel always succeeds and never touches the tank.
+     *
+     * @return the reservation, or null if not enough fuel is available
+     */
+    public Reservation reserve(String key, int amount) {
+        if (amount <= 0) {
+            return new Reservation(key, 0);
+        }
+        boolean[] reservedOk = new boolean[1];
+        tanks.compute(key, (k, balance) -> {
+            int current = balance != null ? balance : 0;
+            int held = reserved.getOrDefault(k, 0);
+            if (current - held >= amount) {
+                reserved.put(k, held + amount);
+                reservedOk[0] = true;
+            }
+            return balance;
+        });
+        return reservedOk[0] ? new Reservation(key, amount) : null;
+    }
+
+    /**
+     * Empty a tank. Outstanding reservations stay valid but commit against an empty tank.
+     */
+    public void reset(String key) {
+        tanks.put(key, 0);
+    }
+
+    public void resetAll() {
+        tanks.clear();
+    }
+
+    private void unreserve(String key, int amount) {
+        int remaining = reserved.getOrDefault(key, 0) - amount;
+        if (remaining > 0) {
+            reserved.put(key, remaining);
+        } else {
+            reserved.remove(key);
+        }
+    }
+}
@@ -1,14 +1,10 @@
 package gg.doomsday.core.fuel;
 
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.data.DirtyTrackingStore;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages missile fuel storage and consumption
@@ -17,60 +13,40 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MissileFuelManager {
     
     private final JavaPlugin plugin;
-    private final Map<String, Integer> missileFuel; // missile key -> fuel amount
-    private File fuelDataFile;
-    private FileConfiguration fuelConfig;
+    private final DirtyTrackingStore<Integer> missileFuel; // missile key -> fuel amount
+    private final FuelLedger ledger;
     
     public MissileFuelManager(JavaPlugin plugin) {
         this.plugin = plugin;
-        this.missileFuel = new ConcurrentHashMap<>();
-        setupFuelDataFile();
+        long flushIntervalMillis = ((DoomsdayCore) plugin).getConfigManager().getMainConfig()
+            .getLong("storage.flushIntervalSeconds", 5) * 1000L;
+        this.missileFuel = new DirtyTrackingStore<>(plugin, "missile_fuel.yml", flushIntervalMillis,
+            (section, key) -> section.getInt(key, 0));
+        // Cap fuel at reasonable maximum (1000 units)
+        this.ledger = new FuelLedger(missileFuel, 1000);
         loadFuelData();
     }
     
     /**
-     * Setup the fuel data file
+     * Load fuel data from file
      */
-    private void setupFuelDataFile() {
-        fuelDataFile = new File(plugin.getDataFolder(), "missile_fuel.yml");
-        if (!fuelDataFile.exists()) {
-            try {
-                fuelDataFile.createNewFile();
-                plugin.getLogger().info("Created missile_fuel.yml file");
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create missile_fuel.yml file: " + e.getMessage());
-            }
-        }
-        fuelConfig = YamlConfiguration.loadConfiguration(fuelDataFile);
+    public void loadFuelData() {
+        int loaded = missileFuel.load();
+        plugin.getLogger().info("Loaded fuel data for " + loaded + " missiles");
     }
     
     /**
-     * Load fuel data from file
+     * Write pending fuel changes without waiting for the next background flush
      */
-    public void loadFuelData() {
-        missileFuel.clear();
-        
-        for (String key : fuelConfig.getKeys(false)) {
-            int fuel = fuelConfig.getInt(key, 0);
-            missileFuel.put(key, fuel);
-        }
-        
-        plugin.getLogger().info("Loaded fuel data for " + missileFuel.size() + " missiles");
+    public void saveFuelData() {
+        missileFuel.flush();
     }
     
     /**
-     * Save fuel data to file
+     * Write pending fuel changes and stop the background writer
      */
-    public void saveFuelData() {
-        for (Map.Entry<String, Integer> entry : missileFuel.entrySet()) {
-            fuelConfig.set(entry.getKey(), entry.getValue());
-        }
-        
-        try {
-            fuelConfig.save(fuelDataFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save missile fuel data: " + e.getMessage());
-        }
+    public void shutdown() {
+        missileFuel.shutdown();
     }
     
     /**
@@ -84,14 +60,7 @@ public class MissileFuelManager {
             return false;
         }
         
-        int currentFuel = missileFuel.getOrDefault(missileKey, 0);
-        int newFuel = currentFuel + fuelAmount;
-        
-        // Cap fuel at reasonable maximum (1000 units)
-        newFuel = Math.min(newFuel, 1000);
-        
-        missileFuel.put(missileKey, newFuel);
-        saveFuelData();
+        int newFuel = ledger.add(missileKey, fuelAmount);
         
         plugin.getLogger().info("Added " + fuelAmount + " fuel to missile " + missileKey + 
                                " (total: " + newFuel + ")");
@@ -110,15 +79,10 @@ public class MissileFuelManager {
             return true; // No fuel needed
         }
         
-        int currentFuel = missileFuel.getOrDefault(missileKey, 0);
-        
-        if (currentFuel < fuelAmount) {
+        if (!ledger.consume(missileKey, fuelAmount)) {
             return false; // Not enough fuel
         }
-        
-        int newFuel = currentFuel - fuelAmount;
-        missileFuel.put(missileKey, newFuel);
-        saveFuelData();
+        int newFuel = ledger.getBalance(missileKey);
         
         plugin.getLogger().info("Consumed " + fuelAmount + " fuel from missile " + missileKey + 
                                " (remaining: " + newFuel + ")");
@@ -132,7 +96,27 @@ public class MissileFuelManager {
      * @return Current fuel amount
      */
     public int getFuel(String missileKey) {
-        return missileFuel.getOrDefault(missileKey, 0);
+        return ledger.getBalance(missileKey);
+    }
+    
+    /**
+     * Get fuel that is not held by a pending reservation
+     * @param missileKey The missile key
+     * @return Fuel available to reserve or consume
+     */
+    public int getAvailableFuel(String missileKey) {
+        return ledger.getAvailable(missileKey);
+    }
+    
+    /**
+     * Hold fuel for a use that happens later, e.g. after a launch countdown.
+     * Commit the reservation when the fuel is spent or release it if the use is abandoned.
+     * @param missileKey The missile key
+     * @param fuelAmount Amount of fuel to hold
+     * @return The reservation, or null if not enough fuel is available
+     */
+    public FuelLedger.Reservation reserveFuel(String missileKey, int fuelAmount) {
+        return ledger.reserve(missileKey, Math.max(0, fuelAmount));
     }
     
     /**
@@ -142,8 +126,7 @@ public class MissileFuelManager {
      * @return true if missile has enough fuel
      */
     public boolean hasSufficientFuel(String missileKey, int requiredFuel) {
-        int currentFuel = missileFuel.getOrDefault(missileKey, 0);
-        return currentFuel >= requiredFuel;
+        return ledger.getAvailable(missileKey) >= requiredFuel;
     }
     
     /**
@@ -151,7 +134,7 @@ public class MissileFuelManager {
      * @return Map of missile keys to fuel amounts
      */
     public Map<String, Integer> getAllFuelData() {
-        return new HashMap<>(missileFuel);
+        return missileFuel.snapshot();
     }
     
     /**
@@ -159,8 +142,7 @@ public class MissileFuelManager {
      * @param missileKey The missile configuration key
      */
     public void resetFuel(String missileKey) {
-        missileFuel.put(missileKey, 0);
-        saveFuelData();
+        ledger.reset(missileKey);
         plugin.getLogger().info("Reset fuel for missile " + missileKey);
     }
     
@@ -168,8 +150,7 @@ public class MissileFuelManager {
      * Reset all fuel data (admin command)
      */
     public void resetAllFuel() {
-        missileFuel.clear();
-        saveFuelData();
+        ledger.resetAll();
         plugin.getLogger().info("Reset all missile fuel data");
     }
 }
\ No newline at end of file
@@ -1,23 +1,44 @@
 package gg.doomsday.core.items;
 
+import gg.doomsday.core.defense.ReinforcedBlockIndex;
 import gg.doomsday.core.defense.ReinforcedBlockManager;
+import gg.doomsday.core.utils.CoordinateUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 public class ReinforcementDetectorManager {
     
+    private static final int DETECTOR_RANGE = 16;
+    
+    // Define the 6 faces: top, bottom, north, south, east, west
+    private static final double[][] FACE_OFFSETS = {
+        {0.0, 0.5, 0.0},   // Top face
+        {0.0, -0.5, 0.0},  // Bottom face
+        {0.0, 0.0, -0.5},  // North face
+        {0.0, 0.0, 0.5},   // South face
+        {0.5, 0.0, 0.0},   // East face
+        {-0.5, 0.0, 0.0}   // West face
+    };
+    
     private final JavaPlugin plugin;
     private final ReinforcedBlockManager reinforcedBlockManager;
     private final CustomItemManager customItemManager;
     private final Set<Player> activeDetectors = new HashSet<>();
+    // Cached visible blocks per wearer, refreshed only when they change block or the index changes
+    private final Map<UUID, DetectorView> detectorViews = new HashMap<>();
     private BukkitRunnable detectorTask;
     
     public ReinforcementDetectorManager(JavaPlugin plugin, ReinforcedBlockManager reinforcedBlockManager, CustomItemManager customItemManager) {
@@ -49,6 +70,15 @@ public class ReinforcementDetectorManager {
                 showReinforcedBlocks(player, pulsePhase);
             }
         }
+        
+        // Drop cached views for players who took the helmet off or logged out
+        if (detectorViews.size() > activeDetectors.size()) {
+            Set<UUID> activeIds = new HashSet<>();
+            for (Player player : activeDetectors) {
+                activeIds.add(player.getUniqueId());
+            }
+            detectorViews.keySet().retainAll(activeIds);
+        }
     }
     
     private boolean isWearingDetectorHelmet(Player player) {
@@ -57,55 +87,59 @@ public class ReinforcementDetectorManager {
     }
     
     private void showReinforcedBlocks(Player player, int pulsePhase) {
-        Location playerLocation = player.getLocation();
-        int range = 16;
+        DetectorView view = detectorViews.computeIfAbsent(player.getUniqueId(), k -> new DetectorView());
+        refreshViewIfNeeded(view, player.getLocation());
         
-        for (String blockKey : reinforcedBlockManager.getAllReinforcedBlocks()) {
-            Location blockLocation = reinforcedBlockManager.getLocationFromKey(blockKey);
-            
-            if (blockLocation == null || !blockLocation.getWorld().equals(playerLocation.getWorld())) {
-                continue;
-            }
-            
-            // Check if block is within range
-            if (blockLocation.distance(playerLocation) <= range) {
-                // Check if the block still exists and is still reinforced
-                if (reinforcedBlockManager.isReinforced(blockLocation)) {
-                    createPulsingCornerEffect(player, blockLocation, pulsePhase);
-                }
-            }
+        for (int i = 0; i < view.visibleCount; i++) {
+            long blockKey = view.visibleBlocks[i];
+            createPulsingCornerEffect(player,
+                CoordinateUtils.unpackBlockX(blockKey),
+                CoordinateUtils.unpackBlockY(blockKey),
+                CoordinateUtils.unpackBlockZ(blockKey),
+                pulsePhase);
+        }
+    }
+    
+    private void refreshViewIfNeeded(DetectorView view, Location playerLocation) {
+        World world = playerLocation.getWorld();
+        int blockX = playerLocation.getBlockX();
+        int blockY = playerLocation.getBlockY();
+        int blockZ = playerLocation.getBlockZ();
+        ReinforcedBlockIndex index = reinforcedBlockManager.getIndex(world);
+        long modCount = index != null ? index.getModCount() : -1;
+        
+        if (world.getName().equals(view.worldName) && blockX == view.blockX && blockY == view.blockY
+                && blockZ == view.blockZ && index == view.index && modCount == view.modCount) {
+            return;
         }
+        
+        view.worldName = world.getName();
+        view.blockX = blockX;
+        view.blockY = blockY;
+        view.blockZ = blockZ;
+        view.index = index;
+        view.modCount = modCount;
+        view.visibleCount = 0;
+        reinforcedBlockManager.queryRadius(world, blockX, blockY, blockZ, DETECTOR_RANGE, view::add);
     }
     
-    private void createPulsingCornerEffect(Player player, Location blockLocation, int pulsePhase) {
+    private void createPulsingCornerEffect(Player player, int blockX, int blockY, int blockZ, int pulsePhase) {
         // Create pulsing particles on the 6 flat faces of the block
         // Each face shows 1 particle at the center of that face
         
-        Location blockCenter = blockLocation.clone().add(0.5, 0.5, 0.5);
-        
-        // Define the 6 faces: top, bottom, north, south, east, west
-        double[][] faceOffsets = {
-            {0.0, 0.5, 0.0},   // Top face
-            {0.0, -0.5, 0.0},  // Bottom face
-            {0.0, 0.0, -0.5},  // North face
-            {0.0, 0.0, 0.5},   // South face
-            {0.5, 0.0, 0.0},   // East face
-            {-0.5, 0.0, 0.0}   // West face
-        };
+        double centerX = blockX + 0.5;
+        double centerY = blockY + 0.5;
+        double centerZ = blockZ + 0.5;
         
         // Show different faces based on pulse phase for pulsing effect
-        for (int i = 0; i < faceOffsets.length; i++) {
+        for (int i = 0; i < FACE_OFFSETS.length; i++) {
             // Show 3 faces, then the other 3 faces, creating pulsing effect
             if ((i + pulsePhase) % 2 == 0) {
-                Location faceLocation = blockCenter.clone().add(
-                    faceOffsets[i][0], 
-                    faceOffsets[i][1], 
-                    faceOffsets[i][2]
-                );
-                
                 player.spawnParticle(
                     Particle.BUBBLE_POP,
-                    faceLocation,
+                    centerX + FACE_OFFSETS[i][0],
+                    centerY + FACE_OFFSETS[i][1],
+                    centerZ + FACE_OFFSETS[i][2],
                     3,
                     0.1, 0.1, 0.1,
                     0.0,
@@ -120,6 +154,7 @@ public class ReinforcementDetectorManager {
             detectorTask.cancel();
         }
         activeDetectors.clear();
+        detectorViews.clear();
     }
     
     public boolean isPlayerUsingDetector(Player player) {
@@ -135,4 +170,26 @@ public class ReinforcementDetectorManager {
         helmet.setAmount(amount);
         return helmet;
     }
+    
+    /**
+     * Reinforced blocks visible to one helmet wearer, stored as packed block keys
+     */
+    private static final class DetectorView {
+        private String worldName;
+        private int blockX;
+        private int blockY;
+        private int blockZ;
+        // A replaced index restarts its count, so the count alone can match a stale view
+        private ReinforcedBlockIndex index;
+        private long modCount;
+        private long[] visibleBlocks = new long[32];
+        private int visibleCount;
+        
+        private void add(int x, int y, int z, long reinforcedAt) {
+            if (visibleCount == visibleBlocks.length) {
+                visibleBlocks = Arrays.copyOf(visibleBlocks, visibleCount * 2);
+            }
+            visibleBlocks[visibleCount++] = CoordinateUtils.packBlockKey(x, y, z);
+        }
+    }
 }
\ No newline at end of file
@@ -4,14 +4,11 @@ import gg.doomsday.core.DoomsdayCore;
 import gg.doomsday.core.config.ConfigManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import gg.doomsday.core.nations.Nation;
 import gg.doomsday.core.nations.NationPlayerManager;
 
-import java.util.UUID;
-
 /**
  * Centralized messaging system for configurable notifications
  * Handles global vs nation-specific messaging for missiles, anti-air, and disasters
@@ -62,12 +59,7 @@ public class MessagingManager {
             Bukkit.broadcastMessage(message);
         } else if (launchingNation != null) {
             // Send only to players in the launching nation using cached data
-            for (UUID playerId : nationPlayerManager.getOnlinePlayersInNation(launchingNation.getId())) {
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    player.sendMessage(message);
-                }
-            }
+            nationPlayerManager.forEachOnlineInNation(launchingNation.getId(), player -> player.sendMessage(message));
         }
         // Note: If launchingNation is null and global=false, no message is sent
     }
@@ -86,12 +78,7 @@ public class MessagingManager {
             // Send only to players in the nation that owns this anti-air defense using cached data
             Nation owningNation = getAntiAirOwningNation(defenseName);
             if (owningNation != null) {
-                for (UUID playerId : nationPlayerManager.getOnlinePlayersInNation(owningNation.getId())) {
-                    Player player = Bukkit.getPlayer(playerId);
-                    if (player != null && player.isOnline()) {
-                        player.sendMessage(message);
-                    }
-                }
+                nationPlayerManager.forEachOnlineInNation(owningNation.getId(), player -> player.sendMessage(message));
             }
             // Note: If owningNation is null and global=false, no message is sent
         }
@@ -139,12 +126,7 @@ public class MessagingManager {
             Bukkit.broadcastMessage(message);
         } else if (affectedNation != null) {
             // Send only to players in the affected nation using cached data
-            for (UUID playerId : nationPlayerManager.getOnlinePlayersInNation(affectedNation.getId())) {
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    player.sendMessage(message);
-                }
-            }
+            nationPlayerManager.forEachOnlineInNation(affectedNation.getId(), player -> player.sendMessage(message));
         }
         // Note: If affectedNation is null and global=false, no message is sent
     }
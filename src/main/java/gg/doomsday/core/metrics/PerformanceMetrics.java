@@ -0,0 +1,173 @@
+package gg.doomsday.core.metrics;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the explosion, rocket and anti-air hot paths.
+ *
+ * Hot paths bump a counter instead of logging a line per block or per tick. When debug
+ * logging is on, {@link #debug(String, String)} still lets them log, but each kind of
+ * message is written at most once per interval with a count of the lines it swallowed.
+ */
+public class PerformanceMetrics {
+
+    public enum Counter {
+        EXPLOSION_EVENTS("Explosion events"),
+        EXPLOSION_BLOCKS("Blocks submitted"),
+        BLOCKS_PROTECTED("Blocks skipped (protected)"),
+        BLOCKS_SAVED("Blocks saved by resistance"),
+        BLOCKS_DESTROYED("Blocks destroyed"),
+        REINFORCED_DESTROYED("Reinforced blocks destroyed"),
+        ROCKET_TICKS("Rocket flight ticks"),
+        RAYCAST_STEPS("Raycast steps"),
+        ROCKET_COLLISIONS("Rocket collisions"),
+        INTERCEPT_CHECKS("Intercept checks"),
+        INTERCEPT_ENGAGEMENTS("Intercepts launched");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public enum Timer {
+        EXPLOSION_RESOLVE("Explosion resolve pass"),
+        BLOCK_REMOVAL("Block removal tick"),
+        FLIGHT_TICK("Flight simulation tick"),
+        ROCKET_RAYCAST("Rocket raycast"),
+        INTERCEPT_CHECK("Intercept check");
+
+        private final String label;
+
+        Timer(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final LatencyHistogram[] timers = new LatencyHistogram[Timer.values().length];
+    private final Map<String, RateLimit> debugLimits = new ConcurrentHashMap<>();
+    private volatile boolean debugLogging;
+    private volatile long debugIntervalMs;
+    private volatile long resetAt = System.currentTimeMillis();
+
+    public PerformanceMetrics(JavaPlugin plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new LatencyHistogram();
+        }
+        loadConfig(((gg.doomsday.core.DoomsdayCore) plugin).getConfigManager().getMainConfig());
+    }
+
+    public void loadConfig(FileConfiguration config) {
+        debugLogging = config.getBoolean("metrics.debugLogging", config.getBoolean("global.debug", false));
+        debugIntervalMs = Math.max(0L, config.getLong("metrics.debugLogIntervalMs", 1000L));
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public void add(Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    public long get(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Record a duration in nanoseconds, usually {@code System.nanoTime() - start}
+     */
+    public void record(Timer timer, long nanos) {
+        timers[timer.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram getHistogram(Timer timer) {
+        return timers[timer.ordinal()];
+    }
+
+    public boolean isDebugLogging() {
+        return debugLogging;
+    }
+
+    public void setDebugLogging(boolean debugLogging) {
+        this.debugLogging = debugLogging;
+    }
+
+    /**
+     * Log a debug line, rate-limited per key. Callers building expensive messages
+     * should check {@link #isDebugLogging()} first.
+     */
+    public void debug(String key, String message) {
+        if (!debugLogging) {
+            return;
+        }
+
+        RateLimit limit = debugLimits.computeIfAbsent(key, k -> new RateLimit());
+        long now = System.currentTimeMillis();
+        long last = limit.lastLogged.get();
+        if (now - last < debugIntervalMs || !limit.lastLogged.compareAndSet(last, now)) {
+            limit.suppressed.increment();
+            return;
+        }
+
+        long suppressed = limit.suppressed.sumThenReset();
+        plugin.getLogger().info("[debug] " + message + (suppressed > 0 ? " (+" + suppressed + " similar suppressed)" : ""));
+    }
+
+    /**
+     * Milliseconds since the metrics were created or last reset
+     */
+    public long getElapsedMillis() {
+        return System.currentTimeMillis() - resetAt;
+    }
+
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        for (LatencyHistogram timer : timers) {
+            timer.reset();
+        }
+        debugLimits.clear();
+        resetAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Format a nanosecond duration for display
+     */
+    public static String formatNanos(double nanos) {
+        if (nanos < 1_000.0) {
+            return String.format("%.0fns", nanos);
+        }
+        if (nanos < 1_000_000.0) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        }
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    private static final class RateLimit {
+        private final AtomicLong lastLogged = new AtomicLong(Long.MIN_VALUE / 2);
+        private final LongAdder suppressed = new LongAdder();
+    }
+}
@@ -0,0 +1,389 @@
+package gg.doomsday.core.nations;
+
+import gg.doomsday.core.utils.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Horizontal footprint of a nation made of rectangles and polygons, rasterized to chunks.
+ *
+ * Every chunk in the bounding box is marked inside, outside or edge when the borders
+ * load. Inside and outside chunks answer from two bitmasks. Edge chunks keep only the
+ * rectangles and polygon edges near them, so the exact test on a border costs the same
+ * however many vertices the rest of the coastline has.
+ *
+ * The exact polygon test is the usual crossing count along a ray towards +X, split at
+ * a line just past the chunk's east side: crossings inside the chunk come from the local
+ * edges, and whether that line is inside the polygon is stored per chunk as the state
+ * at one point plus the heights where the polygon's outline crosses it.
+ *
+ * Polygon vertices are block coordinates. Rectangles include their max coordinates like
+ * the plain box borders do.
+ */
+class BorderRaster {
+
+    // Local edge lists cover this much around each chunk, so the split line and the
+    // reference point below the chunk are always inside it
+    private static final double MARGIN = 1.0;
+    private static final double SPLIT_OFFSET = 16.5;
+
+    private static final class Polygon {
+        final double[] xs;
+        final double[] zs;
+
+        Polygon(int[] vertices) {
+            int count = vertices.length / 2;
+            this.xs = new double[count];
+            this.zs = new double[count];
+            for (int i = 0; i < count; i++) {
+                xs[i] = vertices[i * 2];
+                zs[i] = vertices[i * 2 + 1];
+            }
+        }
+
+        boolean contains(double x, double z) {
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((zs[i] > z) != (zs[j] > z)
+                        && x < (xs[j] - xs[i]) * (z - zs[i]) / (zs[j] - zs[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        /**
+         * Sorted X positions where the outline crosses height z, matching {@link #contains}
+         */
+        double[] scanline(double z) {
+            double[] crossings = new double[xs.length];
+            int found = 0;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((zs[i] > z) != (zs[j] > z)) {
+                    crossings[found++] = (xs[j] - xs[i]) * (z - zs[i]) / (zs[j] - zs[i]) + xs[i];
+                }
+            }
+            Arrays.sort(crossings, 0, found);
+            return Arrays.copyOf(crossings, found);
+        }
+    }
+
+    /**
+     * Whether x is inside, given the sorted crossings of its scanline
+     */
+    private static boolean insideScanline(double[] crossings, double x) {
+        int index = Arrays.binarySearch(crossings, x);
+        // Crossings equal to x do not count, like the strict test in Polygon.contains
+        int after = index >= 0 ? index + 1 : -index - 1;
+        while (index >= 0 && after < crossings.length && crossings[after] == x) {
+            after++;
+        }
+        return ((crossings.length - after) & 1) == 1;
+    }
+
+    /**
+     * The part of one polygon near one edge chunk
+     */
+    private static final class PolygonPiece {
+        final Polygon polygon;
+        final double splitX;
+        // Local edges as (xi, zi, xj, zj) in the same orientation the full test uses
+        final double[] edges;
+        // Heights above the reference point where the outline crosses the split line
+        final double[] crossings;
+        final boolean referenceInside;
+
+        PolygonPiece(Polygon polygon, int[] edgeIndices, int chunkX, int chunkZ, Map<Double, double[]> scanlines) {
+            this.polygon = polygon;
+            this.splitX = (chunkX << 4) + SPLIT_OFFSET;
+            this.edges = new double[edgeIndices.length * 4];
+
+            int count = polygon.xs.length;
+            for (int k = 0; k < edgeIndices.length; k++) {
+                int i = edgeIndices[k];
+                int j = i == 0 ? count - 1 : i - 1;
+                edges[k * 4] = polygon.xs[i];
+                edges[k * 4 + 1] = polygon.zs[i];
+                edges[k * 4 + 2] = polygon.xs[j];
+                edges[k * 4 + 3] = polygon.zs[j];
+            }
+
+            // Vertices are whole blocks and the split line is not, so every crossing is clean.
+            // The reference point just has to avoid landing exactly on one of them.
+            double[] all = new double[edgeIndices.length];
+            int found = 0;
+            for (int k = 0; k < edgeIndices.length; k++) {
+                double xi = edges[k * 4], zi = edges[k * 4 + 1];
+                double xj = edges[k * 4 + 2], zj = edges[k * 4 + 3];
+                if ((xi > splitX) != (xj > splitX)) {
+                    all[found++] = zi + (splitX - xi) * (zj - zi) / (xj - xi);
+                }
+            }
+            all = Arrays.copyOf(all, found);
+
+            double referenceZ = (chunkZ << 4) - 0.5;
+            while (indexOf(all, referenceZ) >= 0) {
+                referenceZ -= 1.0 / 64;
+            }
+            double top = (chunkZ << 4) + 16;
+            int kept = 0;
+            for (double crossing : all) {
+                if (crossing > referenceZ && crossing <= top) {
+                    all[kept++] = crossing;
+                }
+            }
+            this.crossings = Arrays.copyOf(all, kept);
+            Arrays.sort(crossings);
+            this.referenceInside = insideScanline(scanlines.computeIfAbsent(referenceZ, polygon::scanline), splitX);
+        }
+
+        boolean contains(double x, double z) {
+            boolean inside = referenceInside;
+            for (double crossing : crossings) {
+                if (crossing > z) {
+                    break;
+                }
+                if (crossing == z) {
+                    return polygon.contains(x, z);
+                }
+                inside = !inside;
+            }
+            for (int k = 0; k < edges.length; k += 4) {
+                double xi = edges[k], zi = edges[k + 1], xj = edges[k + 2], zj = edges[k + 3];
+                if ((zi > z) != (zj > z)) {
+                    double crossX = (xj - xi) * (z - zi) / (zj - zi) + xi;
+                    if (x < crossX && crossX <= splitX) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+
+        private static int indexOf(double[] values, double value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class EdgeChunk {
+        // (minX, maxX, minZ, maxZ) per rectangle
+        int[] rectangles = new int[0];
+        PolygonPiece[] pieces = new PolygonPiece[0];
+
+        boolean contains(double x, double z) {
+            for (int k = 0; k < rectangles.length; k += 4) {
+                if (x >= rectangles[k] && x <= rectangles[k + 1]
+                        && z >= rectangles[k + 2] && z <= rectangles[k + 3]) {
+                    return true;
+                }
+            }
+            for (PolygonPiece piece : pieces) {
+                if (piece.contains(x, z)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final int minX, maxX, minZ, maxZ;
+    private final int originChunkX, originChunkZ;
+    private final int width, height;
+    private final long[] insideChunks;
+    private final long[] edgeChunkBits;
+    private final LongObjectHashMap<EdgeChunk> edgeChunks = new LongObjectHashMap<>();
+
+    /**
+     * @param rectangles (minX, maxX, minZ, maxZ) per rectangle
+     * @param polygons (x0, z0, x1, z1, ...) per polygon, at least three vertices each
+     */
+    BorderRaster(List<int[]> rectangles, List<int[]> polygons) {
+        int lowX = Integer.MAX_VALUE, highX = Integer.MIN_VALUE;
+        int lowZ = Integer.MAX_VALUE, highZ = Integer.MIN_VALUE;
+        for (int[] r : rectangles) {
+            lowX = Math.min(lowX, r[0]);
+            highX = Math.max(highX, r[1]);
+            lowZ = Math.min(lowZ, r[2]);
+            highZ = Math.max(highZ, r[3]);
+        }
+        for (int[] p : polygons) {
+            for (int i = 0; i < p.length; i += 2) {
+                lowX = Math.min(lowX, p[i]);
+                highX = Math.max(highX, p[i]);
+                lowZ = Math.min(lowZ, p[i + 1]);
+                highZ = Math.max(highZ, p[i + 1]);
+            }
+        }
+        if (lowX > highX) {
+            throw new IllegalArgumentException("Borders need at least one rectangle or polygon");
+        }
+
+        this.minX = lowX;
+        this.maxX = highX;
+        this.minZ = lowZ;
+        this.maxZ = highZ;
+        this.originChunkX = lowX >> 4;
+        this.originChunkZ = lowZ >> 4;
+        this.width = (highX >> 4) - originChunkX + 1;
+        this.height = (highZ >> 4) - originChunkZ + 1;
+        long chunkCount = (long) width * height;
+        if (chunkCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Borders span too many chunks: " + chunkCount);
+        }
+        this.insideChunks = new long[(int) ((chunkCount + 63) >> 6)];
+        this.edgeChunkBits = new long[insideChunks.length];
+
+        for (int[] rectangle : rectangles) {
+            rasterizeRectangle(rectangle);
+        }
+        for (int[] vertices : polygons) {
+            rasterizePolygon(new Polygon(vertices));
+        }
+
+        // A chunk fully inside one shape needs no exact test for the others
+        for (int i = 0; i < insideChunks.length; i++) {
+            edgeChunkBits[i] &= ~insideChunks[i];
+        }
+    }
+
+    boolean contains(double x, double z) {
+        if (x < minX || x > maxX || z < minZ || z > maxZ) {
+            return false;
+        }
+        int index = ((int) Math.floor(z) >> 4) - originChunkZ;
+        index = index * width + ((int) Math.floor(x) >> 4) - originChunkX;
+        long bit = 1L << index;
+        if ((insideChunks[index >>> 6] & bit) != 0) {
+            return true;
+        }
+        if ((edgeChunkBits[index >>> 6] & bit) == 0) {
+            return false;
+        }
+        return edgeChunks.get(index).contains(x, z);
+    }
+
+    boolean coversChunk(int chunkX, int chunkZ) {
+        int index = indexOf(chunkX, chunkZ);
+        return index >= 0 && (insideChunks[index >>> 6] & (1L << index)) != 0;
+    }
+
+    boolean overlapsChunk(int chunkX, int chunkZ) {
+        int index = indexOf(chunkX, chunkZ);
+        return index >= 0 && ((insideChunks[index >>> 6] | edgeChunkBits[index >>> 6]) & (1L << index)) != 0;
+    }
+
+    int getMinX() { return minX; }
+    int getMaxX() { return maxX; }
+    int getMinZ() { return minZ; }
+    int getMaxZ() { return maxZ; }
+
+    private int indexOf(int chunkX, int chunkZ) {
+        int cx = chunkX - originChunkX;
+        int cz = chunkZ - originChunkZ;
+        if (cx < 0 || cx >= width || cz < 0 || cz >= height) {
+            return -1;
+        }
+        return cz * width + cx;
+    }
+
+    private void rasterizeRectangle(int[] r) {
+        for (int cz = r[2] >> 4; cz <= r[3] >> 4; cz++) {
+            for (int cx = r[0] >> 4; cx <= r[1] >> 4; cx++) {
+                int x = cx << 4;
+                int z = cz << 4;
+                int index = indexOf(cx, cz);
+                if (r[0] <= x && r[1] >= x + 16 && r[2] <= z && r[3] >= z + 16) {
+                    insideChunks[index >>> 6] |= 1L << index;
+                } else {
+                    EdgeChunk chunk = markEdge(index);
+                    int length = chunk.rectangles.length;
+                    chunk.rectangles = Arrays.copyOf(chunk.rectangles, length + 4);
+                    System.arraycopy(r, 0, chunk.rectangles, length, 4);
+                }
+            }
+        }
+    }
+
+    private void rasterizePolygon(Polygon polygon) {
+        double[] xs = polygon.xs;
+        double[] zs = polygon.zs;
+        int count = xs.length;
+
+        // Edge i runs from vertex i-1 to vertex i; collect the chunks each one passes near
+        LongObjectHashMap<List<Integer>> nearEdges = new LongObjectHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int j = i == 0 ? count - 1 : i - 1;
+            double x1 = xs[j], z1 = zs[j], x2 = xs[i], z2 = zs[i];
+            int firstRow = (int) Math.ceil((Math.min(z1, z2) - MARGIN - 16) / 16);
+            int lastRow = (int) Math.floor((Math.max(z1, z2) + MARGIN) / 16);
+            for (int cz = firstRow; cz <= lastRow; cz++) {
+                double bandLow = (cz << 4) - MARGIN;
+                double bandHigh = (cz << 4) + 16 + MARGIN;
+                double low, high;
+                if (z1 == z2) {
+                    if (z1 < bandLow || z1 > bandHigh) continue;
+                    low = Math.min(x1, x2);
+                    high = Math.max(x1, x2);
+                } else {
+                    double t1 = Math.max(0, Math.min(1, (bandLow - z1) / (z2 - z1)));
+                    double t2 = Math.max(0, Math.min(1, (bandHigh - z1) / (z2 - z1)));
+                    double xa = x1 + (x2 - x1) * t1;
+                    double xb = x1 + (x2 - x1) * t2;
+                    double za = z1 + (z2 - z1) * t1;
+                    double zb = z1 + (z2 - z1) * t2;
+                    if (Math.max(za, zb) < bandLow || Math.min(za, zb) > bandHigh) continue;
+                    low = Math.min(xa, xb);
+                    high = Math.max(xa, xb);
+                }
+                int firstColumn = (int) Math.ceil((low - MARGIN - 16) / 16);
+                int lastColumn = (int) Math.floor((high + MARGIN) / 16);
+                for (int cx = firstColumn; cx <= lastColumn; cx++) {
+                    if (indexOf(cx, cz) >= 0) {
+                        nearEdges.computeIfAbsent(indexOf(cx, cz), ArrayList::new).add(i);
+                    }
+                }
+            }
+        }
+
+        // Reference points mostly share a height per chunk row, so their scanlines are reused
+        Map<Double, double[]> scanlines = new HashMap<>();
+        nearEdges.forEach((index, edges) -> {
+            int cx = (int) index % width + originChunkX;
+            int cz = (int) index / width + originChunkZ;
+            int[] indices = new int[edges.size()];
+            for (int k = 0; k < indices.length; k++) {
+                indices[k] = edges.get(k);
+            }
+            EdgeChunk chunk = markEdge((int) index);
+            chunk.pieces = Arrays.copyOf(chunk.pieces, chunk.pieces.length + 1);
+            chunk.pieces[chunk.pieces.length - 1] = new PolygonPiece(polygon, indices, cx, cz, scanlines);
+        });
+
+        // Chunks no edge comes near are wholly inside or outside: sample each one's centre
+        // with one scanline per chunk row
+        for (int row = 0; row < height; row++) {
+            double[] crossings = polygon.scanline(((row + originChunkZ) << 4) + 8);
+            for (int column = 0; column < width; column++) {
+                int index = row * width + column;
+                if (!nearEdges.containsKey(index)
+                        && insideScanline(crossings, ((column + originChunkX) << 4) + 8)) {
+                    insideChunks[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    private EdgeChunk markEdge(int index) {
+        edgeChunkBits[index >>> 6] |= 1L << index;
+        return edgeChunks.computeIfAbsent(index, EdgeChunk::new);
+    }
+}
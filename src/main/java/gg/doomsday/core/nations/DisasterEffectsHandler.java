@@ -1,6 +1,11 @@
 package gg.doomsday.core.nations;
 
+import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.data.TerrainJournal;
 import gg.doomsday.core.managers.MessageManager;
+import gg.doomsday.core.utils.ParticleBatch;
+import gg.doomsday.core.utils.ParticleShape;
+import gg.doomsday.core.utils.PlayerGrid;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -22,12 +27,18 @@ import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class DisasterEffectsHandler {
+    // 25 rings narrowing upwards, 18 points each; spun a little further every frame
+    private static final ParticleShape TORNADO_FUNNEL =
+            ParticleShape.funnel(25, 18, 1.0, layer -> Math.max(0.5, (25 - layer) * 0.4));
+
     private final JavaPlugin plugin;
     private final NationPlayerManager nationPlayerManager;
     private final MessageManager messageManager;
-    private final Map<String, BukkitRunnable> activeEffects;
-    private final Map<String, Set<Location>> floodedBlocks;
-    private final Map<String, Set<Location>> droughtBlocks;
+    private final DisasterScheduler scheduler;
+    private final Map<String, DisasterScheduler.Effect> activeEffects;
+    private final TerrainJournal terrainJournal;
+    // Blocks changed by running floods and droughts, restored when they end
+    private final Map<String, TerrainJournal.Batch> terrainChanges;
     
     // Plague tracking
     private final Map<String, Set<UUID>> infectedPlayers;
@@ -43,9 +54,10 @@ public class DisasterEffectsHandler {
         this.plugin = plugin;
         this.nationPlayerManager = nationPlayerManager;
         this.messageManager = new MessageManager(plugin);
+        this.scheduler = new DisasterScheduler(plugin);
         this.activeEffects = new HashMap<>();
-        this.floodedBlocks = new HashMap<>();
-        this.droughtBlocks = new HashMap<>();
+        this.terrainJournal = ((DoomsdayCore) plugin).getTerrainJournal();
+        this.terrainChanges = new HashMap<>();
         this.infectedPlayers = new HashMap<>();
         this.thirstyPlayers = new HashMap<>();
     }
@@ -102,7 +114,7 @@ public class DisasterEffectsHandler {
         String effectKey = nation.getId() + "_" + disaster.getId();
         
         // Cancel running effect
-        BukkitRunnable effect = activeEffects.get(effectKey);
+        DisasterScheduler.Effect effect = activeEffects.get(effectKey);
         if (effect != null) {
             effect.cancel();
             activeEffects.remove(effectKey);
@@ -111,10 +123,10 @@ public class DisasterEffectsHandler {
         // Cleanup specific disaster effects
         switch (disaster.getId()) {
             case "flooding":
-                cleanupFlooding(effectKey);
+                restoreTerrain(effectKey);
                 break;
             case "droughts":
-                cleanupDrought(effectKey);
+                restoreTerrain(effectKey);
                 cleanupThirst(effectKey);
                 break;
             case "plagues":
@@ -123,31 +135,22 @@ public class DisasterEffectsHandler {
         }
     }
 
+    /**
+     * Register a running effect, removed again once its duration is over
+     */
+    private DisasterScheduler.Effect startEffect(String effectKey, long durationTicks) {
+        DisasterScheduler.Effect effect = scheduler.start(effectKey, durationTicks, () -> activeEffects.remove(effectKey));
+        activeEffects.put(effectKey, effect);
+        return effect;
+    }
+
     // AMERICA DISASTERS
     private void startMeteorShower(Nation nation, Disaster disaster, String effectKey) {
-        BukkitRunnable meteorTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Spawn meteors every 3-5 seconds
-                if (ticks % (60 + ThreadLocalRandom.current().nextInt(40)) == 0) {
-                    spawnMeteor(nation);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        meteorTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, meteorTask);
+        // Spawn meteors every 3-5 seconds
+        startEffect(effectKey, disaster.getDuration()).repeat(0, () -> {
+            spawnMeteor(nation);
+            return 60 + ThreadLocalRandom.current().nextInt(40);
+        });
     }
     
     private void spawnMeteor(Nation nation) {
@@ -227,31 +230,12 @@ public class DisasterEffectsHandler {
             fireCenters.add(new Location(world, x, y, z));
         }
         
-        BukkitRunnable fireTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Spread fire more slowly and in smaller areas
-                if (ticks % 200 == 0) { // Every 10 seconds instead of 5
-                    for (Location center : fireCenters) {
-                        spreadFireAroundCenter(center, 15); // 15 block radius
-                    }
-                }
-                
-                ticks++;
+        // Spread fire more slowly and in smaller areas
+        startEffect(effectKey, disaster.getDuration()).every(200, () -> { // Every 10 seconds instead of 5
+            for (Location center : fireCenters) {
+                spreadFireAroundCenter(center, 15); // 15 block radius
             }
-        };
-        
-        fireTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, fireTask);
+        });
     }
     
     private void spreadFireAroundCenter(Location center, int radius) {
@@ -288,9 +272,9 @@ public class DisasterEffectsHandler {
         int startX = ThreadLocalRandom.current().nextInt(borders.getMinX(), borders.getMaxX());
         int startZ = ThreadLocalRandom.current().nextInt(borders.getMinZ(), borders.getMaxZ());
         
-        BukkitRunnable tornadoTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
+        // The tornado moves every 2 ticks and its duration counts moves, not ticks
+        DisasterScheduler.Effect tornado = startEffect(effectKey, disaster.getDuration() * 2L);
+        tornado.every(2, new Runnable() {
             double currentX = startX;
             double currentZ = startZ;
             final double moveX = ThreadLocalRandom.current().nextDouble(-0.3, 0.3);
@@ -298,11 +282,7 @@ public class DisasterEffectsHandler {
             
             @Override
             public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
+                long ticks = tornado.getElapsedTicks() / 2;
                 
                 // Move tornado
                 currentX += moveX;
@@ -311,17 +291,14 @@ public class DisasterEffectsHandler {
                 Location tornadoLoc = new Location(world, currentX, world.getHighestBlockYAt((int)currentX, (int)currentZ), currentZ);
                 
                 // Enhanced tornado visual effects
-                for (int y = 0; y < 25; y++) {
-                    double radius = Math.max(0.5, (25 - y) * 0.4);
-                    for (int angle = 0; angle < 360; angle += 20) {
-                        double radAngle = Math.toRadians(angle + ticks * 15); // Faster spinning
-                        double x = tornadoLoc.getX() + radius * Math.cos(radAngle);
-                        double z = tornadoLoc.getZ() + radius * Math.sin(radAngle);
-                        
-                        Location particleLoc = new Location(world, x, tornadoLoc.getY() + y, z);
-                        world.spawnParticle(Particle.CLOUD, particleLoc, 2, 0.1, 0.1, 0.1, 0.2);
-                        world.spawnParticle(Particle.CRIT, particleLoc, 1, 0.2, 0.2, 0.2, 0.1);
-                    }
+                double spin = Math.toRadians(ticks * 15); // Faster spinning
+                ParticleBatch particles = ParticleBatch.around(world, tornadoLoc.getX(), tornadoLoc.getY(),
+                        tornadoLoc.getZ(), TORNADO_FUNNEL.getRadius());
+                if (particles.hasViewers()) {
+                    particles.shape(TORNADO_FUNNEL, tornadoLoc.getX(), tornadoLoc.getY(), tornadoLoc.getZ(), 1.0, spin,
+                            Particle.CLOUD, 2, 0.1, 0.1, 0.1, 0.2);
+                    particles.shape(TORNADO_FUNNEL, tornadoLoc.getX(), tornadoLoc.getY(), tornadoLoc.getZ(), 1.0, spin,
+                            Particle.CRIT, 1, 0.2, 0.2, 0.2, 0.1);
                 }
                 
                 // Enhanced player effects - throw and spin players
@@ -361,109 +338,54 @@ public class DisasterEffectsHandler {
                 if (ticks % 15 == 0) {
                     world.playSound(tornadoLoc, Sound.ENTITY_WITHER_SHOOT, 1.5f, 0.3f);
                 }
-                
-                ticks++;
             }
-        };
-        
-        tornadoTask.runTaskTimer(plugin, 0L, 2L);
-        activeEffects.put(effectKey, tornadoTask);
+        });
     }
 
     // EUROPE DISASTERS
     private void startFlooding(Nation nation, Disaster disaster, String effectKey) {
         World world = Bukkit.getWorlds().get(0);
-        Set<Location> floodBlocks = new HashSet<>();
+        FloodZone flood = new FloodZone(world, nation.getBorders());
+        TerrainJournal.Batch changes = terrainJournal.begin(effectKey, world);
         
-        BukkitRunnable floodTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Expand flood every 8 seconds
-                if (ticks % 160 == 0) {
-                    expandFlood(nation, floodBlocks);
-                }
-                
-                // Apply water damage to players in flooded areas
-                if (ticks % 100 == 0) {
-                    applyFloodEffects(nation, floodBlocks);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        floodedBlocks.put(effectKey, floodBlocks);
-        floodTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, floodTask);
+        terrainChanges.put(effectKey, changes);
+        startEffect(effectKey, disaster.getDuration())
+            // Expand flood every 8 seconds
+            .every(160, () -> expandFlood(flood, changes))
+            // Apply water damage to players in flooded areas
+            .every(100, () -> applyFloodEffects(nation, flood));
     }
     
-    private void expandFlood(Nation nation, Set<Location> floodBlocks) {
-        World world = Bukkit.getWorlds().get(0);
-        NationBorders borders = nation.getBorders();
-        
-        for (int attempts = 0; attempts < 30; attempts++) {
-            int x = ThreadLocalRandom.current().nextInt(borders.getMinX(), borders.getMaxX());
-            int z = ThreadLocalRandom.current().nextInt(borders.getMinZ(), borders.getMaxZ());
-            int y = world.getHighestBlockYAt(x, z);
+    private void expandFlood(FloodZone flood, TerrainJournal.Batch changes) {
+        // Spread from existing water into up to 30 neighbouring low columns
+        flood.spread(30, 256, 30, block -> {
+            changes.record(block, Material.WATER);
             
-            // Target low areas and near existing water
-            if (y < 67 || isNearWater(world, x, y, z)) {
-                Location floodLoc = new Location(world, x, y + 1, z);
-                Block block = floodLoc.getBlock();
-                
-                if (block.getType() == Material.AIR) {
-                    block.setType(Material.WATER);
-                    floodBlocks.add(floodLoc);
-                    
-                    world.spawnParticle(Particle.WATER_SPLASH, floodLoc.add(0.5, 0.5, 0.5), 8, 0.5, 0.5, 0.5, 0.1);
-                    
-                    // Destroy crops
-                    Block below = block.getRelative(BlockFace.DOWN);
-                    if (isCrop(below.getType())) {
-                        below.setType(Material.FARMLAND);
-                    }
-                }
+            World world = block.getWorld();
+            world.spawnParticle(Particle.WATER_SPLASH, block.getLocation().add(0.5, 0.5, 0.5), 8, 0.5, 0.5, 0.5, 0.1);
+            
+            // Destroy crops
+            Block below = block.getRelative(BlockFace.DOWN);
+            if (isCrop(below.getType())) {
+                below.setType(Material.FARMLAND);
             }
-        }
+        });
     }
     
-    private void applyFloodEffects(Nation nation, Set<Location> floodBlocks) {
+    private void applyFloodEffects(Nation nation, FloodZone flood) {
         for (Player player : getOnlinePlayersInNation(nation.getId())) {
             Location playerLoc = player.getLocation();
             
             // Check if player is in flooded area
-            for (Location floodLoc : floodBlocks) {
-                if (playerLoc.distance(floodLoc) < 2.0) {
-                    player.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 100, 1));
-                    if (ThreadLocalRandom.current().nextDouble() < 0.1) {
-                        player.damage(1.0); // Drowning damage
-                    }
-                    break;
+            if (flood.isNear(playerLoc.getWorld(), playerLoc.getX(), playerLoc.getY(), playerLoc.getZ(), 2.0)) {
+                player.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 100, 1));
+                if (ThreadLocalRandom.current().nextDouble() < 0.1) {
+                    player.damage(1.0); // Drowning damage
                 }
             }
         }
     }
     
-    private boolean isNearWater(World world, int x, int y, int z) {
-        for (int dx = -2; dx <= 2; dx++) {
-            for (int dz = -2; dz <= 2; dz++) {
-                if (world.getBlockAt(x + dx, y, z + dz).getType() == Material.WATER) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
     private boolean isCrop(Material material) {
         String name = material.name();
         return name.contains("CROP") || name.contains("WHEAT") || 
@@ -485,38 +407,22 @@ public class DisasterEffectsHandler {
             }
         }
         
-        BukkitRunnable plagueTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Spread plague every 10 seconds
-                if (ticks % 200 == 0) {
-                    spreadPlague(nation, infected);
-                }
-                
-                // Apply plague effects every 30 seconds
-                if (ticks % 600 == 0) {
-                    applyPlagueEffects(infected);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        plagueTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, plagueTask);
+        startEffect(effectKey, disaster.getDuration())
+            // Spread plague every 10 seconds
+            .every(200, () -> spreadPlague(nation, infected))
+            // Apply plague effects every 30 seconds
+            .every(600, () -> applyPlagueEffects(infected));
     }
     
     private void spreadPlague(Nation nation, Set<UUID> infected) {
-        List<Player> allPlayers = getOnlinePlayersInNation(nation.getId());
+        List<Player> susceptible = getOnlinePlayersInNation(nation.getId());
+        susceptible.removeIf(player -> infected.contains(player.getUniqueId()));
+        if (susceptible.isEmpty()) {
+            return;
+        }
+        
+        // Bucket healthy players by position so each infected player only checks its neighbours
+        PlayerGrid grid = new PlayerGrid(susceptible, PLAGUE_SPREAD_RADIUS);
         List<UUID> newInfections = new ArrayList<>();
         
         for (UUID infectedId : infected) {
@@ -524,16 +430,12 @@ public class DisasterEffectsHandler {
             if (infectedPlayer == null || !infectedPlayer.isOnline()) continue;
             
             // Check for nearby players to infect
-            for (Player nearbyPlayer : allPlayers) {
-                if (infected.contains(nearbyPlayer.getUniqueId())) continue;
-                
-                if (infectedPlayer.getLocation().distance(nearbyPlayer.getLocation()) <= PLAGUE_SPREAD_RADIUS) {
-                    if (ThreadLocalRandom.current().nextDouble() < 0.3) { // 30% infection chance
-                        newInfections.add(nearbyPlayer.getUniqueId());
-                        nearbyPlayer.sendMessage(messageManager.getMessage("disasters.plagues.spreading"));
-                    }
+            grid.forEachWithin(infectedPlayer.getLocation(), PLAGUE_SPREAD_RADIUS, nearbyPlayer -> {
+                if (ThreadLocalRandom.current().nextDouble() < 0.3) { // 30% infection chance
+                    newInfections.add(nearbyPlayer.getUniqueId());
+                    nearbyPlayer.sendMessage(messageManager.getMessage("disasters.plagues.spreading"));
                 }
-            }
+            });
         }
         
         infected.addAll(newInfections);
@@ -563,34 +465,14 @@ public class DisasterEffectsHandler {
     private void startStorms(Nation nation, Disaster disaster, String effectKey) {
         World world = Bukkit.getWorlds().get(0);
         
-        BukkitRunnable stormTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Lightning strikes every 3-8 seconds
-                if (ticks % (60 + ThreadLocalRandom.current().nextInt(100)) == 0) {
-                    strikeLightning(nation);
-                }
-                
-                // Rain effects every 5 seconds
-                if (ticks % 100 == 0) {
-                    createRainEffects(nation);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        stormTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, stormTask);
+        startEffect(effectKey, disaster.getDuration())
+            // Lightning strikes every 3-8 seconds
+            .repeat(0, () -> {
+                strikeLightning(nation);
+                return 60 + ThreadLocalRandom.current().nextInt(100);
+            })
+            // Rain effects every 5 seconds
+            .every(100, () -> createRainEffects(nation));
     }
     
     private void strikeLightning(Nation nation) {
@@ -625,16 +507,28 @@ public class DisasterEffectsHandler {
         World world = Bukkit.getWorlds().get(0);
         NationBorders borders = nation.getBorders();
         
+        ParticleBatch particles = weatherParticles(world, borders);
+        if (!particles.hasViewers()) {
+            return;
+        }
+        
         // Create rain particle effects
         for (int i = 0; i < 20; i++) {
             int x = ThreadLocalRandom.current().nextInt(borders.getMinX(), borders.getMaxX());
             int z = ThreadLocalRandom.current().nextInt(borders.getMinZ(), borders.getMaxZ());
             int y = world.getHighestBlockYAt(x, z) + 10;
             
-            Location rainLoc = new Location(world, x, y, z);
-            world.spawnParticle(Particle.WATER_DROP, rainLoc, 3, 2, 0, 2, 0.5);
+            particles.point(x, y, z, Particle.WATER_DROP, 3, 2, 0, 2, 0.5);
         }
     }
+    
+    /**
+     * Particle batch covering a nation's land from the bottom of the world to the sky
+     */
+    private ParticleBatch weatherParticles(World world, NationBorders borders) {
+        return new ParticleBatch(world, borders.getMinX(), world.getMinHeight(), borders.getMinZ(),
+                borders.getMaxX(), world.getMaxHeight() + 20, borders.getMaxZ());
+    }
 
     // AFRICA DISASTERS
     private void startDrought(Nation nation, Disaster disaster, String effectKey) {
@@ -643,40 +537,17 @@ public class DisasterEffectsHandler {
         
         World world = Bukkit.getWorlds().get(0);
         NationBorders borders = nation.getBorders();
-        Set<Location> driedBlocks = new HashSet<>();
-        
-        BukkitRunnable droughtTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                // Dry up water every 20 seconds
-                if (ticks % 400 == 0) {
-                    dryUpWater(nation, driedBlocks);
-                }
-                
-                // Apply thirst effects every 5 seconds
-                if (ticks % 100 == 0) {
-                    applyThirstEffects(nation, thirstMap);
-                }
-                
-                ticks++;
-            }
-        };
+        TerrainJournal.Batch driedBlocks = terrainJournal.begin(effectKey, world);
         
-        droughtBlocks.put(effectKey, driedBlocks);
-        droughtTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, droughtTask);
+        terrainChanges.put(effectKey, driedBlocks);
+        startEffect(effectKey, disaster.getDuration())
+            // Dry up water every 20 seconds
+            .every(400, () -> dryUpWater(nation, driedBlocks))
+            // Apply thirst effects every 5 seconds
+            .every(100, () -> applyThirstEffects(nation, thirstMap));
     }
     
-    private void dryUpWater(Nation nation, Set<Location> driedBlocks) {
+    private void dryUpWater(Nation nation, TerrainJournal.Batch driedBlocks) {
         World world = Bukkit.getWorlds().get(0);
         NationBorders borders = nation.getBorders();
         
@@ -687,8 +558,8 @@ public class DisasterEffectsHandler {
             for (int y = borders.getMinY(); y <= borders.getMaxY(); y++) {
                 Block block = world.getBlockAt(x, y, z);
                 if (block.getType() == Material.WATER) {
+                    driedBlocks.record(block, Material.AIR);
                     block.setType(Material.AIR);
-                    driedBlocks.add(block.getLocation());
                     
                     world.spawnParticle(Particle.SMOKE_NORMAL, block.getLocation().add(0.5, 0.5, 0.5), 5, 0.5, 0.5, 0.5, 0.0);
                     break;
@@ -749,28 +620,7 @@ public class DisasterEffectsHandler {
 
     // ANTARCTICA DISASTERS (keeping existing implementations)
     private void startBlizzard(Nation nation, Disaster disaster, String effectKey) {
-        BukkitRunnable blizzardTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                if (ticks % 60 == 0) {
-                    applyBlizzardEffects(nation);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        blizzardTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, blizzardTask);
+        startEffect(effectKey, disaster.getDuration()).every(60, () -> applyBlizzardEffects(nation));
     }
     
     private void applyBlizzardEffects(Nation nation) {
@@ -787,17 +637,19 @@ public class DisasterEffectsHandler {
                 player.addPotionEffect(new PotionEffect(miningFatigueEffect, 200, 1));
             }
             
-            world.spawnParticle(Particle.SNOWBALL, player.getLocation().add(0, 2, 0), 30, 3, 3, 3, 0.2);
+            // Follows the player even outside the nation, so not part of the nation's batch
+            Location location = player.getLocation();
+            world.spawnParticle(Particle.SNOWBALL, location.getX(), location.getY() + 2, location.getZ(), 30, 3, 3, 3, 0.2);
         }
         
         // Environmental snow effects
-        for (int i = 0; i < 25; i++) {
+        ParticleBatch particles = weatherParticles(world, borders);
+        for (int i = 0; particles.hasViewers() && i < 25; i++) {
             int x = ThreadLocalRandom.current().nextInt(borders.getMinX(), borders.getMaxX());
             int z = ThreadLocalRandom.current().nextInt(borders.getMinZ(), borders.getMaxZ());
             int y = world.getHighestBlockYAt(x, z) + 5 + ThreadLocalRandom.current().nextInt(15);
             
-            Location particleLoc = new Location(world, x, y, z);
-            world.spawnParticle(Particle.SNOWBALL, particleLoc, 8, 4, 4, 4, 0.1);
+            particles.point(x, y, z, Particle.SNOWBALL, 8, 4, 4, 4, 0.1);
         }
         
         if (ThreadLocalRandom.current().nextDouble() < 0.3) {
@@ -815,28 +667,7 @@ public class DisasterEffectsHandler {
     private void startIceStorm(Nation nation, Disaster disaster, String effectKey) {
         World world = Bukkit.getWorlds().get(0);
         
-        BukkitRunnable iceStormTask = new BukkitRunnable() {
-            int ticks = 0;
-            final int maxTicks = disaster.getDuration();
-            
-            @Override
-            public void run() {
-                if (ticks >= maxTicks) {
-                    cancel();
-                    activeEffects.remove(effectKey);
-                    return;
-                }
-                
-                if (ticks % 80 == 0) {
-                    applyIceStormEffects(nation);
-                }
-                
-                ticks++;
-            }
-        };
-        
-        iceStormTask.runTaskTimer(plugin, 0L, 1L);
-        activeEffects.put(effectKey, iceStormTask);
+        startEffect(effectKey, disaster.getDuration()).every(80, () -> applyIceStormEffects(nation));
     }
     
     private void applyIceStormEffects(Nation nation) {
@@ -873,29 +704,11 @@ public class DisasterEffectsHandler {
     }
 
     // CLEANUP METHODS
-    private void cleanupFlooding(String effectKey) {
-        Set<Location> floodBlocks = floodedBlocks.get(effectKey);
-        if (floodBlocks != null) {
-            for (Location loc : floodBlocks) {
-                Block block = loc.getBlock();
-                if (block.getType() == Material.WATER) {
-                    block.setType(Material.AIR);
-                }
-            }
-            floodedBlocks.remove(effectKey);
-        }
-    }
-
-    private void cleanupDrought(String effectKey) {
-        Set<Location> driedBlocks = droughtBlocks.get(effectKey);
-        if (driedBlocks != null) {
-            for (Location loc : driedBlocks) {
-                Block block = loc.getBlock();
-                if (block.getType() == Material.AIR) {
-                    block.setType(Material.WATER);
-                }
-            }
-            droughtBlocks.remove(effectKey);
+    private void restoreTerrain(String effectKey) {
+        TerrainJournal.Batch changes = terrainChanges.remove(effectKey);
+        if (changes != null) {
+            // Put back over the next ticks instead of all at once
+            changes.restore();
         }
     }
     
@@ -911,33 +724,24 @@ public class DisasterEffectsHandler {
      * Helper method to get all online players in a nation
      */
     private List<Player> getOnlinePlayersInNation(String nationId) {
-        List<Player> players = new ArrayList<>();
-        for (UUID playerId : nationPlayerManager.getOnlinePlayersInNation(nationId)) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null && player.isOnline()) {
-                players.add(player);
-            }
-        }
+        List<Player> players = new ArrayList<>(nationPlayerManager.getOnlinePlayerCountInNation(nationId));
+        nationPlayerManager.forEachOnlineInNation(nationId, players::add);
         return players;
     }
 
     public void shutdown() {
         // Cancel all active effects
-        for (BukkitRunnable effect : activeEffects.values()) {
-            if (effect != null) {
-                effect.cancel();
-            }
-        }
+        scheduler.shutdown();
         activeEffects.clear();
         
-        // Cleanup all disaster effects
-        for (String effectKey : new HashSet<>(floodedBlocks.keySet())) {
-            cleanupFlooding(effectKey);
-        }
-        
-        for (String effectKey : new HashSet<>(droughtBlocks.keySet())) {
-            cleanupDrought(effectKey);
+        // Cleanup all disaster effects. When the plugin is being disabled no task can be
+        // scheduled to put the terrain back, so the journal rolls it back on next startup.
+        if (plugin.isEnabled()) {
+            for (String effectKey : new HashSet<>(terrainChanges.keySet())) {
+                restoreTerrain(effectKey);
+            }
         }
+        terrainChanges.clear();
         
         infectedPlayers.clear();
         thirstyPlayers.clear();
@@ -0,0 +1,213 @@
+package gg.doomsday.core.nations;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.PriorityQueue;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs the timed actions of every active disaster from one tick task.
+ *
+ * Actions wait in a queue ordered by the tick they are due, so each tick only looks at
+ * the head of the queue and a disaster costs nothing between the ticks it acts on. The
+ * tick task is only scheduled while something is queued.
+ *
+ * Main thread only.
+ */
+public class DisasterScheduler {
+
+    /**
+     * One running disaster. Its actions stop when it is cancelled or its duration runs out.
+     */
+    public final class Effect {
+        private final String name;
+        private final long startTick;
+        private final long endTick;
+        private final Runnable onEnd;
+        private boolean cancelled;
+        private int queuedEntries;
+
+        private Effect(String name, long startTick, long durationTicks, Runnable onEnd) {
+            this.name = name;
+            this.startTick = startTick;
+            this.endTick = startTick + durationTicks;
+            this.onEnd = onEnd;
+        }
+
+        /**
+         * Run the action on the next tick and then every period ticks
+         */
+        public Effect every(int periodTicks, Runnable action) {
+            int period = Math.max(1, periodTicks);
+            return repeat(0, () -> {
+                action.run();
+                return period;
+            });
+        }
+
+        /**
+         * Run the action once the delay has passed, starting from the next tick. It returns
+         * the ticks until its next run, or 0 to stop.
+         */
+        public Effect repeat(int delayTicks, IntSupplier action) {
+            if (!cancelled) {
+                enqueue(new Entry(currentTick + 1 + Math.max(0, delayTicks), this, action));
+            }
+            return this;
+        }
+
+        /**
+         * Stop the effect without running its end action
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelledEntries += queuedEntries;
+                purgeIfMostlyCancelled();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Ticks since the effect started, counting its first tick as 0
+         */
+        public long getElapsedTicks() {
+            return currentTick - startTick;
+        }
+    }
+
+    private final class Entry implements Comparable<Entry> {
+        final long dueTick;
+        final long sequence;
+        final Effect effect;
+        // Null for the entry that ends the effect
+        final IntSupplier action;
+
+        Entry(long dueTick, Effect effect, IntSupplier action) {
+            this.dueTick = dueTick;
+            this.sequence = nextSequence++;
+            this.effect = effect;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (dueTick != other.dueTick) {
+                return Long.compare(dueTick, other.dueTick);
+            }
+            // Same tick: run in the order they were scheduled
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private long currentTick;
+    private long nextSequence;
+    private int cancelledEntries;
+    private BukkitRunnable tickTask;
+
+    public DisasterScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start an effect lasting the given number of ticks. Its end action runs once the
+     * duration is over, unless it is cancelled first.
+     */
+    public Effect start(String name, long durationTicks, Runnable onEnd) {
+        // Like a task timer with no delay, the effect's first tick is the next server tick
+        Effect effect = new Effect(name, currentTick + 1, Math.max(0L, durationTicks), onEnd);
+        enqueue(new Entry(effect.endTick, effect, null));
+        return effect;
+    }
+
+    /**
+     * Number of queued actions, including ones of cancelled effects not yet cleared out
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        for (Entry entry : queue) {
+            entry.effect.cancelled = true;
+        }
+        queue.clear();
+        cancelledEntries = 0;
+    }
+
+    private void enqueue(Entry entry) {
+        queue.add(entry);
+        entry.effect.queuedEntries++;
+        if (tickTask == null) {
+            tickTask = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            };
+            tickTask.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+
+        Entry entry;
+        while ((entry = queue.peek()) != null && entry.dueTick <= currentTick) {
+            queue.poll();
+            Effect effect = entry.effect;
+            effect.queuedEntries--;
+            if (effect.cancelled) {
+                cancelledEntries--;
+                continue;
+            }
+
+            if (entry.action == null) {
+                effect.cancel();
+                if (effect.onEnd != null) {
+                    effect.onEnd.run();
+                }
+                continue;
+            }
+
+            int nextDelay;
+            try {
+                nextDelay = entry.action.getAsInt();
+            } catch (RuntimeException e) {
+                plugin.getLogger().severe("Disaster effect " + effect.name + " failed and was stopped: " + e);
+                effect.cancel();
+                continue;
+            }
+
+            // The action may have cancelled its own effect
+            if (nextDelay > 0 && !effect.cancelled && entry.dueTick + nextDelay < effect.endTick) {
+                queue.add(new Entry(entry.dueTick + nextDelay, effect, entry.action));
+                effect.queuedEntries++;
+            }
+        }
+
+        if (queue.isEmpty() && tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    private void purgeIfMostlyCancelled() {
+        // Entries of cancelled effects are normally dropped when they come due; clear them
+        // out early once they make up most of the queue
+        if (cancelledEntries > 32 && cancelledEntries * 2 > queue.size()) {
+            queue.removeIf(entry -> entry.effect.cancelled);
+            cancelledEntries = 0;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package gg.doomsday.core.nations;
+
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongObjectHashMap;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Blocks flooded by one flooding disaster, and the frontier it grows from.
+ *
+ * Flooded blocks are grouped by chunk, each chunk keeping a bitmask of its flooded
+ * columns and a sorted array of its flooded blocks, so "is this position near the
+ * flood" only looks at the few columns around it instead of every flooded block.
+ *
+ * The flood starts from real surface water and spreads breadth-first to neighbouring
+ * columns whose ground is no higher than one block above that water, so it fills low
+ * land next to rivers and lakes rather than appearing at random. Columns in unloaded
+ * chunks are left for a later pass instead of loading the chunk.
+ *
+ * Main thread only.
+ */
+final class FloodZone {
+
+    private static final int[] NEIGHBOUR_X = {1, -1, 0, 0};
+    private static final int[] NEIGHBOUR_Z = {0, 0, 1, -1};
+
+    private static final class ChunkCells {
+        // One bit per column (z * 16 + x) holding at least one flooded block
+        final long[] columns = new long[4];
+        // Sorted column << 12 | (y & 0xFFF)
+        int[] cells = new int[8];
+        int size;
+
+        boolean hasColumn(int column) {
+            return (columns[column >> 6] & (1L << column)) != 0;
+        }
+
+        boolean contains(int cell) {
+            return Arrays.binarySearch(cells, 0, size, cell) >= 0;
+        }
+
+        boolean add(int cell) {
+            int index = Arrays.binarySearch(cells, 0, size, cell);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            System.arraycopy(cells, index, cells, index + 1, size - index);
+            cells[index] = cell;
+            size++;
+            int column = cell >>> 12;
+            columns[column >> 6] |= 1L << column;
+            return true;
+        }
+    }
+
+    private final World world;
+    private final NationBorders borders;
+    private final LongObjectHashMap<ChunkCells> chunks = new LongObjectHashMap<>();
+    private int blockCount;
+
+    // Ring buffer of packed (x, water level, z) positions still spreading
+    private long[] frontier = new long[64];
+    private int frontierHead;
+    private int frontierSize;
+    // Set when a pass flooded nothing, e.g. because the frontier only borders unloaded chunks
+    private boolean stalled;
+
+    FloodZone(World world, NationBorders borders) {
+        this.world = world;
+        this.borders = borders;
+    }
+
+    /**
+     * Flood up to maxBlocks more blocks, looking at no more than maxVisits frontier
+     * positions. Looks for more surface water to start from once the frontier runs dry
+     * or stops making progress. The callback runs just before each block is flooded.
+     *
+     * @return Number of blocks flooded
+     */
+    int spread(int maxBlocks, int maxVisits, int seedAttempts, Consumer<Block> beforeFlooding) {
+        if (frontierSize == 0 || stalled) {
+            seed(seedAttempts);
+        }
+
+        int flooded = 0;
+        int visits = 0;
+        while (flooded < maxBlocks && visits < maxVisits && frontierSize > 0) {
+            long key = pollFrontier();
+            visits++;
+            int x = CoordinateUtils.unpackBlockX(key);
+            int level = CoordinateUtils.unpackBlockY(key);
+            int z = CoordinateUtils.unpackBlockZ(key);
+
+            boolean revisit = false;
+            for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+                if (flooded >= maxBlocks) {
+                    revisit = true;
+                    break;
+                }
+                int nx = x + NEIGHBOUR_X[i];
+                int nz = z + NEIGHBOUR_Z[i];
+                if (!borders.contains(nx + 0.5, level, nz + 0.5) || hasFloodedColumn(nx, nz)) {
+                    continue;
+                }
+                if (!world.isChunkLoaded(nx >> 4, nz >> 4)) {
+                    revisit = true;
+                    continue;
+                }
+
+                int ground = world.getHighestBlockYAt(nx, nz);
+                // Higher ground holds the water back
+                if (ground + 1 > level) {
+                    continue;
+                }
+                Material groundType = world.getBlockAt(nx, ground, nz).getType();
+                if (groundType == Material.WATER || groundType == Material.LAVA) {
+                    continue;
+                }
+                Block block = world.getBlockAt(nx, ground + 1, nz);
+                if (block.getType() != Material.AIR) {
+                    continue;
+                }
+
+                beforeFlooding.accept(block);
+                block.setType(Material.WATER);
+                add(nx, ground + 1, nz);
+                offerFrontier(CoordinateUtils.packBlockKey(nx, level, nz));
+                flooded++;
+            }
+
+            if (revisit) {
+                offerFrontier(key);
+            }
+        }
+        stalled = flooded == 0;
+        return flooded;
+    }
+
+    /**
+     * Whether the centre of any flooded block is closer than the radius to the position.
+     * Positions in other worlds are never near.
+     */
+    boolean isNear(World world, double x, double y, double z, double radius) {
+        if (blockCount == 0 || world != this.world) {
+            return false;
+        }
+        double radiusSquared = radius * radius;
+        int minX = (int) Math.floor(x - radius - 0.5);
+        int maxX = (int) Math.floor(x + radius - 0.5);
+        int minY = (int) Math.floor(y - radius - 0.5);
+        int maxY = (int) Math.floor(y + radius - 0.5);
+        int minZ = (int) Math.floor(z - radius - 0.5);
+        int maxZ = (int) Math.floor(z + radius - 0.5);
+
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                ChunkCells cells = chunks.get(CoordinateUtils.packChunkKey(chunkX, chunkZ));
+                if (cells == null) {
+                    continue;
+                }
+                int fromX = Math.max(minX, chunkX << 4);
+                int toX = Math.min(maxX, (chunkX << 4) + 15);
+                int fromZ = Math.max(minZ, chunkZ << 4);
+                int toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+                for (int bx = fromX; bx <= toX; bx++) {
+                    for (int bz = fromZ; bz <= toZ; bz++) {
+                        int column = (bz & 15) << 4 | (bx & 15);
+                        if (!cells.hasColumn(column)) {
+                            continue;
+                        }
+                        for (int by = minY; by <= maxY; by++) {
+                            if (!cells.contains(column << 12 | (by & 0xFFF))) {
+                                continue;
+                            }
+                            double dx = bx + 0.5 - x;
+                            double dy = by + 0.5 - y;
+                            double dz = bz + 0.5 - z;
+                            if (dx * dx + dy * dy + dz * dz < radiusSquared) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void add(int x, int y, int z) {
+        ChunkCells cells = chunks.computeIfAbsent(CoordinateUtils.packChunkKey(x >> 4, z >> 4), ChunkCells::new);
+        if (cells.add(((z & 15) << 4 | (x & 15)) << 12 | (y & 0xFFF))) {
+            blockCount++;
+        }
+    }
+
+    private boolean hasFloodedColumn(int x, int z) {
+        ChunkCells cells = chunks.get(CoordinateUtils.packChunkKey(x >> 4, z >> 4));
+        return cells != null && cells.hasColumn((z & 15) << 4 | (x & 15));
+    }
+
+    private void seed(int attempts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < attempts; i++) {
+            int x = random.nextInt(borders.getMinX(), borders.getMaxX());
+            int z = random.nextInt(borders.getMinZ(), borders.getMaxZ());
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                continue;
+            }
+            int surface = world.getHighestBlockYAt(x, z);
+            if (!borders.contains(x + 0.5, surface, z + 0.5)
+                    || world.getBlockAt(x, surface, z).getType() != Material.WATER) {
+                continue;
+            }
+            // Floodwater rises one block above the water it comes from
+            offerFrontier(CoordinateUtils.packBlockKey(x, surface + 1, z));
+        }
+    }
+
+    private void offerFrontier(long key) {
+        if (frontierSize == frontier.length) {
+            long[] grown = new long[frontier.length * 2];
+            int firstPart = frontier.length - frontierHead;
+            System.arraycopy(frontier, frontierHead, grown, 0, firstPart);
+            System.arraycopy(frontier, 0, grown, firstPart, frontierHead);
+            frontier = grown;
+            frontierHead = 0;
+        }
+        frontier[(frontierHead + frontierSize) & (frontier.length - 1)] = key;
+        frontierSize++;
+    }
+
+    private long pollFrontier() {
+        long key = frontier[frontierHead];
+        frontierHead = (frontierHead + 1) & (frontier.length - 1);
+        frontierSize--;
+        return key;
+    }
+}
@@ -1,5 +1,7 @@
 package gg.doomsday.core.nations;
 
+import java.util.List;
+
 public class NationBorders {
     private final int minX;
     private final int maxX;
@@ -7,6 +9,9 @@ public class NationBorders {
     private final int maxZ;
     private final int minY;
     private final int maxY;
+    // Null for a plain box; the min/max X and Z above are then its bounding box
+    private final BorderRaster raster;
+    private final int regionCount;
 
     public NationBorders(int minX, int maxX, int minZ, int maxZ, int minY, int maxY) {
         this.minX = minX;
@@ -15,12 +20,57 @@ public class NationBorders {
         this.maxZ = maxZ;
         this.minY = minY;
         this.maxY = maxY;
+        this.raster = null;
+        this.regionCount = 1;
+    }
+
+    /**
+     * Borders made of any number of rectangles and polygons sharing one height range
+     * @param rectangles (minX, maxX, minZ, maxZ) per rectangle, max coordinates included
+     * @param polygons (x0, z0, x1, z1, ...) per polygon, at least three vertices each
+     */
+    public NationBorders(List<int[]> rectangles, List<int[]> polygons, int minY, int maxY) {
+        this.raster = new BorderRaster(rectangles, polygons);
+        this.minX = raster.getMinX();
+        this.maxX = raster.getMaxX();
+        this.minZ = raster.getMinZ();
+        this.maxZ = raster.getMaxZ();
+        this.minY = minY;
+        this.maxY = maxY;
+        this.regionCount = rectangles.size() + polygons.size();
     }
 
     public boolean contains(double x, double y, double z) {
-        return x >= minX && x <= maxX && 
-               z >= minZ && z <= maxZ && 
-               y >= minY && y <= maxY;
+        if (raster == null) {
+            return x >= minX && x <= maxX &&
+                   z >= minZ && z <= maxZ &&
+                   y >= minY && y <= maxY;
+        }
+        return y >= minY && y <= maxY && raster.contains(x, z);
+    }
+
+    /**
+     * Whether every column of the chunk is inside the borders
+     */
+    public boolean coversChunk(int chunkX, int chunkZ) {
+        if (raster != null) {
+            return raster.coversChunk(chunkX, chunkZ);
+        }
+        int x = chunkX << 4;
+        int z = chunkZ << 4;
+        // Borders include the max coordinate itself but not the rest of that block
+        return minX <= x && maxX >= x + 16 && minZ <= z && maxZ >= z + 16;
+    }
+
+    /**
+     * Whether any column of the chunk may be inside the borders
+     */
+    public boolean overlapsChunk(int chunkX, int chunkZ) {
+        if (raster != null) {
+            return raster.overlapsChunk(chunkX, chunkZ);
+        }
+        return minX >> 4 <= chunkX && maxX >> 4 >= chunkX
+            && minZ >> 4 <= chunkZ && maxZ >> 4 >= chunkZ;
     }
 
     public int getMinX() { return minX; }
@@ -32,12 +82,19 @@ public class NationBorders {
 
     public int getCenterX() { return (minX + maxX) / 2; }
     public int getCenterZ() { return (minZ + maxZ) / 2; }
-    
+
+    /**
+     * Whether the borders are a single box rather than rectangles and polygons
+     */
+    public boolean isBox() { return raster == null; }
+    public int getRegionCount() { return regionCount; }
+
     @Override
     public String toString() {
         return "NationBorders{" +
-               "x=" + minX + " to " + maxX + 
-               ", z=" + minZ + " to " + maxZ + 
-               ", y=" + minY + " to " + maxY + '}';
+               "x=" + minX + " to " + maxX +
+               ", z=" + minZ + " to " + maxZ +
+               ", y=" + minY + " to " + maxY +
+               (raster == null ? "" : ", regions=" + regionCount) + '}';
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package gg.doomsday.core.nations;
 
 import gg.doomsday.core.DoomsdayCore;
+import gg.doomsday.core.data.YamlWriteBehind;
 import gg.doomsday.core.managers.MessageManager;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -14,7 +15,10 @@ import org.bukkit.scheduler.BukkitRunnable;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -23,16 +27,21 @@ public class NationManager {
     private final Map<String, Nation> nations;
     private final MessageManager messageManager;
     private FileConfiguration nationsConfig;
+    // Mirrors runtime changes to nations.yml so they are written off the main thread
+    private YamlWriteBehind nationsWriter;
     private boolean enableDisasters;
     private int checkInterval;
     private boolean debug;
     private BukkitRunnable disasterTask;
     private DisasterEffectsHandler effectsHandler;
     private NationPlayerManager nationPlayerManager;
+    // Swapped as a whole on reload so lookups never see a half-built table
+    private volatile NationRegionIndex regionIndex = new NationRegionIndex(Collections.emptyList());
 
     public NationManager(JavaPlugin plugin) {
         this.plugin = plugin;
-        this.nations = new HashMap<>();
+        // Kept in config order so nations with overlapping borders resolve the same way every load
+        this.nations = new LinkedHashMap<>();
         this.messageManager = new MessageManager(plugin);
         loadConfiguration();
         startDisasterChecker();
@@ -50,6 +59,15 @@ public class NationManager {
             plugin.saveResource("nations.yml", false);
         }
         
+        if (nationsWriter == null) {
+            long flushIntervalMillis = ((DoomsdayCore) plugin).getConfigManager().getMainConfig()
+                .getLong("storage.flushIntervalSeconds", 5) * 1000L;
+            nationsWriter = new YamlWriteBehind(plugin, nationsFile, flushIntervalMillis);
+        } else {
+            // Write out pending player counts before re-reading the file
+            nationsWriter.reload();
+        }
+        
         nationsConfig = YamlConfiguration.loadConfiguration(nationsFile);
         
         // Load default configuration from resource if file is empty
@@ -61,8 +79,12 @@ public class NationManager {
         
         loadGlobalSettings();
         loadNations();
+        regionIndex = new NationRegionIndex(nations.values());
         
         plugin.getLogger().info("Loaded " + nations.size() + " nations with disaster systems");
+        if (debug) {
+            plugin.getLogger().info("Nation region index covers " + regionIndex.getChunkCount() + " chunks");
+        }
     }
 
     private void loadGlobalSettings() {
@@ -100,14 +122,10 @@ public class NationManager {
                 continue;
             }
             
-            NationBorders borders = new NationBorders(
-                borderSection.getInt("minX"),
-                borderSection.getInt("maxX"),
-                borderSection.getInt("minZ"),
-                borderSection.getInt("maxZ"),
-                borderSection.getInt("minY"),
-                borderSection.getInt("maxY")
-            );
+            NationBorders borders = loadBorders(nationId, borderSection);
+            if (borders == null) {
+                continue;
+            }
             
             Nation nation = new Nation(nationId, displayName, borders);
             
@@ -153,6 +171,75 @@ public class NationManager {
         }
     }
 
+    /**
+     * Read a nation's borders: either a single box from minX/maxX/minZ/maxZ, or a list of
+     * rectangles and polygons under "regions". Both use minY/maxY for height.
+     */
+    private NationBorders loadBorders(String nationId, ConfigurationSection borderSection) {
+        int minY = borderSection.getInt("minY");
+        int maxY = borderSection.getInt("maxY");
+        
+        if (!borderSection.contains("regions")) {
+            return new NationBorders(
+                borderSection.getInt("minX"),
+                borderSection.getInt("maxX"),
+                borderSection.getInt("minZ"),
+                borderSection.getInt("maxZ"),
+                minY,
+                maxY
+            );
+        }
+        
+        List<int[]> rectangles = new ArrayList<>();
+        List<int[]> polygons = new ArrayList<>();
+        for (Map<?, ?> region : borderSection.getMapList("regions")) {
+            Object polygon = region.get("polygon");
+            if (polygon instanceof List) {
+                List<?> points = (List<?>) polygon;
+                int[] vertices = new int[points.size() * 2];
+                boolean valid = points.size() >= 3;
+                for (int i = 0; i < points.size() && valid; i++) {
+                    Object point = points.get(i);
+                    if (point instanceof List && ((List<?>) point).size() == 2
+                            && ((List<?>) point).get(0) instanceof Number && ((List<?>) point).get(1) instanceof Number) {
+                        vertices[i * 2] = ((Number) ((List<?>) point).get(0)).intValue();
+                        vertices[i * 2 + 1] = ((Number) ((List<?>) point).get(1)).intValue();
+                    } else {
+                        valid = false;
+                    }
+                }
+                if (valid) {
+                    polygons.add(vertices);
+                } else {
+                    plugin.getLogger().warning("Skipping polygon for nation " + nationId
+                        + ": needs at least 3 points written as [x, z]");
+                }
+            } else if (region.get("minX") instanceof Number && region.get("maxX") instanceof Number
+                    && region.get("minZ") instanceof Number && region.get("maxZ") instanceof Number) {
+                rectangles.add(new int[] {
+                    ((Number) region.get("minX")).intValue(),
+                    ((Number) region.get("maxX")).intValue(),
+                    ((Number) region.get("minZ")).intValue(),
+                    ((Number) region.get("maxZ")).intValue()
+                });
+            } else {
+                plugin.getLogger().warning("Skipping region for nation " + nationId
+                    + ": expected minX/maxX/minZ/maxZ or a polygon");
+            }
+        }
+        
+        if (rectangles.isEmpty() && polygons.isEmpty()) {
+            plugin.getLogger().warning("No valid border regions defined for nation: " + nationId);
+            return null;
+        }
+        try {
+            return new NationBorders(rectangles, polygons, minY, maxY);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid borders for nation " + nationId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     private void startDisasterChecker() {
         if (disasterTask != null) {
             disasterTask.cancel();
@@ -281,16 +368,19 @@ public class NationManager {
     }
 
     public Nation getNationAt(double x, double y, double z) {
-        for (Nation nation : nations.values()) {
-            if (nation.containsLocation(x, y, z)) {
-                return nation;
-            }
-        }
-        return null;
+        return regionIndex.getNationAt(x, y, z);
+    }
+
+    /**
+     * Nation owning a chunk column, ignoring height. Chunks on a border resolve to the
+     * nation covering the whole chunk if there is one.
+     */
+    public Nation getNationAtChunk(int chunkX, int chunkZ) {
+        return regionIndex.getNationAtChunk(chunkX, chunkZ);
     }
 
     public Map<String, Nation> getAllNations() {
-        return new HashMap<>(nations);
+        return new LinkedHashMap<>(nations);
     }
 
     public void reload() {
@@ -317,6 +407,10 @@ public class NationManager {
         if (effectsHandler != null) {
             effectsHandler.shutdown();
         }
+        
+        if (nationsWriter != null) {
+            nationsWriter.shutdown();
+        }
     }
 
     public boolean isDebugEnabled() {
@@ -324,14 +418,9 @@ public class NationManager {
     }
     
     public void saveNationPlayerCount(String nationId, int playerCount) {
-        nationsConfig.set("nations." + nationId + ".totalPlayers", playerCount);
-        
-        try {
-            File nationsFile = new File(plugin.getDataFolder(), "nations.yml");
-            nationsConfig.save(nationsFile);
-        } catch (Exception e) {
-            plugin.getLogger().severe("Could not save nations.yml: " + e.getMessage());
-        }
+        String path = "nations." + nationId + ".totalPlayers";
+        nationsConfig.set(path, playerCount);
+        nationsWriter.set(path, playerCount);
     }
 
     /**
@@ -4,328 +4,586 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.function.Consumer;
 
 /**
  * Centralized in-memory cache for player nation assignments.
  * This provides fast O(1) lookups for player nations without file I/O.
- * 
+ *
  * Key features:
  * - Fast nation lookups for any player (online/offline)
  * - Automatic synchronization with persistent storage
  * - Thread-safe concurrent access
  * - Efficient bulk operations for nation management
- * 
+ * - Per-nation member sets are immutable snapshots, replaced whole when membership
+ *   changes, so readers get them without copying
+ *
+ * The single source of truth is one map from player to membership (their nation
+ * slot plus the Player while online). The per-nation snapshots are derived from it
+ * and only ever changed together with it, under this cache's lock; reads take no lock.
+ * {@link #verify(Collection)} checks that the two still agree.
+ *
  * Usage:
  * - Use this cache for all nation lookups instead of direct file access
  * - Cache is automatically updated when players join/leave nations
  * - Provides both individual and bulk lookup methods
  */
 public class NationPlayerCache {
-    
+
+    /**
+     * A player's nation and, while they are online, their Player object. Holding the slot
+     * itself means lock-free readers never index the slots array, which clear() and
+     * removeNation() may replace under them.
+     */
+    private static final class Membership {
+        final NationSlot nation;
+        final Player online;
+
+        Membership(NationSlot nation, Player online) {
+            this.nation = nation;
+            this.online = online;
+        }
+    }
+
+    /**
+     * Immutable snapshot of one nation's online members. Join and quit only copy two
+     * small arrays; the Set view is built the first time someone asks for it.
+     */
+    private static final class OnlineRoster {
+        static final OnlineRoster EMPTY = new OnlineRoster(new UUID[0], new Player[0]);
+
+        final UUID[] ids;
+        final Player[] players;
+        private Set<UUID> idSet;
+
+        private OnlineRoster(UUID[] ids, Player[] players) {
+            this.ids = ids;
+            this.players = players;
+        }
+
+        Set<UUID> playerIds() {
+            Set<UUID> view = idSet;
+            if (view == null) {
+                // Racing threads build equal sets, so whichever one is kept is fine
+                view = ids.length == 0 ? Collections.emptySet()
+                    : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ids)));
+                idSet = view;
+            }
+            return view;
+        }
+
+        int indexOf(UUID playerId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i].equals(playerId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        OnlineRoster with(Player player) {
+            UUID playerId = player.getUniqueId();
+            int index = indexOf(playerId);
+            if (index >= 0) {
+                Player[] updated = players.clone();
+                updated[index] = player;
+                return new OnlineRoster(ids, updated);
+            }
+            UUID[] updatedIds = Arrays.copyOf(ids, ids.length + 1);
+            Player[] updated = Arrays.copyOf(players, players.length + 1);
+            updatedIds[ids.length] = playerId;
+            updated[players.length] = player;
+            return new OnlineRoster(updatedIds, updated);
+        }
+
+        OnlineRoster without(UUID playerId) {
+            int index = indexOf(playerId);
+            if (index < 0) {
+                return this;
+            }
+            // Move the last entry into the gap; order does not matter
+            int last = ids.length - 1;
+            UUID[] updatedIds = Arrays.copyOf(ids, last);
+            Player[] updated = Arrays.copyOf(players, last);
+            if (index < last) {
+                updatedIds[index] = ids[last];
+                updated[index] = players[last];
+            }
+            return new OnlineRoster(updatedIds, updated);
+        }
+    }
+
+    /**
+     * One nation's derived snapshots
+     */
+    private static final class NationSlot {
+        final String id;
+        final int index;
+        volatile Set<UUID> members = Collections.emptySet();
+        volatile OnlineRoster online = OnlineRoster.EMPTY;
+
+        NationSlot(String id, int index) {
+            this.id = id;
+            this.index = index;
+        }
+    }
+
     private final JavaPlugin plugin;
-    
-    // Core cache: UUID -> Nation ID
-    private final Map<UUID, String> playerNationCache = new ConcurrentHashMap<>();
-    
-    // Reverse lookup: Nation ID -> Set of Player UUIDs
-    private final Map<String, Set<UUID>> nationPlayersCache = new ConcurrentHashMap<>();
-    
-    // Online player tracking: UUID -> Nation ID (for online players only)
-    private final Map<UUID, String> onlinePlayerNations = new ConcurrentHashMap<>();
-    
-    // Online players by nation: Nation ID -> Set of Online Player UUIDs  
-    private final Map<String, Set<UUID>> onlinePlayersByNation = new ConcurrentHashMap<>();
-    
+
+    // Source of truth: UUID -> nation slot and online Player
+    private final Map<UUID, Membership> memberships = new ConcurrentHashMap<>();
+
+    // Nation ID -> slot, and slot index -> slot (null once a nation is removed)
+    private final Map<String, NationSlot> nationsById = new ConcurrentHashMap<>();
+    private volatile NationSlot[] slots = new NationSlot[0];
+
     private boolean debug = false;
-    
+
     public NationPlayerCache(JavaPlugin plugin) {
         this.plugin = plugin;
     }
-    
+
     /**
      * Initialize the cache from persistent storage
      */
-    public void initialize(Map<UUID, String> initialData, Set<String> nationIds) {
+    public synchronized void initialize(Map<UUID, String> initialData, Set<String> nationIds) {
         // Clear existing cache
         clear();
-        
-        // Initialize nation sets
+
         for (String nationId : nationIds) {
-            nationPlayersCache.put(nationId, ConcurrentHashMap.newKeySet());
-            onlinePlayersByNation.put(nationId, ConcurrentHashMap.newKeySet());
+            slotFor(nationId);
         }
-        
+
         // Load all player data into cache
         for (Map.Entry<UUID, String> entry : initialData.entrySet()) {
             UUID playerId = entry.getKey();
             String nationId = entry.getValue();
-            
+
             if (nationId != null) {
-                playerNationCache.put(playerId, nationId);
-                nationPlayersCache.computeIfAbsent(nationId, k -> ConcurrentHashMap.newKeySet()).add(playerId);
-                
-                // Track online players
                 Player player = Bukkit.getPlayer(playerId);
-                if (player != null && player.isOnline()) {
-                    onlinePlayerNations.put(playerId, nationId);
-                    onlinePlayersByNation.get(nationId).add(playerId);
-                }
+                Player online = player != null && player.isOnline() ? player : null;
+                memberships.put(playerId, new Membership(slotFor(nationId), online));
             }
         }
-        
+
+        rebuildSnapshots();
+
         if (debug) {
-            plugin.getLogger().info("NationPlayerCache initialized with " + playerNationCache.size() + " players across " + nationIds.size() + " nations");
+            plugin.getLogger().info("NationPlayerCache initialized with " + memberships.size() + " players across " + nationIds.size() + " nations");
         }
     }
-    
+
     /**
      * Get a player's nation ID (works for online and offline players)
      * @param playerId Player UUID
      * @return Nation ID or null if player has no nation
      */
     public String getPlayerNation(UUID playerId) {
-        return playerNationCache.get(playerId);
+        Membership membership = memberships.get(playerId);
+        return membership != null ? membership.nation.id : null;
     }
-    
+
     /**
      * Get a player's nation ID (online players only - faster lookup)
-     * @param playerId Player UUID  
+     * @param playerId Player UUID
      * @return Nation ID or null if player is offline or has no nation
      */
     public String getOnlinePlayerNation(UUID playerId) {
-        return onlinePlayerNations.get(playerId);
+        Membership membership = memberships.get(playerId);
+        return membership != null && membership.online != null ? membership.nation.id : null;
     }
-    
+
     /**
      * Check if a player is in a nation
      * @param playerId Player UUID
      * @return true if player is in a nation
      */
     public boolean hasPlayerJoinedNation(UUID playerId) {
-        return playerNationCache.containsKey(playerId);
+        return memberships.containsKey(playerId);
     }
-    
+
     /**
      * Get all players in a specific nation (online and offline)
      * @param nationId Nation ID
-     * @return Set of player UUIDs (never null, may be empty)
+     * @return Unmodifiable snapshot of player UUIDs (never null, may be empty); later
+     *         membership changes do not affect it
      */
     public Set<UUID> getPlayersInNation(String nationId) {
-        return new HashSet<>(nationPlayersCache.getOrDefault(nationId, Collections.emptySet()));
+        NationSlot slot = nationsById.get(nationId);
+        return slot != null ? slot.members : Collections.emptySet();
     }
-    
+
     /**
      * Get all online players in a specific nation
      * @param nationId Nation ID
-     * @return Set of online player UUIDs (never null, may be empty)
+     * @return Unmodifiable snapshot of online player UUIDs (never null, may be empty);
+     *         later joins and quits do not affect it
      */
     public Set<UUID> getOnlinePlayersInNation(String nationId) {
-        return new HashSet<>(onlinePlayersByNation.getOrDefault(nationId, Collections.emptySet()));
+        return rosterOf(nationId).playerIds();
     }
-    
+
+    /**
+     * Run an action for every online player in a nation, without looking players up by UUID
+     * @param nationId Nation ID
+     * @param action Action to run for each player
+     */
+    public void forEachOnlineInNation(String nationId, Consumer<Player> action) {
+        for (Player player : rosterOf(nationId).players) {
+            action.accept(player);
+        }
+    }
+
     /**
      * Get count of all players in a nation (online and offline)
      * @param nationId Nation ID
      * @return Player count
      */
     public int getPlayerCountInNation(String nationId) {
-        return nationPlayersCache.getOrDefault(nationId, Collections.emptySet()).size();
+        return getPlayersInNation(nationId).size();
     }
-    
+
     /**
      * Get count of online players in a nation
      * @param nationId Nation ID
      * @return Online player count
      */
     public int getOnlinePlayerCountInNation(String nationId) {
-        return onlinePlayersByNation.getOrDefault(nationId, Collections.emptySet()).size();
+        return rosterOf(nationId).players.length;
     }
-    
+
     /**
      * Get online player counts for all nations
      * @return Map of Nation ID -> Online Player Count
      */
     public Map<String, Integer> getOnlinePlayerCountsByNation() {
-        Map<String, Integer> counts = new ConcurrentHashMap<>();
-        for (Map.Entry<String, Set<UUID>> entry : onlinePlayersByNation.entrySet()) {
-            counts.put(entry.getKey(), entry.getValue().size());
+        Map<String, Integer> counts = new HashMap<>();
+        for (NationSlot slot : nationsById.values()) {
+            counts.put(slot.id, slot.online.players.length);
         }
         return counts;
     }
-    
+
     /**
      * Get total player counts for all nations (online and offline)
      * @return Map of Nation ID -> Total Player Count
      */
     public Map<String, Integer> getPlayerCountsByNation() {
-        Map<String, Integer> counts = new ConcurrentHashMap<>();
-        for (Map.Entry<String, Set<UUID>> entry : nationPlayersCache.entrySet()) {
-            counts.put(entry.getKey(), entry.getValue().size());
+        Map<String, Integer> counts = new HashMap<>();
+        for (NationSlot slot : nationsById.values()) {
+            counts.put(slot.id, slot.members.size());
         }
         return counts;
     }
-    
+
     /**
      * Add a player to a nation in the cache
      * @param playerId Player UUID
      * @param nationId Nation ID
      */
-    public void addPlayerToNation(UUID playerId, String nationId) {
+    public synchronized void addPlayerToNation(UUID playerId, String nationId) {
         // Remove from previous nation if exists
         removePlayerFromNation(playerId);
-        
+
         // Add to new nation
         if (nationId != null) {
-            playerNationCache.put(playerId, nationId);
-            nationPlayersCache.computeIfAbsent(nationId, k -> ConcurrentHashMap.newKeySet()).add(playerId);
-            
-            // Update online tracking if player is online
+            NationSlot slot = slotFor(nationId);
+
+            // Track online status if player is online
             Player player = Bukkit.getPlayer(playerId);
-            if (player != null && player.isOnline()) {
-                onlinePlayerNations.put(playerId, nationId);
-                onlinePlayersByNation.computeIfAbsent(nationId, k -> ConcurrentHashMap.newKeySet()).add(playerId);
+            Player online = player != null && player.isOnline() ? player : null;
+            memberships.put(playerId, new Membership(slot, online));
+            slot.members = withMember(slot.members, playerId);
+            if (online != null) {
+                slot.online = slot.online.with(online);
             }
-            
+
             if (debug) {
                 plugin.getLogger().info("Cache: Added player " + playerId + " to nation " + nationId);
             }
         }
     }
-    
+
     /**
      * Remove a player from their nation in the cache
      * @param playerId Player UUID
      */
-    public void removePlayerFromNation(UUID playerId) {
-        String previousNation = playerNationCache.remove(playerId);
-        if (previousNation != null) {
-            Set<UUID> nationPlayers = nationPlayersCache.get(previousNation);
-            if (nationPlayers != null) {
-                nationPlayers.remove(playerId);
-            }
-            
-            // Remove from online tracking
-            onlinePlayerNations.remove(playerId);
-            Set<UUID> onlineNationPlayers = onlinePlayersByNation.get(previousNation);
-            if (onlineNationPlayers != null) {
-                onlineNationPlayers.remove(playerId);
-            }
-            
+    public synchronized void removePlayerFromNation(UUID playerId) {
+        Membership previous = memberships.remove(playerId);
+        if (previous != null) {
+            NationSlot slot = previous.nation;
+            slot.members = withoutMember(slot.members, playerId);
+            slot.online = slot.online.without(playerId);
+
             if (debug) {
-                plugin.getLogger().info("Cache: Removed player " + playerId + " from nation " + previousNation);
+                plugin.getLogger().info("Cache: Removed player " + playerId + " from nation " + slot.id);
             }
         }
     }
-    
+
     /**
      * Update online status when player joins server
-     * @param playerId Player UUID
+     * @param player The joining player
      */
-    public void onPlayerJoin(UUID playerId) {
-        String nationId = playerNationCache.get(playerId);
-        if (nationId != null) {
-            onlinePlayerNations.put(playerId, nationId);
-            onlinePlayersByNation.computeIfAbsent(nationId, k -> ConcurrentHashMap.newKeySet()).add(playerId);
-            
+    public synchronized void onPlayerJoin(Player player) {
+        UUID playerId = player.getUniqueId();
+        Membership membership = memberships.get(playerId);
+        if (membership != null) {
+            memberships.put(playerId, new Membership(membership.nation, player));
+            NationSlot slot = membership.nation;
+            slot.online = slot.online.with(player);
+
             if (debug) {
-                plugin.getLogger().info("Cache: Player " + playerId + " joined - added to online tracking for nation " + nationId);
+                plugin.getLogger().info("Cache: Player " + playerId + " joined - added to online tracking for nation " + slot.id);
             }
         }
     }
-    
+
     /**
      * Update online status when player leaves server
      * @param playerId Player UUID
      */
-    public void onPlayerQuit(UUID playerId) {
-        String nationId = onlinePlayerNations.remove(playerId);
-        if (nationId != null) {
-            Set<UUID> onlineNationPlayers = onlinePlayersByNation.get(nationId);
-            if (onlineNationPlayers != null) {
-                onlineNationPlayers.remove(playerId);
-            }
-            
+    public synchronized void onPlayerQuit(UUID playerId) {
+        Membership membership = memberships.get(playerId);
+        if (membership != null && membership.online != null) {
+            memberships.put(playerId, new Membership(membership.nation, null));
+            NationSlot slot = membership.nation;
+            slot.online = slot.online.without(playerId);
+
             if (debug) {
                 plugin.getLogger().info("Cache: Player " + playerId + " quit - removed from online tracking");
             }
         }
     }
-    
+
     /**
      * Get all players currently online and in nations
      * @return Set of online player UUIDs in nations
      */
     public Set<UUID> getAllOnlinePlayersInNations() {
-        return new HashSet<>(onlinePlayerNations.keySet());
+        Set<UUID> online = new HashSet<>();
+        for (NationSlot slot : nationsById.values()) {
+            online.addAll(Arrays.asList(slot.online.ids));
+        }
+        return online;
     }
-    
+
     /**
      * Check if a player is online and in a nation
      * @param playerId Player UUID
      * @return true if player is online and in a nation
      */
     public boolean isPlayerOnlineInNation(UUID playerId) {
-        return onlinePlayerNations.containsKey(playerId);
+        Membership membership = memberships.get(playerId);
+        return membership != null && membership.online != null;
     }
-    
+
     /**
      * Add a nation to the cache (when new nations are created)
      * @param nationId Nation ID
      */
-    public void addNation(String nationId) {
-        nationPlayersCache.putIfAbsent(nationId, ConcurrentHashMap.newKeySet());
-        onlinePlayersByNation.putIfAbsent(nationId, ConcurrentHashMap.newKeySet());
-        
+    public synchronized void addNation(String nationId) {
+        slotFor(nationId);
+
         if (debug) {
             plugin.getLogger().info("Cache: Added new nation " + nationId);
         }
     }
-    
+
     /**
      * Remove a nation from the cache (when nations are deleted)
      * @param nationId Nation ID
      */
-    public void removeNation(String nationId) {
+    public synchronized void removeNation(String nationId) {
         // Remove all players from this nation
-        Set<UUID> playersInNation = nationPlayersCache.remove(nationId);
-        if (playersInNation != null) {
-            for (UUID playerId : playersInNation) {
-                playerNationCache.remove(playerId);
-                onlinePlayerNations.remove(playerId);
+        NationSlot slot = nationsById.remove(nationId);
+        if (slot != null) {
+            for (UUID playerId : slot.members) {
+                memberships.remove(playerId);
             }
+            // Keep the other slots' indexes stable
+            NationSlot[] updated = slots.clone();
+            updated[slot.index] = null;
+            slots = updated;
         }
-        onlinePlayersByNation.remove(nationId);
-        
+
         if (debug) {
             plugin.getLogger().info("Cache: Removed nation " + nationId);
         }
     }
-    
+
     /**
      * Clear all cache data
      */
-    public void clear() {
-        playerNationCache.clear();
-        nationPlayersCache.clear();
-        onlinePlayerNations.clear();
-        onlinePlayersByNation.clear();
+    public synchronized void clear() {
+        memberships.clear();
+        nationsById.clear();
+        slots = new NationSlot[0];
     }
-    
+
+    /**
+     * Check the per-nation snapshots against the membership map, and online status
+     * against the players actually on the server
+     * @param onlinePlayers Players currently on the server
+     * @return Description of each inconsistency found (empty if none)
+     */
+    public synchronized List<String> verify(Collection<? extends Player> onlinePlayers) {
+        List<String> problems = new ArrayList<>();
+        NationSlot[] current = slots;
+        int[] expectedMembers = new int[current.length];
+        int[] expectedOnline = new int[current.length];
+
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            UUID playerId = entry.getKey();
+            Membership membership = entry.getValue();
+            NationSlot slot = membership.nation;
+            if (slot.index >= current.length || current[slot.index] != slot) {
+                problems.add(playerId + " belongs to a nation that no longer exists");
+                continue;
+            }
+            expectedMembers[slot.index]++;
+            if (!slot.members.contains(playerId)) {
+                problems.add(playerId + " is missing from " + slot.id + "'s member set");
+            }
+            if (membership.online != null) {
+                expectedOnline[slot.index]++;
+                int index = slot.online.indexOf(playerId);
+                if (index < 0 || slot.online.players[index] != membership.online) {
+                    problems.add(playerId + " is online but missing from " + slot.id + "'s online roster");
+                }
+            }
+        }
+
+        for (NationSlot slot : current) {
+            if (slot == null) continue;
+            if (slot.members.size() != expectedMembers[slot.index]) {
+                problems.add(slot.id + " lists " + slot.members.size() + " members, expected " + expectedMembers[slot.index]);
+            }
+            if (slot.online.players.length != expectedOnline[slot.index]) {
+                problems.add(slot.id + " lists " + slot.online.players.length + " online players, expected " + expectedOnline[slot.index]);
+            }
+        }
+
+        Map<UUID, Player> server = new HashMap<>();
+        for (Player player : onlinePlayers) {
+            server.put(player.getUniqueId(), player);
+            Membership membership = memberships.get(player.getUniqueId());
+            if (membership != null && membership.online != player) {
+                problems.add(player.getName() + " is online but tracked as " + (membership.online == null ? "offline" : "a stale player object"));
+            }
+        }
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            if (entry.getValue().online != null && !server.containsKey(entry.getKey())) {
+                problems.add(entry.getKey() + " is tracked as online but is not on the server");
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * Reset online status from the players actually on the server and rebuild every
+     * per-nation snapshot from the membership map
+     * @param onlinePlayers Players currently on the server
+     */
+    public synchronized void resync(Collection<? extends Player> onlinePlayers) {
+        Map<UUID, Player> server = new HashMap<>();
+        for (Player player : onlinePlayers) {
+            server.put(player.getUniqueId(), player);
+        }
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            entry.setValue(new Membership(entry.getValue().nation, server.get(entry.getKey())));
+        }
+        rebuildSnapshots();
+    }
+
+    private OnlineRoster rosterOf(String nationId) {
+        NationSlot slot = nationsById.get(nationId);
+        return slot != null ? slot.online : OnlineRoster.EMPTY;
+    }
+
+    private NationSlot slotFor(String nationId) {
+        NationSlot slot = nationsById.get(nationId);
+        if (slot == null) {
+            NationSlot[] updated = Arrays.copyOf(slots, slots.length + 1);
+            slot = new NationSlot(nationId, slots.length);
+            updated[slot.index] = slot;
+            // Publish the slot by index before anyone can find it by ID
+            slots = updated;
+            nationsById.put(nationId, slot);
+        }
+        return slot;
+    }
+
+    private void rebuildSnapshots() {
+        NationSlot[] current = slots;
+        List<Set<UUID>> members = new ArrayList<>();
+        List<List<Player>> online = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+            members.add(new HashSet<>());
+            online.add(new ArrayList<>());
+        }
+        for (Map.Entry<UUID, Membership> entry : memberships.entrySet()) {
+            Membership membership = entry.getValue();
+            members.get(membership.nation.index).add(entry.getKey());
+            if (membership.online != null) {
+                online.get(membership.nation.index).add(membership.online);
+            }
+        }
+        for (NationSlot slot : current) {
+            if (slot == null) continue;
+            List<Player> players = online.get(slot.index);
+            UUID[] ids = new UUID[players.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = players.get(i).getUniqueId();
+            }
+            slot.members = Collections.unmodifiableSet(members.get(slot.index));
+            slot.online = new OnlineRoster(ids, players.toArray(new Player[0]));
+        }
+    }
+
+    private static Set<UUID> withMember(Set<UUID> members, UUID playerId) {
+        if (members.contains(playerId)) {
+            return members;
+        }
+        Set<UUID> updated = new HashSet<>(members);
+        updated.add(playerId);
+        return Collections.unmodifiableSet(updated);
+    }
+
+    private static Set<UUID> withoutMember(Set<UUID> members, UUID playerId) {
+        if (!members.contains(playerId)) {
+            return members;
+        }
+        Set<UUID> updated = new HashSet<>(members);
+        updated.remove(playerId);
+        return Collections.unmodifiableSet(updated);
+    }
+
     /**
      * Get cache statistics for debugging
      * @return String with cache statistics
      */
     public String getCacheStats() {
-        return String.format("NationPlayerCache Stats: %d total players, %d online players, %d nations", 
-            playerNationCache.size(), onlinePlayerNations.size(), nationPlayersCache.size());
+        int online = 0;
+        for (NationSlot slot : nationsById.values()) {
+            online += slot.online.players.length;
+        }
+        return String.format("NationPlayerCache Stats: %d total players, %d online players, %d nations",
+            memberships.size(), online, nationsById.size());
     }
-    
+
     /**
      * Enable/disable debug logging
      * @param debug true to enable debug logging
@@ -333,7 +591,7 @@ public class NationPlayerCache {
     public void setDebug(boolean debug) {
         this.debug = debug;
     }
-    
+
     /**
      * Check if debug logging is enabled
      * @return true if debug logging is enabled
@@ -341,4 +599,4 @@ public class NationPlayerCache {
     public boolean isDebugEnabled() {
         return debug;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package gg.doomsday.core.nations;
 
+import gg.doomsday.core.DoomsdayCore;
 import gg.doomsday.core.data.PlayerDataManager;
+import gg.doomsday.core.data.YamlWriteBehind;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -12,11 +14,10 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class NationPlayerManager implements Listener {
     private final JavaPlugin plugin;
@@ -24,14 +25,12 @@ public class NationPlayerManager implements Listener {
     private final PlayerDataManager playerDataManager;
     private FileConfiguration playersConfig;
     private File playersFile;
+    // Mirrors every change to playersConfig so nation_players.yml is written off the main thread
+    private YamlWriteBehind playersWriter;
     
-    // Centralized in-memory cache for fast nation lookups
+    // Centralized in-memory cache for nation lookups and online tracking
     private final NationPlayerCache nationPlayerCache;
     
-    // Legacy: Keep old tracking for backward compatibility (deprecated)
-    private final Map<String, Set<UUID>> onlinePlayersByNation = new ConcurrentHashMap<>();
-    private final Map<UUID, String> onlinePlayerNations = new ConcurrentHashMap<>();
-    
     public NationPlayerManager(JavaPlugin plugin, NationManager nationManager, PlayerDataManager playerDataManager) {
         this.plugin = plugin;
         this.nationManager = nationManager;
@@ -40,7 +39,6 @@ public class NationPlayerManager implements Listener {
         
         loadConfiguration();
         initializeCache();
-        initializeOnlinePlayerTracking(); // Legacy support
         
         // Register as event listener
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
@@ -53,6 +51,15 @@ public class NationPlayerManager implements Listener {
             plugin.saveResource("nation_players.yml", false);
         }
         
+        if (playersWriter == null) {
+            long flushIntervalMillis = ((DoomsdayCore) plugin).getConfigManager().getMainConfig()
+                .getLong("storage.flushIntervalSeconds", 5) * 1000L;
+            playersWriter = new YamlWriteBehind(plugin, playersFile, flushIntervalMillis);
+        } else {
+            // Write out pending changes before re-reading the file
+            playersWriter.reload();
+        }
+        
         playersConfig = YamlConfiguration.loadConfiguration(playersFile);
         
         InputStream defConfigStream = plugin.getResource("nation_players.yml");
@@ -85,12 +92,23 @@ public class NationPlayerManager implements Listener {
         plugin.getLogger().info("Initialized nation player cache with " + playerData.size() + " players");
     }
     
+    /**
+     * Write pending changes now instead of waiting for the next background flush
+     */
     public void saveConfiguration() {
-        try {
-            playersConfig.save(playersFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save nation_players.yml: " + e.getMessage());
-        }
+        playersWriter.flush();
+    }
+    
+    /**
+     * Write pending changes and stop the background writer
+     */
+    public void shutdown() {
+        playersWriter.shutdown();
+    }
+    
+    private void setPlayerData(String path, Object value) {
+        playersConfig.set(path, value);
+        playersWriter.set(path, value);
     }
     
     public boolean canPlayerSwitch(UUID playerId) {
@@ -172,9 +190,9 @@ public class NationPlayerManager implements Listener {
         }
         
         long currentTime = System.currentTimeMillis();
-        playersConfig.set("players." + playerId + ".nation", nationId);
-        playersConfig.set("players." + playerId + ".joinDate", currentTime);
-        playersConfig.set("players." + playerId + ".canSwitch", canPlayerSwitch(playerId));
+        setPlayerData("players." + playerId + ".nation", nationId);
+        setPlayerData("players." + playerId + ".joinDate", currentTime);
+        setPlayerData("players." + playerId + ".canSwitch", canPlayerSwitch(playerId));
         
         updateNationPlayerCount(nationId, 1);
         
@@ -184,13 +202,6 @@ public class NationPlayerManager implements Listener {
         // Update PlayerDataManager immediately
         playerDataManager.setPlayerNation(playerId, nationId);
         
-        // Update legacy online tracking if player is online
-        if (player.isOnline()) {
-            addPlayerToOnlineTracking(playerId, nationId);
-        }
-        
-        saveConfiguration();
-        
         plugin.getLogger().info("Player " + player.getName() + " joined nation: " + nationId);
         return true;
     }
@@ -217,7 +228,7 @@ public class NationPlayerManager implements Listener {
             return false;
         }
         
-        playersConfig.set("players." + playerId, null);
+        setPlayerData("players." + playerId, null);
         
         updateNationPlayerCount(currentNation, -1);
         
@@ -227,11 +238,6 @@ public class NationPlayerManager implements Listener {
         // Update PlayerDataManager immediately (clear nation)
         playerDataManager.setPlayerNation(playerId, "");
         
-        // Update legacy online tracking if player is online
-        if (player.isOnline()) {
-            removePlayerFromOnlineTracking(playerId);
-        }
-        
         if (saveConfig) {
             saveConfiguration();
         }
@@ -294,71 +300,21 @@ public class NationPlayerManager implements Listener {
         loadConfiguration();
         initializeCache(); // Reload cache from updated config
         recalculateNationPlayerCounts();
-        initializeOnlinePlayerTracking();
-    }
-    
-    /**
-     * Initialize the in-memory tracking by scanning all currently online players
-     */
-    private void initializeOnlinePlayerTracking() {
-        // Clear existing tracking
-        onlinePlayersByNation.clear();
-        onlinePlayerNations.clear();
-        
-        // Initialize nation sets
-        for (String nationId : nationManager.getAllNations().keySet()) {
-            onlinePlayersByNation.put(nationId, ConcurrentHashMap.newKeySet());
-        }
-        
-        // Scan all online players and add to tracking
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            String nationId = getPlayerNation(player.getUniqueId());
-            if (nationId != null) {
-                addPlayerToOnlineTracking(player.getUniqueId(), nationId);
-            }
-        }
-        
-        plugin.getLogger().info("Initialized online player tracking. Nations: " + getOnlinePlayerCountsByNation());
+        plugin.getLogger().info("Online nation players: " + getOnlinePlayerCountsByNation());
     }
     
     /**
-     * Add a player to online tracking
+     * Get all online players in a specific nation
      */
-    private void addPlayerToOnlineTracking(UUID playerId, String nationId) {
-        // Remove from previous nation if exists
-        String previousNation = onlinePlayerNations.remove(playerId);
-        if (previousNation != null) {
-            Set<UUID> previousSet = onlinePlayersByNation.get(previousNation);
-            if (previousSet != null) {
-                previousSet.remove(playerId);
-            }
-        }
-        
-        // Add to new nation
-        if (nationId != null && onlinePlayersByNation.containsKey(nationId)) {
-            onlinePlayersByNation.get(nationId).add(playerId);
-            onlinePlayerNations.put(playerId, nationId);
-        }
+    public Set<UUID> getOnlinePlayersInNation(String nationId) {
+        return nationPlayerCache.getOnlinePlayersInNation(nationId);
     }
     
     /**
-     * Remove a player from online tracking
+     * Run an action for every online player in a nation
      */
-    private void removePlayerFromOnlineTracking(UUID playerId) {
-        String nationId = onlinePlayerNations.remove(playerId);
-        if (nationId != null) {
-            Set<UUID> nationSet = onlinePlayersByNation.get(nationId);
-            if (nationSet != null) {
-                nationSet.remove(playerId);
-            }
-        }
-    }
-    
-    /**
-     * Get all online players in a specific nation
-     */
-    public Set<UUID> getOnlinePlayersInNation(String nationId) {
-        return nationPlayerCache.getOnlinePlayersInNation(nationId);
+    public void forEachOnlineInNation(String nationId, Consumer<Player> action) {
+        nationPlayerCache.forEachOnlineInNation(nationId, action);
     }
     
     /**
@@ -418,12 +374,12 @@ public class NationPlayerManager implements Listener {
      * Set global join/leave permissions
      */
     public void setAllowPlayerJoining(boolean allow) {
-        playersConfig.set("settings.allowPlayerJoining", allow);
+        setPlayerData("settings.allowPlayerJoining", allow);
         saveConfiguration();
     }
     
     public void setAllowPlayerLeaving(boolean allow) {
-        playersConfig.set("settings.allowPlayerLeaving", allow);
+        setPlayerData("settings.allowPlayerLeaving", allow);
         saveConfiguration();
     }
     
@@ -438,17 +394,8 @@ public class NationPlayerManager implements Listener {
     // Event handlers to maintain online tracking
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-        UUID playerId = player.getUniqueId();
-        
         // Update cache with online status
-        nationPlayerCache.onPlayerJoin(playerId);
-        
-        // Legacy tracking
-        String nationId = getPlayerNation(playerId);
-        if (nationId != null) {
-            addPlayerToOnlineTracking(playerId, nationId);
-        }
+        nationPlayerCache.onPlayerJoin(event.getPlayer());
     }
     
     @EventHandler
@@ -457,9 +404,6 @@ public class NationPlayerManager implements Listener {
         
         // Update cache with offline status
         nationPlayerCache.onPlayerQuit(playerId);
-        
-        // Legacy tracking
-        removePlayerFromOnlineTracking(playerId);
     }
     
     /**
@@ -488,6 +432,22 @@ public class NationPlayerManager implements Listener {
         return nationPlayerCache.getPlayerCountInNation(nationId);
     }
     
+    /**
+     * Check nation membership and online tracking against each other and the server
+     * @return Description of each inconsistency found (empty if none)
+     */
+    public List<String> verifyConsistency() {
+        return nationPlayerCache.verify(Bukkit.getOnlinePlayers());
+    }
+    
+    /**
+     * Rebuild online tracking from the players actually on the server
+     */
+    public void resyncOnlinePlayers() {
+        nationPlayerCache.resync(Bukkit.getOnlinePlayers());
+        plugin.getLogger().info("Resynced online nation players: " + getOnlinePlayerCountsByNation());
+    }
+    
     /**
      * Get cache statistics for debugging
      * @return Cache statistics string
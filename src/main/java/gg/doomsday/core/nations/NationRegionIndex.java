@@ -0,0 +1,133 @@
+package gg.doomsday.core.nations;
+
+import gg.doomsday.core.utils.CoordinateUtils;
+import gg.doomsday.core.utils.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chunk-aligned lookup table from world position to nation.
+ *
+ * Every chunk column a nation's borders touch maps to the nations overlapping it, in
+ * config order, so a position lookup is one hash probe plus a bounds test against the
+ * (almost always single) candidate. Nations too large to rasterize are kept in a short
+ * list that is only checked when the table has no match.
+ *
+ * Immutable once built - build a new index and swap it in to pick up border changes.
+ */
+public class NationRegionIndex {
+
+    // Beyond this many chunks a nation is tested directly instead of being rasterized
+    private static final long MAX_CHUNKS_PER_NATION = 1L << 20;
+
+    private static final Nation[] NO_NATIONS = new Nation[0];
+
+    private static final class Cell {
+        final Nation owner;
+        final Nation[] candidates;
+
+        Cell(Nation owner, Nation[] candidates) {
+            this.owner = owner;
+            this.candidates = candidates;
+        }
+    }
+
+    private final LongObjectHashMap<Cell> cells;
+    private final Nation[] oversized;
+
+    public NationRegionIndex(Collection<Nation> nations) {
+        LongObjectHashMap<List<Nation>> overlaps = new LongObjectHashMap<>();
+        List<Nation> large = new ArrayList<>();
+
+        for (Nation nation : nations) {
+            NationBorders borders = nation.getBorders();
+            int minCX = borders.getMinX() >> 4;
+            int maxCX = borders.getMaxX() >> 4;
+            int minCZ = borders.getMinZ() >> 4;
+            int maxCZ = borders.getMaxZ() >> 4;
+            long chunkCount = (long) (maxCX - minCX + 1) * (maxCZ - minCZ + 1);
+            if (chunkCount <= 0) {
+                continue;
+            }
+            if (chunkCount > MAX_CHUNKS_PER_NATION) {
+                large.add(nation);
+                continue;
+            }
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (int cz = minCZ; cz <= maxCZ; cz++) {
+                    if (!borders.overlapsChunk(cx, cz)) {
+                        continue;
+                    }
+                    overlaps.computeIfAbsent(CoordinateUtils.packChunkKey(cx, cz), ArrayList::new).add(nation);
+                }
+            }
+        }
+
+        this.cells = new LongObjectHashMap<>(overlaps.size());
+        overlaps.forEach((key, list) -> {
+            int cx = CoordinateUtils.unpackChunkX(key);
+            int cz = CoordinateUtils.unpackChunkZ(key);
+            Nation[] candidates = list.toArray(NO_NATIONS);
+            cells.put(key, new Cell(pickOwner(candidates, cx, cz), candidates));
+        });
+        this.oversized = large.toArray(NO_NATIONS);
+    }
+
+    /**
+     * Nation containing the position, or null
+     */
+    public Nation getNationAt(double x, double y, double z) {
+        int cx = (int) Math.floor(x) >> 4;
+        int cz = (int) Math.floor(z) >> 4;
+        Cell cell = cells.get(CoordinateUtils.packChunkKey(cx, cz));
+        if (cell != null) {
+            for (Nation nation : cell.candidates) {
+                if (nation.containsLocation(x, y, z)) {
+                    return nation;
+                }
+            }
+        }
+        for (Nation nation : oversized) {
+            if (nation.containsLocation(x, y, z)) {
+                return nation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nation owning the chunk column, ignoring height. A chunk on a border belongs to the
+     * first nation covering all of it, or else the first nation overlapping it.
+     */
+    public Nation getNationAtChunk(int chunkX, int chunkZ) {
+        Cell cell = cells.get(CoordinateUtils.packChunkKey(chunkX, chunkZ));
+        if (cell != null) {
+            return cell.owner;
+        }
+        Nation partial = null;
+        for (Nation nation : oversized) {
+            if (nation.getBorders().coversChunk(chunkX, chunkZ)) {
+                return nation;
+            }
+            if (partial == null && nation.getBorders().overlapsChunk(chunkX, chunkZ)) {
+                partial = nation;
+            }
+        }
+        return partial;
+    }
+
+    public int getChunkCount() {
+        return cells.size();
+    }
+
+    private static Nation pickOwner(Nation[] candidates, int chunkX, int chunkZ) {
+        for (Nation nation : candidates) {
+            if (nation.getBorders().coversChunk(chunkX, chunkZ)) {
+                return nation;
+            }
+        }
+        return candidates[0];
+    }
+}
@@ -15,6 +15,7 @@ import gg.doomsday.core.messaging.MessagingManager;
 import gg.doomsday.core.nations.Nation;
 import gg.doomsday.core.nations.NationManager;
 import gg.doomsday.core.utils.NationColors;
+import gg.doomsday.core.fuel.FuelLedger;
 import gg.doomsday.core.fuel.MissileFuelManager;
 import gg.doomsday.core.DoomsdayCore;
 
@@ -100,20 +101,17 @@ public class MissileService {
         MissileFuelManager fuelManager = doomsdayCore.getFuelManager();
         
         int fuelRequired = rocket.getInt("fuelRequired", 0);
+        FuelLedger.Reservation fuel = null;
         if (fuelRequired > 0) {
-            if (!fuelManager.hasSufficientFuel(rocketKey, fuelRequired)) {
-                int currentFuel = fuelManager.getFuel(rocketKey);
+            // Reserved rather than consumed so the fuel goes back if spawning the rocket fails
+            fuel = fuelManager.reserveFuel(rocketKey, fuelRequired);
+            if (fuel == null) {
+                int currentFuel = fuelManager.getAvailableFuel(rocketKey);
                 int needed = fuelRequired - currentFuel;
                 player.sendMessage("§c❌ Insufficient fuel! Need " + needed + " more rocket fuel.");
                 player.sendMessage("§fCurrent fuel: §c" + currentFuel + " §fRequired: §e" + fuelRequired);
                 return false;
             }
-            
-            // Consume fuel
-            if (!fuelManager.consumeFuel(rocketKey, fuelRequired)) {
-                player.sendMessage("§c❌ Failed to consume fuel! Launch aborted.");
-                return false;
-            }
         }
         
         // Extract configuration
@@ -144,8 +142,17 @@ public class MissileService {
         plugin.getLogger().info("Type: " + explosionTypeStr);
         plugin.getLogger().info("Fuel consumed: " + fuelRequired);
         
-        // Launch the rocket
-        rocketLauncher.spawnRocket(start, end, smokeOffset, speed, arcScale, soundStr, explosionTypeStr);
+        // Launch the rocket; the fuel goes back to the tank if spawning fails
+        try {
+            rocketLauncher.spawnRocket(start, end, smokeOffset, speed, arcScale, soundStr, explosionTypeStr);
+            if (fuel != null) {
+                fuel.commit();
+            }
+        } finally {
+            if (fuel != null) {
+                fuel.release();
+            }
+        }
         
         // Send notifications to all players
         String launchingNationId = getNationIdFromRocketKey(rocketKey);
@@ -97,4 +97,47 @@ public class CoordinateUtils {
                Math.abs(loc1.getY() - loc2.getY()) < 1 &&
                Math.abs(loc1.getZ() - loc2.getZ()) < 1;
     }
+
+    /**
+     * Pack block coordinates into a single long (26 bits X, 26 bits Z, 12 bits Y)
+     * 
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @return Packed block key
+     */
+    public static long packBlockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+    
+    public static int unpackBlockX(long key) {
+        return (int) (key >> 38);
+    }
+    
+    public static int unpackBlockY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+    
+    public static int unpackBlockZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+    
+    /**
+     * Pack chunk coordinates into a single long
+     * 
+     * @param chunkX Chunk X coordinate (block X >> 4)
+     * @param chunkZ Chunk Z coordinate (block Z >> 4)
+     * @return Packed chunk key
+     */
+    public static long packChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    public static int unpackChunkX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    public static int unpackChunkZ(long key) {
+        return (int) key;
+    }
 }
\ No newline at end of file
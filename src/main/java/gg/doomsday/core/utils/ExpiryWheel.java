@@ -0,0 +1,159 @@
+package gg.doomsday.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive long keys to expiry times, expired with a hashed timing wheel.
+ *
+ * Every entry is also filed in the wheel slot for its expiry tick. {@link #expire(long)}
+ * only drains the slots whose ticks have fully passed, so the cost of expiring is
+ * proportional to the entries that actually expire (plus any overwritten or removed
+ * entries left behind in those slots) rather than to the size of the map.
+ *
+ * Deadlines further out than one rotation of the wheel stay in their slot until a
+ * later rotation reaches them. Not thread-safe.
+ */
+public class ExpiryWheel {
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final LongLongHashMap expiries = new LongLongHashMap();
+    private final long tickMillis;
+    private final int mask;
+    // Each slot holds (key, expiresAt) pairs; entries whose time no longer matches the map are stale
+    private final long[][] slots;
+    private final int[] slotSizes;
+    // Last tick drained; until the first expire() call, the earliest tick filed so far
+    private long cursorTick = UNSET;
+    private long earliestTick = Long.MAX_VALUE;
+
+    /**
+     * @param tickMillis width of one slot in milliseconds
+     * @param slotCount  number of slots, rounded up to a power of two
+     */
+    public ExpiryWheel(long tickMillis, int slotCount) {
+        this.tickMillis = Math.max(1L, tickMillis);
+        int size = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new long[size][];
+        this.slotSizes = new int[size];
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    public boolean isEmpty() {
+        return expiries.isEmpty();
+    }
+
+    /**
+     * Get the expiry time of a key, or 0 if the key is not present
+     */
+    public long getExpiry(long key) {
+        return expiries.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Add a key or move its expiry time
+     */
+    public void put(long key, long expiresAt) {
+        long tick = Math.floorDiv(expiresAt, tickMillis);
+        if (cursorTick != UNSET && tick <= cursorTick) {
+            // Its tick has already been drained, so it is expired on arrival
+            expiries.remove(key);
+            return;
+        }
+        if (expiries.getOrDefault(key, UNSET) == expiresAt) {
+            return; // Already filed under this time
+        }
+        expiries.put(key, expiresAt);
+        if (cursorTick == UNSET) {
+            earliestTick = Math.min(earliestTick, tick);
+        }
+
+        int slot = (int) (tick & mask);
+        long[] entries = slots[slot];
+        int used = slotSizes[slot];
+        if (entries == null) {
+            entries = slots[slot] = new long[16];
+        } else if (used + 2 > entries.length) {
+            entries = slots[slot] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[used] = key;
+        entries[used + 1] = expiresAt;
+        slotSizes[slot] = used + 2;
+    }
+
+    /**
+     * Remove a key. Its wheel entry is dropped lazily when its slot is drained.
+     */
+    public boolean remove(long key) {
+        return expiries.remove(key);
+    }
+
+    /**
+     * Drop every key whose expiry tick has fully passed
+     *
+     * @return the number of keys expired
+     */
+    public int expire(long now) {
+        long nowTick = Math.floorDiv(now, tickMillis);
+        if (cursorTick == UNSET) {
+            cursorTick = Math.min(nowTick, earliestTick) - 1;
+        }
+        // Only drain ticks that are completely in the past
+        long lastTick = nowTick - 1;
+        if (lastTick <= cursorTick) {
+            return 0;
+        }
+
+        long firstTick = Math.max(cursorTick + 1, lastTick - mask);
+        int expired = 0;
+        for (long tick = firstTick; tick <= lastTick; tick++) {
+            expired += drainSlot((int) (tick & mask), lastTick);
+        }
+        cursorTick = lastTick;
+        return expired;
+    }
+
+    public void clear() {
+        expiries.clear();
+        cursorTick = UNSET;
+        earliestTick = Long.MAX_VALUE;
+        Arrays.fill(slots, null);
+        Arrays.fill(slotSizes, 0);
+    }
+
+    private int drainSlot(int slot, long lastTick) {
+        int used = slotSizes[slot];
+        if (used == 0) {
+            return 0;
+        }
+
+        long[] entries = slots[slot];
+        int kept = 0;
+        int expired = 0;
+        for (int i = 0; i < used; i += 2) {
+            long key = entries[i];
+            long expiresAt = entries[i + 1];
+            if (expiries.getOrDefault(key, UNSET) != expiresAt) {
+                continue; // Removed or moved since it was filed
+            }
+            if (Math.floorDiv(expiresAt, tickMillis) <= lastTick) {
+                expiries.remove(key);
+                expired++;
+            } else {
+                // Belongs to a later rotation of the wheel
+                entries[kept] = key;
+                entries[kept + 1] = expiresAt;
+                kept += 2;
+            }
+        }
+        slotSizes[slot] = kept;
+        if (kept == 0 && entries.length > 64) {
+            slots[slot] = null; // Release buffers that grew during a burst
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,133 @@
+package gg.doomsday.core.utils;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Sends the particles of one frame of an effect straight to the players who can see them.
+ *
+ * The players close enough to the area being drawn in are looked up once when the batch
+ * is created, and each particle then goes only to those within vanilla particle range of
+ * it. This is what {@link World#spawnParticle} does, but without checking every player in
+ * the world for every particle or needing a Location per particle.
+ *
+ * Build one per frame, as viewer positions are read when it is created. Main thread only.
+ */
+public final class ParticleBatch {
+
+    // Players further than this from a particle are not sent it, same as World#spawnParticle
+    public static final double VIEW_DISTANCE = 32.0;
+    private static final double VIEW_DISTANCE_SQUARED = VIEW_DISTANCE * VIEW_DISTANCE;
+
+    private final Player[] viewers;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int viewerCount;
+    // Scratch list of the viewers in range of the shape being drawn
+    private final int[] inRange;
+
+    /**
+     * Batch for particles drawn inside the given box
+     */
+    public ParticleBatch(World world, double minX, double minY, double minZ,
+                         double maxX, double maxY, double maxZ) {
+        List<Player> players = world.getPlayers();
+        this.viewers = new Player[players.size()];
+        this.xs = new double[viewers.length];
+        this.ys = new double[viewers.length];
+        this.zs = new double[viewers.length];
+        this.inRange = new int[viewers.length];
+
+        int count = 0;
+        for (Player player : players) {
+            Location location = player.getLocation();
+            double x = location.getX();
+            double y = location.getY();
+            double z = location.getZ();
+            double dx = Math.max(0.0, Math.max(minX - x, x - maxX));
+            double dy = Math.max(0.0, Math.max(minY - y, y - maxY));
+            double dz = Math.max(0.0, Math.max(minZ - z, z - maxZ));
+            if (dx * dx + dy * dy + dz * dz >= VIEW_DISTANCE_SQUARED) {
+                continue;
+            }
+            viewers[count] = player;
+            xs[count] = x;
+            ys[count] = y;
+            zs[count] = z;
+            count++;
+        }
+        this.viewerCount = count;
+    }
+
+    /**
+     * Batch for particles drawn within the radius of a point
+     */
+    public static ParticleBatch around(World world, double x, double y, double z, double radius) {
+        return new ParticleBatch(world, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+    }
+
+    public boolean hasViewers() {
+        return viewerCount > 0;
+    }
+
+    /**
+     * Draw the shape at the position, scaled and turned anticlockwise (seen from above,
+     * +X towards +Z) around the vertical axis by the given angle
+     */
+    public void shape(ParticleShape shape, double x, double y, double z, double scale, double rotationRadians,
+                      Particle particle, int count, double offsetX, double offsetY, double offsetZ, double extra) {
+        // Viewers that may be in range of some part of the shape
+        double reach = shape.getRadius() * Math.abs(scale) + VIEW_DISTANCE;
+        double reachSquared = reach * reach;
+        int candidates = 0;
+        for (int i = 0; i < viewerCount; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            if (dx * dx + dy * dy + dz * dz < reachSquared) {
+                inRange[candidates++] = i;
+            }
+        }
+        if (candidates == 0) {
+            return;
+        }
+
+        double cos = Math.cos(rotationRadians) * scale;
+        double sin = Math.sin(rotationRadians) * scale;
+        for (int point = 0, size = shape.size(); point < size; point++) {
+            double px = shape.getX(point);
+            double pz = shape.getZ(point);
+            double particleX = x + px * cos - pz * sin;
+            double particleY = y + shape.getY(point) * scale;
+            double particleZ = z + px * sin + pz * cos;
+            for (int c = 0; c < candidates; c++) {
+                send(inRange[c], particle, particleX, particleY, particleZ, count, offsetX, offsetY, offsetZ, extra);
+            }
+        }
+    }
+
+    /**
+     * Draw a single burst of particles at the position
+     */
+    public void point(double x, double y, double z,
+                      Particle particle, int count, double offsetX, double offsetY, double offsetZ, double extra) {
+        for (int i = 0; i < viewerCount; i++) {
+            send(i, particle, x, y, z, count, offsetX, offsetY, offsetZ, extra);
+        }
+    }
+
+    private void send(int viewer, Particle particle, double x, double y, double z,
+                      int count, double offsetX, double offsetY, double offsetZ, double extra) {
+        double dx = xs[viewer] - x;
+        double dy = ys[viewer] - y;
+        double dz = zs[viewer] - z;
+        if (dx * dx + dy * dy + dz * dz < VIEW_DISTANCE_SQUARED) {
+            viewers[viewer].spawnParticle(particle, x, y, z, count, offsetX, offsetY, offsetZ, extra);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package gg.doomsday.core.utils;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Fixed set of particle positions relative to a centre, worked out once.
+ *
+ * Shapes are built around the origin with Y pointing up and are placed, scaled and
+ * spun around the vertical axis by {@link ParticleBatch} using plain arithmetic, so
+ * drawing one every few ticks needs no trigonometry and no Location objects.
+ *
+ * Immutable; safe to keep in static fields.
+ */
+public final class ParticleShape {
+
+    // x, y, z of each point in turn
+    private final float[] points;
+    private final int size;
+    // Furthest any point is from the origin, used to skip viewers out of range
+    private final double radius;
+
+    private ParticleShape(float[] points) {
+        this.points = points;
+        this.size = points.length / 3;
+
+        double furthestSquared = 0.0;
+        for (int i = 0; i < points.length; i += 3) {
+            double x = points[i];
+            double y = points[i + 1];
+            double z = points[i + 2];
+            furthestSquared = Math.max(furthestSquared, x * x + y * y + z * z);
+        }
+        this.radius = Math.sqrt(furthestSquared);
+    }
+
+    /**
+     * Evenly spaced rings stacked upwards from the origin, the first point of each ring
+     * on the +X axis
+     *
+     * @param layerRadius radius of each ring, given its index counting up from 0
+     */
+    public static ParticleShape funnel(int layers, int pointsPerLayer, double layerSpacing,
+                                       IntToDoubleFunction layerRadius) {
+        float[] points = new float[layers * pointsPerLayer * 3];
+        int i = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            double radius = layerRadius.applyAsDouble(layer);
+            double y = layer * layerSpacing;
+            for (int point = 0; point < pointsPerLayer; point++) {
+                double angle = 2 * Math.PI * point / pointsPerLayer;
+                points[i++] = (float) (radius * Math.cos(angle));
+                points[i++] = (float) y;
+                points[i++] = (float) (radius * Math.sin(angle));
+            }
+        }
+        return new ParticleShape(points);
+    }
+
+    /**
+     * Flat circle of radius 1 around the origin
+     */
+    public static ParticleShape ring(int points) {
+        return funnel(1, points, 0.0, layer -> 1.0);
+    }
+
+    /**
+     * Vertical line of evenly spaced points from the origin up to a height of 1
+     */
+    public static ParticleShape column(int points) {
+        float[] table = new float[points * 3];
+        for (int point = 0; point < points; point++) {
+            table[point * 3 + 1] = points == 1 ? 0.0f : (float) point / (points - 1);
+        }
+        return new ParticleShape(table);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Furthest distance of any point from the origin, before scaling
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    double getX(int point) {
+        return points[point * 3];
+    }
+
+    double getY(int point) {
+        return points[point * 3 + 1];
+    }
+
+    double getZ(int point) {
+        return points[point * 3 + 2];
+    }
+}
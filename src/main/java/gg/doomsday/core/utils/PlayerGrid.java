@@ -0,0 +1,107 @@
+package gg.doomsday.core.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot of player positions bucketed into a uniform grid of square columns.
+ *
+ * Build one per check from the players involved, with the cell size set to the usual
+ * query radius; each "who is within r of here" query then only looks at the players in
+ * the few cells the radius overlaps instead of every player. Positions are read once
+ * when the grid is built, so build a new grid when players may have moved.
+ *
+ * Cells are keyed on X/Z only and distances are 3D. Players in other worlds never match.
+ * Not thread-safe.
+ */
+public final class PlayerGrid {
+
+    private final double cellSize;
+    private final Player[] players;
+    private final World[] worlds;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    // Index of the next player in the same cell, or -1
+    private final int[] next;
+    // Cell key -> index of the first player in it
+    private final LongLongHashMap heads;
+
+    public PlayerGrid(Collection<? extends Player> players, double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        int count = players.size();
+        this.cellSize = cellSize;
+        this.players = new Player[count];
+        this.worlds = new World[count];
+        this.xs = new double[count];
+        this.ys = new double[count];
+        this.zs = new double[count];
+        this.next = new int[count];
+        this.heads = new LongLongHashMap(count);
+
+        int i = 0;
+        for (Player player : players) {
+            Location location = player.getLocation();
+            this.players[i] = player;
+            worlds[i] = location.getWorld();
+            xs[i] = location.getX();
+            ys[i] = location.getY();
+            zs[i] = location.getZ();
+
+            long cell = cellKey(cell(xs[i]), cell(zs[i]));
+            next[i] = (int) heads.getOrDefault(cell, -1L);
+            heads.put(cell, i);
+            i++;
+        }
+    }
+
+    /**
+     * Run the action for every player no further than the radius from the location
+     */
+    public void forEachWithin(Location center, double radius, Consumer<Player> action) {
+        forEachWithin(center.getWorld(), center.getX(), center.getY(), center.getZ(), radius, action);
+    }
+
+    public void forEachWithin(World world, double x, double y, double z, double radius, Consumer<Player> action) {
+        double radiusSquared = radius * radius;
+        int minCellX = cell(x - radius);
+        int maxCellX = cell(x + radius);
+        int minCellZ = cell(z - radius);
+        int maxCellZ = cell(z + radius);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                int i = (int) heads.getOrDefault(cellKey(cellX, cellZ), -1L);
+                for (; i >= 0; i = next[i]) {
+                    if (worlds[i] != world) {
+                        continue;
+                    }
+                    double dx = xs[i] - x;
+                    double dy = ys[i] - y;
+                    double dz = zs[i] - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                        action.accept(players[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return players.length;
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return CoordinateUtils.packChunkKey(cellX, cellZ);
+    }
+}
@@ -0,0 +1,90 @@
+package gg.doomsday.core.utils;
+
+/**
+ * Voxel traversal along a line segment (Amanatides &amp; Woo).
+ *
+ * Visits every block the segment passes through exactly once and in order, using
+ * only primitive arithmetic, so a walk costs one visitor call per block crossed
+ * instead of one per fixed-size sample.
+ */
+public final class VoxelRaycast {
+
+    /**
+     * Callback for each block on the segment
+     */
+    public interface VoxelVisitor {
+        /**
+         * @return true to stop the walk at this block
+         */
+        boolean visit(int x, int y, int z);
+    }
+
+    private VoxelRaycast() {
+    }
+
+    /**
+     * Walk the blocks from (x0, y0, z0) to (x1, y1, z1), starting block included
+     *
+     * @return distance from the start at which the segment entered the block that stopped
+     *         the walk (0 for the starting block), or -1 if the visitor never stopped it
+     */
+    public static double traverse(double x0, double y0, double z0,
+                                  double x1, double y1, double z1, VoxelVisitor visitor) {
+        int x = (int) Math.floor(x0);
+        int y = (int) Math.floor(y0);
+        int z = (int) Math.floor(z0);
+        if (visitor.visit(x, y, z)) {
+            return 0.0;
+        }
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length < 1e-9) {
+            return -1.0;
+        }
+
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        int stepZ = dz > 0 ? 1 : (dz < 0 ? -1 : 0);
+
+        // Distance along the segment to cross one whole block on each axis
+        double deltaX = stepX != 0 ? Math.abs(length / dx) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? Math.abs(length / dy) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? Math.abs(length / dz) : Double.POSITIVE_INFINITY;
+
+        // Distance along the segment to the first block boundary on each axis
+        double nextX = stepX > 0 ? (x + 1 - x0) * deltaX : (stepX < 0 ? (x0 - x) * deltaX : Double.POSITIVE_INFINITY);
+        double nextY = stepY > 0 ? (y + 1 - y0) * deltaY : (stepY < 0 ? (y0 - y) * deltaY : Double.POSITIVE_INFINITY);
+        double nextZ = stepZ > 0 ? (z + 1 - z0) * deltaZ : (stepZ < 0 ? (z0 - z) * deltaZ : Double.POSITIVE_INFINITY);
+
+        // Every step moves one block closer to the end block, which bounds the walk
+        // even when rounding puts a boundary crossing a hair past the segment's end
+        int remaining = Math.abs((int) Math.floor(x1) - x)
+            + Math.abs((int) Math.floor(y1) - y)
+            + Math.abs((int) Math.floor(z1) - z);
+
+        while (remaining-- > 0) {
+            double entered;
+            if (nextX < nextY && nextX < nextZ) {
+                x += stepX;
+                entered = nextX;
+                nextX += deltaX;
+            } else if (nextY < nextZ) {
+                y += stepY;
+                entered = nextY;
+                nextY += deltaY;
+            } else {
+                z += stepZ;
+                entered = nextZ;
+                nextZ += deltaZ;
+            }
+
+            if (visitor.visit(x, y, z)) {
+                return Math.min(entered, length);
+            }
+        }
+        return -1.0;
+    }
+}